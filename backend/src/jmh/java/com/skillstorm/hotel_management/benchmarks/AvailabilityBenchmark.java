@@ -0,0 +1,86 @@
+package com.skillstorm.hotel_management.benchmarks;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.skillstorm.hotel_management.config.PricingProperties;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.services.AvailabilityIndex;
+import com.skillstorm.hotel_management.services.PricingEngine;
+
+/**
+ * Range availability over the whole inventory, with about half of the nights already booked,
+ * and pricing every available room as a search results page does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @Param({ "1000", "5000", "20000" })
+    public int rooms;
+
+    private AvailabilityIndex index;
+    private PricingEngine pricingEngine;
+    private Map<String, Room> roomsById;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        index = new AvailabilityIndex(null, null, 365);
+        today = LocalDate.now();
+        pricingEngine = new PricingEngine(index, new PricingProperties(10, 0.5, 3.0, List.of(
+            new PricingProperties.Rule("weekend", null, Set.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY), null, null, null, null, 1.15),
+            new PricingProperties.Rule("holidays", null, null, "12-20", "01-03", null, null, 1.3),
+            new PricingProperties.Rule("high-occupancy", null, null, null, null, 0.8, null, 1.25)
+        ), Map.of(3, 0.95, 7, 0.9)), 365);
+        roomsById = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (Room room : Fixtures.rooms(rooms)) {
+            roomsById.put(room.getId(), room);
+            index.registerRoom(room);
+            for (int day = 0; day < 360; day += 2 + random.nextInt(4)) {
+                index.tryBook(room.getId(), today.plusDays(day), today.plusDays(day + 1 + random.nextInt(2)));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<String> findAvailableRoomIds() {
+        int from = ThreadLocalRandom.current().nextInt(300);
+        return index.findAvailableRoomIds(today.plusDays(from), today.plusDays(from + 3));
+    }
+
+    @Benchmark
+    public double quoteAvailableRooms() {
+        int from = ThreadLocalRandom.current().nextInt(300);
+        LocalDate checkIn = today.plusDays(from);
+        LocalDate checkOut = today.plusDays(from + 3);
+        double total = 0;
+        for (String roomId : index.findAvailableRoomIds(checkIn, checkOut)) {
+            total += pricingEngine.quote(roomsById.get(roomId), checkIn, checkOut).totalPrice();
+        }
+        return total;
+    }
+}
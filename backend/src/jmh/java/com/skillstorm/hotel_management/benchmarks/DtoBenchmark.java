@@ -0,0 +1,58 @@
+package com.skillstorm.hotel_management.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.skillstorm.hotel_management.dtos.Room.RoomDto;
+import com.skillstorm.hotel_management.dtos.User.UserDto;
+import com.skillstorm.hotel_management.models.BedType;
+import com.skillstorm.hotel_management.models.RoomType;
+
+/**
+ * The defaulting done by the canonical constructors of RoomDto and UserDto.
+ * The fields are read from state so the JIT cannot fold the constructors away.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoBenchmark {
+
+    public String roomNumber = "101";
+    public RoomType type = RoomType.SUITE;
+    public Double price = 249.0;
+    public Integer capacity = 4;
+    public String missing = null;
+
+    @Benchmark
+    public RoomDto roomDtoAllDefaults() {
+        return new RoomDto(roomNumber, null, null, missing, null, null, null, 1, null);
+    }
+
+    @Benchmark
+    public RoomDto roomDtoNoDefaults() {
+        return new RoomDto(roomNumber, type, price, "Suite", capacity, BedType.KING, 400, 1, List.of());
+    }
+
+    @Benchmark
+    public UserDto userDtoAllDefaults() {
+        return new UserDto("guest@example.com", "password", "Guest", "User", missing, missing, false, true);
+    }
+
+    @Benchmark
+    public UserDto userDtoNoDefaults() {
+        return new UserDto("staff@example.com", "password", "Staff", "User", "555-0100", "fr", true, true);
+    }
+}
@@ -0,0 +1,67 @@
+package com.skillstorm.hotel_management.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.skillstorm.hotel_management.models.BedType;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomStatus;
+import com.skillstorm.hotel_management.models.RoomType;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.models.UserPreferences;
+
+/**
+ * Realistic rooms and users for the benchmarks.
+ */
+final class Fixtures {
+
+    private static final RoomType[] TYPES = { RoomType.STANDARD, RoomType.DELUXE, RoomType.SUITE };
+    private static final String[] ROLES = { "ROLE_GUEST", "ROLE_GUEST", "ROLE_GUEST", "ROLE_EMPLOYEE" };
+
+    private Fixtures() {
+    }
+
+    static List<Room> rooms(int count) {
+        List<Room> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Room room = new Room(
+                String.valueOf(100 + i),
+                TYPES[i % TYPES.length],
+                "A quiet room on floor " + (i / 20) + " with a view of the garden and a large work desk.",
+                129.99 + (i % 5) * 20,
+                2 + i % 3,
+                BedType.QUEEN,
+                250 + i % 100,
+                i / 20,
+                List.of("wifi", "tv", "minibar", "balcony"),
+                List.of("https://cdn.example.com/rooms/" + i + "/1.jpg", "https://cdn.example.com/rooms/" + i + "/2.jpg"),
+                true,
+                RoomStatus.AVAILABLE);
+            room.setId(String.format("%024x", i));
+            room.setCreatedAt(new Date());
+            room.setUpdatedAt(new Date());
+            rooms.add(room);
+        }
+        return rooms;
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User(
+                "guest" + i + "@example.com",
+                "password",
+                "Guest",
+                "Number" + i,
+                "555-010" + (i % 10),
+                List.of(ROLES[i % ROLES.length]),
+                new UserPreferences("en", i % 2 == 0, true));
+            user.setId(String.format("%024x", i));
+            user.setCreatedAt(new Date());
+            user.setUpdatedAt(new Date());
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,88 @@
+package com.skillstorm.hotel_management.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import com.skillstorm.hotel_management.dtos.User.UserSummaryDto;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.repositories.RoomNightsRepository;
+import com.skillstorm.hotel_management.repositories.RoomRepository;
+import com.skillstorm.hotel_management.repositories.UserRepository;
+
+/**
+ * Map-backed stand-ins for the Mongo repositories, so the benchmarks measure the services and not the database.
+ * Only the methods the benchmarked service calls are implemented; anything else throws.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static RoomRepository rooms(List<Room> rooms) {
+        Map<String, Room> byId = new ConcurrentHashMap<>();
+        Map<String, Room> byNumber = new ConcurrentHashMap<>();
+        rooms.forEach(room -> {
+            byId.put(room.getId(), room);
+            byNumber.put(room.getRoomNumber(), room);
+        });
+        return (RoomRepository) Proxy.newProxyInstance(RoomRepository.class.getClassLoader(), new Class<?>[] { RoomRepository.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findById" -> Optional.ofNullable(byId.get((String) args[0]));
+                case "findByRoomNumber" -> Optional.ofNullable(byNumber.get((String) args[0]));
+                case "findAll" -> new ArrayList<>(byId.values());
+                case "insert", "save" -> {
+                    Room room = (Room) args[0];
+                    byId.put(room.getId(), room);
+                    byNumber.put(room.getRoomNumber(), room);
+                    yield room;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    static RoomNightsRepository roomNights() {
+        return (RoomNightsRepository) Proxy.newProxyInstance(RoomNightsRepository.class.getClassLoader(), new Class<?>[] { RoomNightsRepository.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "createIfMissing", "createAllIfMissing" -> null;
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    static UserRepository users(List<User> users) {
+        Map<String, User> byEmail = new ConcurrentHashMap<>();
+        users.forEach(user -> byEmail.put(user.getEmail(), user));
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(), new Class<?>[] { UserRepository.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findByEmail" -> Optional.ofNullable(byEmail.get((String) args[0]));
+                case "findByRolesContaining" -> {
+                    List<UserSummaryDto> matches = byEmail.values().stream()
+                        .filter(user -> user.getRoles().contains((String) args[0]))
+                        .map(InMemoryRepositories::toSummary)
+                        .toList();
+                    Pageable pageable = (Pageable) args[1];
+                    int from = (int) Math.min(pageable.getOffset(), matches.size());
+                    int to = Math.min(from + pageable.getPageSize(), matches.size());
+                    yield new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+                }
+                case "findAll" -> new ArrayList<>(byEmail.values());
+                case "insert", "save" -> {
+                    User user = (User) args[0];
+                    byEmail.put(user.getEmail(), user);
+                    yield user;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    private static UserSummaryDto toSummary(User user) {
+        return new UserSummaryDto(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(), user.getPhoneNumber(), user.getRoles());
+    }
+}
@@ -0,0 +1,99 @@
+package com.skillstorm.hotel_management.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test for comparing the platform and virtual thread execution modes.
+ * Each worker sends one request after another for the duration of the run, then throughput and
+ * latency percentiles are printed as one JSON line.
+ *
+ * Start the application once per mode, e.g. with --spring.profiles.active=dev and then dev,virtual (Java 21), and run:
+ *   mvn -Pbenchmark test-compile exec:exec -Dexec.args="-cp %classpath com.skillstorm.hotel_management.benchmarks.LoadTest http://localhost:8081/rooms/all 400 60"
+ * Arguments: url, concurrent clients (default 200), seconds (default 30). The first 5 seconds are warm-up and not recorded.
+ */
+public final class LoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        URI uri = URI.create(args[0]);
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(Math.max(4, clients / 8)))
+            .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+
+        long recordFrom = System.nanoTime() + WARMUP.toNanos();
+        long stopAt = recordFrom + duration.toNanos();
+        long[][] latencies = new long[clients][];
+        AtomicLong errors = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            int worker = i;
+            workers.execute(() -> latencies[worker] = run(client, request, recordFrom, stopAt, errors));
+        }
+        workers.shutdown();
+        workers.awaitTermination(duration.plus(WARMUP).toSeconds() + 60, TimeUnit.SECONDS);
+
+        long[] all = Arrays.stream(latencies).filter(l -> l != null).flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("{\"url\":\"%s\",\"clients\":%d,\"seconds\":%.0f,\"requests\":%d,\"errors\":%d,"
+                + "\"throughput\":%.1f,\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}%n",
+            uri, clients, seconds, all.length, errors.get(), all.length / seconds,
+            percentile(all, 0.50), percentile(all, 0.99), percentile(all, 1.0));
+    }
+
+    /**
+     * Send requests until stopAt and return the latencies, in nanoseconds, of those that completed after recordFrom.
+     */
+    private static long[] run(HttpClient client, HttpRequest request, long recordFrom, long stopAt, AtomicLong errors) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long now;
+        while ((now = System.nanoTime()) < stopAt) {
+            boolean ok;
+            try {
+                ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long end = System.nanoTime();
+            if (now < recordFrom) {
+                continue;
+            }
+            if (!ok) {
+                errors.incrementAndGet();
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = end - now;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
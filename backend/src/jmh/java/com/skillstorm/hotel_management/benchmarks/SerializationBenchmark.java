@@ -0,0 +1,68 @@
+package com.skillstorm.hotel_management.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.skillstorm.hotel_management.dtos.User.UserSummaryDto;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.User;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Jackson serialization of the lists returned by /rooms/all and /users/all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Room> rooms;
+    private List<User> users;
+    private List<UserSummaryDto> userSummaries;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+        rooms = Fixtures.rooms(size);
+        users = Fixtures.users(size);
+        userSummaries = users.stream()
+            .map(user -> new UserSummaryDto(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(), user.getPhoneNumber(), user.getRoles()))
+            .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeRooms() {
+        return objectMapper.writeValueAsBytes(rooms);
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeUserSummaries() {
+        return objectMapper.writeValueAsBytes(userSummaries);
+    }
+}
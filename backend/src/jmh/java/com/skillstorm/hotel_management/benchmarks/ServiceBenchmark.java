@@ -0,0 +1,91 @@
+package com.skillstorm.hotel_management.benchmarks;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.skillstorm.hotel_management.config.CacheConfig;
+import com.skillstorm.hotel_management.dtos.User.UserSummaryDto;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.services.AvailabilityIndex;
+import com.skillstorm.hotel_management.services.ImageService;
+import com.skillstorm.hotel_management.services.RoomService;
+import com.skillstorm.hotel_management.services.UserService;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * RoomService and UserService lookups against in-memory repositories.
+ * The services are built directly, without Spring proxies, so the caches are not in the path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int size;
+
+    private RoomService roomService;
+    private UserService userService;
+    private List<Room> rooms;
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        rooms = Fixtures.rooms(size);
+        users = Fixtures.users(size);
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+            CacheConfig.ROOMS, CacheConfig.ROOMS_BY_NUMBER, CacheConfig.USERS_BY_EMAIL);
+        AvailabilityIndex availabilityIndex = new AvailabilityIndex(null, null, 365);
+        ImageService imageService = new ImageService(Path.of("target", "jmh-images"), 320, 1, 10);
+        roomService = new RoomService(InMemoryRepositories.rooms(rooms), InMemoryRepositories.roomNights(), availabilityIndex,
+            imageService, JsonMapper.builder().build(), cacheManager, 500, 20);
+        userService = new UserService(InMemoryRepositories.users(users), cacheManager, null, null, null);
+    }
+
+    @Benchmark
+    public Room getRoomById() {
+        return roomService.getRoomById(rooms.get(ThreadLocalRandom.current().nextInt(size)).getId());
+    }
+
+    @Benchmark
+    public Room getRoomByNumber() {
+        return roomService.getRoomByNumber(rooms.get(ThreadLocalRandom.current().nextInt(size)).getRoomNumber());
+    }
+
+    @Benchmark
+    public List<Room> getAllRooms() {
+        return roomService.getAllRooms();
+    }
+
+    @Benchmark
+    public User getUserByEmail() {
+        return userService.getUserByEmail(users.get(ThreadLocalRandom.current().nextInt(size)).getEmail());
+    }
+
+    @Benchmark
+    public Page<UserSummaryDto> getGuests() {
+        return userService.getUsersByRole("ROLE_GUEST", PageRequest.of(0, 50));
+    }
+}
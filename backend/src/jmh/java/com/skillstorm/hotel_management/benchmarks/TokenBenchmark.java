@@ -0,0 +1,57 @@
+package com.skillstorm.hotel_management.benchmarks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.services.TokenService;
+
+/**
+ * The per-request cost of token authentication: a cached token against one whose signature is checked every time.
+ * The cached case is what a restricted endpoint adds to a request once a client has used its token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBenchmark {
+
+    private TokenService cached;
+    private TokenService uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        String secret = "aG90ZWwtbWFuYWdlbWVudC1iZW5jaG1hcmstc2VjcmV0LWtleQ==";
+        cached = new TokenService(null, secret, "hotel-management", Duration.ofHours(1), 10_000);
+        uncached = new TokenService(null, secret, "hotel-management", Duration.ofHours(1), 0);
+        User user = new User("manager@example.com", null, "Manager", "User", null, List.of("ROLE_MANAGER"), null);
+        user.setId("benchmark-user");
+        token = cached.issue(user).accessToken();
+    }
+
+    @Benchmark
+    public Authentication authenticateCached() {
+        return cached.authenticate(token);
+    }
+
+    @Benchmark
+    public Authentication authenticateUncached() {
+        return uncached.authenticate(token);
+    }
+}
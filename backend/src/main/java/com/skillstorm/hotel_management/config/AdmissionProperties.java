@@ -0,0 +1,72 @@
+package com.skillstorm.hotel_management.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Admission control for the routes that write to Mongo, bound from hotel.admission.
+ * Each client, the authenticated user or else the remote address, gets a token bucket per route;
+ * on top of that, requests to these routes are shed while the service is overloaded.
+ *
+ * @param enabled false lets every request through
+ * @param routes the limited routes; requests to any other route are not limited
+ * @param shedding when requests to the limited routes are turned away because the service is overloaded
+ */
+@ConfigurationProperties("hotel.admission")
+public record AdmissionProperties(
+    @DefaultValue("true") boolean enabled,
+    List<Route> routes,
+    @DefaultValue Shedding shedding
+) {
+
+    public AdmissionProperties {
+        routes = (routes == null) ? List.of() : routes;
+    }
+
+    /**
+     * A limited route.
+     *
+     * @param name the name used in metrics
+     * @param method the HTTP method
+     * @param path the path pattern, e.g. /rooms/edit/{id}
+     * @param permitsPerSecond the sustained rate allowed to each client
+     * @param burst how many requests a client that has been idle may make at once
+     */
+    public record Route(
+        String name,
+        String method,
+        String path,
+        double permitsPerSecond,
+        @DefaultValue("1") int burst
+    ) {
+
+        public Route {
+            if (permitsPerSecond <= 0 || burst <= 0) {
+                throw new IllegalArgumentException("hotel.admission route " + name + " needs a positive permits-per-second and burst");
+            }
+        }
+    }
+
+    /**
+     * Overload thresholds, compared with moving averages of recent requests.
+     * Past a threshold, a share of requests growing with the overload is shed, never more than maxShedRatio,
+     * so that some requests keep going through and show when the overload is over.
+     *
+     * @param latency the average time taken by requests to the limited routes
+     * @param poolWait the average time any request waits for a Mongo connection
+     * @param maxShedRatio the largest share of requests shed
+     * @param retryAfter what the Retry-After header of a shed request says
+     */
+    public record Shedding(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("500ms") Duration latency,
+        @DefaultValue("50ms") Duration poolWait,
+        @DefaultValue("0.9") double maxShedRatio,
+        @DefaultValue("2s") Duration retryAfter
+    ) {
+
+    }
+}
@@ -0,0 +1,28 @@
+package com.skillstorm.hotel_management.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read-through caches in front of the room and user repositories.
+ * Size and time-to-live come from spring.cache.caffeine.spec in application.yml.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Rooms keyed by ID.
+     */
+    public static final String ROOMS = "rooms";
+
+    /**
+     * Rooms keyed by room number.
+     */
+    public static final String ROOMS_BY_NUMBER = "roomsByNumber";
+
+    /**
+     * Users keyed by email.
+     */
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+}
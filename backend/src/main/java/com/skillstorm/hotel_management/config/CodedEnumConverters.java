@@ -0,0 +1,97 @@
+package com.skillstorm.hotel_management.config;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import com.skillstorm.hotel_management.models.BedType;
+import com.skillstorm.hotel_management.models.CodedEnum;
+import com.skillstorm.hotel_management.models.LoyaltyTier;
+import com.skillstorm.hotel_management.models.RoomStatus;
+import com.skillstorm.hotel_management.models.RoomType;
+
+/**
+ * Mongo converters storing every CodedEnum as its code.
+ * They also apply to query and update values, so a filter on RoomType.SUITE is sent as its code.
+ * Documents still holding a name are read by Spring Data's default enum conversion until the migration rewrites them.
+ */
+public final class CodedEnumConverters {
+
+    /**
+     * The enums stored as codes.
+     */
+    static final List<Class<? extends CodedEnum>> TYPES = List.of(RoomType.class, BedType.class, RoomStatus.class, LoyaltyTier.class);
+
+    /**
+     * The constants of each enum, indexed by code.
+     */
+    private static final ClassValue<CodedEnum[]> BY_CODE = new ClassValue<>() {
+        @Override
+        protected CodedEnum[] computeValue(Class<?> type) {
+            CodedEnum[] constants = (CodedEnum[]) type.getEnumConstants();
+            int maxCode = 0;
+            for (CodedEnum constant : constants) {
+                maxCode = Math.max(maxCode, constant.getCode());
+            }
+            CodedEnum[] byCode = new CodedEnum[maxCode + 1];
+            for (CodedEnum constant : constants) {
+                if (constant.getCode() < 0 || byCode[constant.getCode()] != null) {
+                    throw new IllegalStateException(type.getSimpleName() + " has a negative or duplicate code " + constant.getCode());
+                }
+                byCode[constant.getCode()] = constant;
+            }
+            return byCode;
+        }
+    };
+
+    private CodedEnumConverters() {
+    }
+
+    /**
+     * @return the converters to register with Mongo's custom conversions
+     */
+    public static List<GenericConverter> converters() {
+        return List.of(new Writing(), new Reading());
+    }
+
+    @WritingConverter
+    static final class Writing implements GenericConverter {
+
+        @Override
+        public Set<ConvertiblePair> getConvertibleTypes() {
+            return TYPES.stream().map(type -> new ConvertiblePair(type, Integer.class)).collect(Collectors.toSet());
+        }
+
+        @Override
+        public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+            return source == null ? null : ((CodedEnum) source).getCode();
+        }
+    }
+
+    @ReadingConverter
+    static final class Reading implements GenericConverter {
+
+        @Override
+        public Set<ConvertiblePair> getConvertibleTypes() {
+            return TYPES.stream().map(type -> new ConvertiblePair(Integer.class, type)).collect(Collectors.toSet());
+        }
+
+        @Override
+        public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+            if (source == null) {
+                return null;
+            }
+            int code = (Integer) source;
+            CodedEnum[] byCode = BY_CODE.get(targetType.getType());
+            if (code < 0 || code >= byCode.length || byCode[code] == null) {
+                throw new IllegalArgumentException("Unknown " + targetType.getType().getSimpleName() + " code " + code);
+            }
+            return byCode[code];
+        }
+    }
+}
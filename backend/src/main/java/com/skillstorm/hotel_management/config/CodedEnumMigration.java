@@ -0,0 +1,159 @@
+package com.skillstorm.hotel_management.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.skillstorm.hotel_management.models.BedType;
+import com.skillstorm.hotel_management.models.CodedEnum;
+import com.skillstorm.hotel_management.models.DailyRollup;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomStatus;
+import com.skillstorm.hotel_management.models.RoomType;
+
+/**
+ * Rewrites room types, bed types and statuses stored as names into their codes, once the application is ready.
+ * Documents are read in batches ordered by _id and each field is only set if it still holds the name that was read,
+ * so a room edited in the meantime keeps its new value. A name that is not a constant gets the field's default and a warning.
+ * Until a document is rewritten it is still read through its name, so the migration can run while the application serves requests.
+ */
+@Component
+public class CodedEnumMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(CodedEnumMigration.class);
+
+    /**
+     * A field stored as a code, and the value a name that is not a constant is replaced with.
+     */
+    record CodedField(String name, Class<? extends Enum<?>> type, CodedEnum fallback) {}
+
+    /**
+     * The coded fields of each migrated model.
+     */
+    private static final Map<Class<?>, List<CodedField>> FIELDS = Map.of(
+        Room.class, List.of(
+            new CodedField("type", RoomType.class, RoomType.STANDARD),
+            new CodedField("bedType", BedType.class, BedType.QUEEN),
+            new CodedField("status", RoomStatus.class, RoomStatus.AVAILABLE)),
+        DailyRollup.class, List.of(
+            new CodedField("roomType", RoomType.class, RoomType.STANDARD)));
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoIndexInitializer mongoIndexInitializer;
+    private final TaskExecutor taskExecutor;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public CodedEnumMigration(MongoTemplate mongoTemplate, MongoIndexInitializer mongoIndexInitializer,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${hotel.mongo.migration.enabled:true}") boolean enabled,
+            @Value("${hotel.mongo.migration.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoIndexInitializer = mongoIndexInitializer;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            taskExecutor.execute(this::migrate);
+        }
+    }
+
+    /**
+     * Rewrite every coded field still stored as a name, then replace the room text index that covered the type names.
+     */
+    public void migrate() {
+        try {
+            FIELDS.forEach((model, fields) -> {
+                long rewritten = migrate(mongoTemplate.getCollectionName(model), fields);
+                if (rewritten > 0) {
+                    log.info("Stored {} {} fields as codes", rewritten, model.getSimpleName());
+                }
+            });
+            if (dropLegacyTextIndex()) {
+                mongoIndexInitializer.createIndexes();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not migrate enums to codes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of fields rewritten in the collection
+     */
+    private long migrate(String collection, List<CodedField> fields) {
+        Criteria[] stillNames = fields.stream().map(field -> Criteria.where(field.name()).type(2)).toArray(Criteria[]::new);
+        long rewritten = 0;
+        Object lastId = null;
+        while (true) {
+            Query batch = new Query(new Criteria().orOperator(stillNames)).with(Sort.by("_id")).limit(batchSize);
+            if (lastId != null) {
+                batch.addCriteria(Criteria.where("_id").gt(lastId));
+            }
+            fields.forEach(field -> batch.fields().include(field.name()));
+            List<Document> documents = mongoTemplate.find(batch, Document.class, collection);
+            if (documents.isEmpty()) {
+                return rewritten;
+            }
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, collection);
+            for (Document document : documents) {
+                for (CodedField field : fields) {
+                    if (document.get(field.name()) instanceof String name) {
+                        Query unchanged = new Query(Criteria.where("_id").is(document.get("_id")).and(field.name()).is(name));
+                        bulkOps.updateOne(unchanged, new Update().set(field.name(), codeOf(field, name, document.get("_id"))));
+                        rewritten++;
+                    }
+                }
+            }
+            bulkOps.execute();
+            lastId = documents.get(documents.size() - 1).get("_id");
+        }
+    }
+
+    /**
+     * Drop the room text index that still includes type or bedType, since only one text index is allowed per collection.
+     * @return true if it was dropped and the declared indexes should be created again
+     */
+    private boolean dropLegacyTextIndex() {
+        for (IndexInfo index : mongoTemplate.indexOps(Room.class).getIndexInfo()) {
+            boolean legacy = index.getIndexFields().stream()
+                .anyMatch(field -> field.isText() && (field.getKey().equals("type") || field.getKey().equals("bedType")));
+            if (legacy) {
+                mongoTemplate.indexOps(Room.class).dropIndex(index.getName());
+                log.info("Dropped the room text index {} that covered type and bed type", index.getName());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int codeOf(CodedField field, String name, Object id) {
+        try {
+            return ((CodedEnum) CodedEnum.parse((Class) field.type(), name)).getCode();
+        } catch (IllegalArgumentException e) {
+            log.warn("{} {} of {} is not known, storing {}", field.name(), name, id, field.fallback());
+            return field.fallback().getCode();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.skillstorm.hotel_management.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Reports which threads handle requests.
+ * The mode is chosen with spring.threads.virtual.enabled, usually through the "virtual" profile.
+ * Virtual threads need Java 21; on older runtimes Spring Boot keeps the platform thread pool.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    private final boolean virtualThreads;
+
+    public ExecutionConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logExecutionMode() {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreads && javaVersion < 21) {
+            log.warn("Virtual threads were requested but need Java 21 or later, requests run on platform threads on Java {}", javaVersion);
+        } else {
+            log.info("Requests and repository calls run on {} threads", virtualThreads ? "virtual" : "platform");
+        }
+    }
+}
@@ -1,10 +1,79 @@
 package com.skillstorm.hotel_management.config;
 
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import com.skillstorm.hotel_management.security.LoadShedder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 
 @Configuration
 @EnableMongoAuditing
 public class MongoConfig {
-    // Additional MongoDB configuration can go here if needed
+
+    /**
+     * Size the driver's connection pool from hotel.mongo.pool.*.
+     * With virtual threads the number of concurrent requests is no longer capped by Tomcat,
+     * so the pool becomes the limit: a bounded wait makes excess requests fail fast instead of queueing forever.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${hotel.mongo.pool.max-size:100}") int maxSize,
+            @Value("${hotel.mongo.pool.min-size:0}") int minSize,
+            @Value("${hotel.mongo.pool.max-connecting:2}") int maxConnecting,
+            @Value("${hotel.mongo.pool.max-wait-ms:120000}") long maxWaitMs) {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool
+            .maxSize(maxSize)
+            .minSize(minSize)
+            .maxConnecting(maxConnecting)
+            .maxWaitTime(maxWaitMs, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Store the enums of the models as small integer codes, see CodedEnumConverters.
+     * Used by both the blocking and the reactive templates.
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return MongoCustomConversions.create(adapter -> adapter.registerConverters(CodedEnumConverters.converters()));
+    }
+
+    /**
+     * Let services write a change and its outbox messages in one transaction.
+     * Off by default, as transactions need Mongo to run as a replica set.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "hotel.mongo.transactions", havingValue = "true")
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+
+    /**
+     * Log commands slower than hotel.mongo.slow-command-ms.
+     * Timings of every command and the pool gauges are recorded by Spring Boot as mongodb.driver.commands and mongodb.driver.pool.*.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowCommandCustomizer(
+            @Value("${hotel.mongo.slow-command-ms:100}") long slowCommandMs,
+            MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        return builder -> builder.addCommandListener(new SlowCommandListener(slowCommandMs, meterRegistry, observationRegistry));
+    }
+
+    /**
+     * Report how long requests wait for a pooled connection to the load shedder, an early sign of overload.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer loadSheddingCustomizer(LoadShedder loadShedder) {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(loadShedder));
+    }
 }
@@ -0,0 +1,163 @@
+package com.skillstorm.hotel_management.config;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import com.skillstorm.hotel_management.models.DailyRollup;
+import com.skillstorm.hotel_management.models.OutboxMessage;
+import com.skillstorm.hotel_management.models.Reservation;
+import com.skillstorm.hotel_management.models.RevokedToken;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.models.WaitlistEntry;
+
+/**
+ * Creates the indexes declared on the models once the application is ready,
+ * then checks that no repository query falls back to a collection scan.
+ * Spring Data's auto index creation is left off so startup does not block when the database is unreachable.
+ *
+ * hotel.mongo.index-check decides what a collection scan does:
+ * off skips the check, warn logs it in the background and fail stops startup.
+ */
+@Component
+public class MongoIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    public enum IndexCheckMode { OFF, WARN, FAIL }
+
+    /**
+     * A sample of the filter a repository method sends, used to ask Mongo for its query plan.
+     */
+    record QueryProbe(String method, Class<?> model, Document filter) {}
+
+    /**
+     * The models whose annotated indexes are created on startup.
+     */
+    private static final List<Class<?>> INDEXED_MODELS = List.of(Room.class, Reservation.class, User.class, OutboxMessage.class, RevokedToken.class,
+        DailyRollup.class, WaitlistEntry.class);
+
+    /**
+     * One probe per repository lookup that must be served by an index.
+     */
+    private static final List<QueryProbe> QUERY_PROBES = List.of(
+        new QueryProbe("RoomRepository.findByRoomNumber", Room.class, new Document("roomNumber", "probe")),
+        new QueryProbe("RoomRepository.findByType", Room.class, new Document("type", "probe")),
+        new QueryProbe("RoomRepository.findRoomByAmenities", Room.class, new Document("amenities", new Document("$all", List.of("probe")))),
+        new QueryProbe("RoomRepository.searchRooms(status)", Room.class, new Document("status", "probe")),
+        new QueryProbe("RoomRepository.searchRooms(floor, price)", Room.class,
+            new Document("floor", 1).append("pricePerNight", new Document("$lte", 100.0))),
+        new QueryProbe("UserRepository.findByEmail", User.class, new Document("email", "probe")),
+        new QueryProbe("UserRepository.findByRolesContaining", User.class, new Document("roles", "probe")),
+        new QueryProbe("UserRepository.verifyEmail", User.class, new Document("emailVerificationToken", "probe")),
+        new QueryProbe("OutboxRepository.claimBatch", OutboxMessage.class,
+            new Document("status", new Document("$in", List.of("PENDING", "SENDING"))).append("nextAttemptAt", new Document("$lte", new Date()))),
+        new QueryProbe("RevokedTokenRepository.findByCreatedAtAfter", RevokedToken.class, new Document("createdAt", new Document("$gt", new Date()))),
+        new QueryProbe("ReservationRepository.findByUserId", Reservation.class, new Document("userId", "probe")),
+        new QueryProbe("ReservationRepository.findByRoomId", Reservation.class, new Document("roomId", "probe")),
+        new QueryProbe("ReservationRepository.streamByStatusAndCheckOutAfter", Reservation.class,
+            new Document("status", "probe").append("checkOut", new Document("$gt", new Date()))),
+        new QueryProbe("DailyRollupRepository.summarize", DailyRollup.class,
+            new Document("day", new Document("$gte", 0L).append("$lt", 1L))),
+        new QueryProbe("WaitlistRepository.findByUserId", WaitlistEntry.class, new Document("userId", "probe")),
+        new QueryProbe("WaitlistRepository.streamByStatusAndCheckInGreaterThanEqual", WaitlistEntry.class,
+            new Document("status", "probe").append("checkIn", new Document("$gte", new Date())))
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final TaskExecutor taskExecutor;
+    private final IndexCheckMode indexCheckMode;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate, @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${hotel.mongo.index-check:warn}") IndexCheckMode indexCheckMode) {
+        this.mongoTemplate = mongoTemplate;
+        this.taskExecutor = taskExecutor;
+        this.indexCheckMode = indexCheckMode;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (indexCheckMode == IndexCheckMode.FAIL) {
+            // Run in the startup thread so a missing index or an unreachable database stops the application
+            createIndexes();
+            List<String> scans = findCollectionScans();
+            if (!scans.isEmpty()) {
+                throw new IllegalStateException("Repository queries without an index: " + scans);
+            }
+            return;
+        }
+        taskExecutor.execute(() -> {
+            createIndexes();
+            if (indexCheckMode == IndexCheckMode.WARN) {
+                try {
+                    findCollectionScans().forEach(method -> log.warn("{} does a collection scan", method));
+                } catch (RuntimeException e) {
+                    log.warn("Could not check query plans: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Create every index declared on the indexed models. Existing indexes are left untouched by Mongo.
+     */
+    public void createIndexes() {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> model : INDEXED_MODELS) {
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(model);
+                resolver.resolveIndexFor(model).forEach(indexOps::createIndex);
+            } catch (RuntimeException e) {
+                log.warn("Could not create indexes for {}: {}", model.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Explain every probe and collect those whose winning plan scans the whole collection.
+     * @return the repository methods that do a collection scan
+     */
+    public List<String> findCollectionScans() {
+        List<String> scans = new ArrayList<>();
+        for (QueryProbe probe : QUERY_PROBES) {
+            Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(probe.model()))
+                .find(probe.filter())
+                .explain();
+            Object winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan");
+            if (hasStage(winningPlan, "COLLSCAN")) {
+                scans.add(probe.method());
+            }
+        }
+        return scans;
+    }
+
+    /**
+     * Walk a plan, including its input stages, looking for a stage by name.
+     */
+    private static boolean hasStage(Object plan, String stage) {
+        if (plan instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> hasStage(value, stage));
+        }
+        if (plan instanceof List<?> list) {
+            return list.stream().anyMatch(value -> hasStage(value, stage));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package com.skillstorm.hotel_management.config;
+
+import java.time.DayOfWeek;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import com.skillstorm.hotel_management.models.RoomType;
+
+/**
+ * Pricing rules, bound from hotel.pricing.
+ * A night costs the room's pricePerNight times the product of every rule that matches it,
+ * kept between minMultiplier and maxMultiplier; the stay total is then multiplied by the length of stay factor.
+ *
+ * @param occupancyBuckets how finely occupancy is resolved; 100 means steps of 1%.
+ *        Occupancy is rounded down to a step, so an occupancy rule only fires as precisely as its bound is resolved
+ * @param rules the rules, all of which apply when they match
+ * @param lengthOfStay factor applied to the total, keyed by the minimum number of nights it applies from
+ */
+@ConfigurationProperties("hotel.pricing")
+public record PricingProperties(
+    @DefaultValue("100") int occupancyBuckets,
+    @DefaultValue("0.5") double minMultiplier,
+    @DefaultValue("3.0") double maxMultiplier,
+    List<Rule> rules,
+    Map<Integer, Double> lengthOfStay
+) {
+
+    public PricingProperties {
+        if (occupancyBuckets <= 0) {
+            throw new IllegalArgumentException("hotel.pricing.occupancy-buckets must be positive");
+        }
+        rules = (rules == null) ? List.of() : rules;
+        lengthOfStay = (lengthOfStay == null) ? Map.of() : lengthOfStay;
+    }
+
+    /**
+     * A pricing rule. Every condition left out matches all nights.
+     *
+     * @param types the room types it applies to
+     * @param days the days of the week it applies to
+     * @param from the first day of a season, as MM-dd
+     * @param to the last day of a season, as MM-dd; a season may wrap around the new year
+     * @param minOccupancy the occupancy of the room type from which it applies, from 0 to 1
+     * @param maxOccupancy the occupancy of the room type below which it applies, from 0 to 1
+     * @param multiplier what the nightly rate is multiplied by
+     */
+    public record Rule(
+        String name,
+        Set<RoomType> types,
+        Set<DayOfWeek> days,
+        String from,
+        String to,
+        Double minOccupancy,
+        Double maxOccupancy,
+        double multiplier
+    ) {
+
+    }
+}
@@ -0,0 +1,92 @@
+package com.skillstorm.hotel_management.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Logs every Mongo command slower than a threshold and counts it in hotel.mongo.slow.commands.
+ * The log names the collection, the filter fields (never their values) and the service method that sent the command,
+ * taken from the current observation, so a p99 spike can be traced back to the query behind it.
+ */
+public class SlowCommandListener implements CommandListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowCommandListener.class);
+
+    /**
+     * What is known about a command when it starts; the command document itself cannot be kept past the callback.
+     */
+    private record Started(String command, String collection, String filterFields, String caller) {}
+
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+    private final long thresholdMs;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+
+    public SlowCommandListener(long thresholdMs, MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+        this.thresholdMs = thresholdMs;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonDocument command = event.getCommand();
+        BsonValue target = command.get(event.getCommandName());
+        String collection = target != null && target.isString() ? target.asString().getValue() : event.getDatabaseName();
+        Observation current = observationRegistry.getCurrentObservation();
+        String caller = current == null ? "-" : String.valueOf(current.getContextView().getContextualName());
+        inFlight.put(event.getRequestId(), new Started(event.getCommandName(), collection, filterFields(command), caller));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        finished(event.getRequestId(), event.getElapsedTime(TimeUnit.MILLISECONDS), "success");
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        finished(event.getRequestId(), event.getElapsedTime(TimeUnit.MILLISECONDS), "failed");
+    }
+
+    private void finished(int requestId, long elapsedMs, String status) {
+        Started started = inFlight.remove(requestId);
+        if (started == null || elapsedMs < thresholdMs) {
+            return;
+        }
+        log.warn("Slow Mongo {} on {} took {} ms ({}), filter on {}, from {}",
+            started.command(), started.collection(), elapsedMs, status, started.filterFields(), started.caller());
+        Counter.builder("hotel.mongo.slow.commands")
+            .description("Mongo commands slower than hotel.mongo.slow-command-ms")
+            .tag("command", started.command())
+            .tag("collection", started.collection())
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * @return the top-level fields a command filters on, e.g. [type, status]
+     */
+    private static String filterFields(BsonDocument command) {
+        BsonValue filter = command.get("filter");
+        if (filter == null) {
+            filter = command.get("query");
+        }
+        return filter != null && filter.isDocument() ? filter.asDocument().keySet().toString() : "[]";
+    }
+}
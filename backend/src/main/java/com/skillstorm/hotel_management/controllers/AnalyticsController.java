@@ -0,0 +1,51 @@
+package com.skillstorm.hotel_management.controllers;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.skillstorm.hotel_management.dtos.Analytics.AnalyticsRowDto;
+import com.skillstorm.hotel_management.services.AnalyticsService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+
+
+/**
+* Controller class for the occupancy and revenue dashboard.
+*/
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    /**
+    * The service computing the reports.
+    */
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    /**
+    * Get the occupancy, ADR and RevPAR of the nights from from up to to.
+    * @param from the first night reported
+    * @param to the day after the last night reported
+    * @param groupBy day, month, type, floor or total
+    * @return one row per group, in order
+    */
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @GetMapping
+    public ResponseEntity<List<AnalyticsRowDto>> getReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") String groupBy) {
+        return ResponseEntity.ok(analyticsService.getReport(from, to, groupBy));
+    }
+}
@@ -0,0 +1,126 @@
+package com.skillstorm.hotel_management.controllers;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+import com.skillstorm.hotel_management.exceptions.ConflictException;
+import com.skillstorm.hotel_management.exceptions.NotFoundException;
+import com.skillstorm.hotel_management.exceptions.UnavailableException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Turns the exceptions controllers let through into RFC 7807 problem responses, so every endpoint reports errors the same way.
+ * Services throw NotFoundException (404), ConflictException (409) or another IllegalArgumentException (400),
+ * and UnavailableException (503) for what will pass shortly;
+ * anything unexpected is logged and answered with a 500 that does not leak its message.
+ * Every error is counted in hotel.errors by exception and status.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    private final MeterRegistry meterRegistry;
+
+    public ApiExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleNotFound(NotFoundException e) {
+        return problem(e, HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ProblemDetail> handleConflict(ConflictException e) {
+        return problem(e, HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ProblemDetail> handleBadRequest(IllegalArgumentException e) {
+        return problem(e, HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    /**
+     * A full password or mail pool; the client should retry shortly.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ProblemDetail> handleTooBusy(RejectedExecutionException e) {
+        count(e, HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "Too many requests, try again shortly"));
+    }
+
+    /**
+     * A dependency that is not ready yet, e.g. room availability loading after Mongo came back.
+     */
+    @ExceptionHandler(UnavailableException.class)
+    public ResponseEntity<ProblemDetail> handleUnavailable(UnavailableException e) {
+        count(e, HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "5")
+            .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+    }
+
+    @ExceptionHandler(JwtException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidToken(JwtException e) {
+        return problem(e, HttpStatus.UNAUTHORIZED, "Invalid token");
+    }
+
+    /**
+     * A @PreAuthorize check failed. Handled here, as the catch-all below would otherwise turn it into a 500:
+     * anonymous requests get a 401, as the security filter chain answers them, authenticated ones a 403.
+     */
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ProblemDetail> handleAccessDenied(AccessDeniedException e) {
+        if (!trustResolver.isAuthenticated(SecurityContextHolder.getContext().getAuthentication())) {
+            return problem(e, HttpStatus.UNAUTHORIZED, "Authentication required");
+        }
+        return problem(e, HttpStatus.FORBIDDEN, "Access denied");
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ProblemDetail> handleUnexpected(Exception e) {
+        log.error("Unexpected error handling request", e);
+        return problem(e, HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error");
+    }
+
+    /**
+     * Counts the errors Spring MVC itself reports, e.g. a body that cannot be read or a missing parameter.
+     */
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(Exception ex, Object body, HttpHeaders headers,
+            HttpStatusCode statusCode, WebRequest request) {
+        count(ex, statusCode);
+        return super.handleExceptionInternal(ex, body, headers, statusCode, request);
+    }
+
+    private ResponseEntity<ProblemDetail> problem(Exception e, HttpStatus status, String detail) {
+        count(e, status);
+        return ResponseEntity.status(status).body(ProblemDetail.forStatusAndDetail(status, detail));
+    }
+
+    private void count(Exception e, HttpStatusCode status) {
+        meterRegistry.counter("hotel.errors", "exception", e.getClass().getSimpleName(), "status", String.valueOf(status.value())).increment();
+    }
+}
@@ -0,0 +1,42 @@
+package com.skillstorm.hotel_management.controllers;
+
+import java.util.Date;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Builds responses carrying validators, so a client or CDN revalidating with If-None-Match or If-Modified-Since
+ * gets an empty 304 while the data is unchanged; Spring MVC compares them when the response is written.
+ * The ETags are weak: JSON bodies are gzipped when large, and a weak ETag still matches the compressed copy.
+ */
+final class ConditionalResponses {
+
+    /**
+     * Cached copies may be kept, by browsers and shared caches, but are revalidated before each use.
+     */
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
+    private ConditionalResponses() {}
+
+    /**
+     * @param id the ID of the document
+     * @param updatedAt when the document last changed, or null for documents written before it was recorded
+     * @return a 200 with an ETag and Last-Modified derived from updatedAt, or without validators if it is null
+     */
+    static ResponseEntity.BodyBuilder ok(String id, Date updatedAt) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (updatedAt != null) {
+            builder.eTag(weakETag(id + "-" + Long.toString(updatedAt.getTime(), 36))).lastModified(updatedAt.toInstant());
+        }
+        return builder;
+    }
+
+    /**
+     * @param version a value that changes whenever the representation does
+     * @return the version as a weak ETag, e.g. W/"120-m3x9k2a1"
+     */
+    static String weakETag(String version) {
+        return "W/\"" + version + "\"";
+    }
+}
@@ -0,0 +1,63 @@
+package com.skillstorm.hotel_management.controllers;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.skillstorm.hotel_management.services.ImageService;
+
+import java.time.Duration;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+
+
+/**
+ * Controller for serving room images.
+ * An image ID is the hash of its content, so responses are cached for a year and revalidated by ETag.
+ * Range requests are answered with partial content by Spring MVC.
+ */
+@RestController
+@RequestMapping("/images")
+public class ImageController {
+
+    /**
+     * Service for storing and loading images.
+     */
+    private final ImageService imageService;
+
+    public ImageController(ImageService imageService) {
+        this.imageService = imageService;
+    }
+
+    /**
+     * Get an image or its thumbnail.
+     * @param id the ID of the image, as referenced by a room's images
+     * @param size "thumbnail" for the thumbnail, anything else for the original
+     * @return the image, 304 if the client's copy is current, or 404 if not found
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Resource> getImage(@PathVariable String id, @RequestParam(defaultValue = "original") String size) {
+        boolean thumbnail = "thumbnail".equals(size);
+        Resource image = imageService.load(id, thumbnail);
+        if (thumbnail && !imageService.hasThumbnail(id)) {
+            // The thumbnail could not be made and the original was sent instead; it must not be cached as the thumbnail
+            return ResponseEntity.ok()
+                .eTag(id)
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)))
+                .contentType(MediaTypeFactory.getMediaType(id).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .body(image);
+        }
+        return ResponseEntity.ok()
+            .eTag(id + (thumbnail ? "-thumbnail" : ""))
+            .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+            .contentType(MediaTypeFactory.getMediaType(id).orElse(MediaType.APPLICATION_OCTET_STREAM))
+            .body(image);
+    }
+}
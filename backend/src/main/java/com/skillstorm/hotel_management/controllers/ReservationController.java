@@ -0,0 +1,108 @@
+package com.skillstorm.hotel_management.controllers;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.skillstorm.hotel_management.dtos.Reservation.QuoteDto;
+import com.skillstorm.hotel_management.dtos.Reservation.ReservationDto;
+import com.skillstorm.hotel_management.models.Reservation;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.services.ReservationService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.PathVariable;
+
+
+
+/**
+* Controller class for managing reservations.
+*/
+@RestController
+@RequestMapping("/reservations")
+public class ReservationController {
+
+    /**
+    * The service for managing reservations.
+    */
+    private final ReservationService reservationService;
+
+    public ReservationController(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    /**
+    * Get a reservation by its ID.
+    * @param id the ID of the reservation
+    * @return the reservation with the specified ID
+    */
+    @GetMapping("/{id}")
+    public ResponseEntity<Reservation> getReservationById(@PathVariable String id) {
+        return ResponseEntity.ok(reservationService.getReservationById(id));
+    }
+
+    /**
+    * Get every room free from checkIn up to checkOut.
+    * @param checkIn the first night of the stay
+    * @param checkOut the day the guest leaves
+    * @return the rooms free every night of the stay
+    */
+    @GetMapping("/available")
+    public ResponseEntity<List<Room>> getAvailableRooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
+        return ResponseEntity.ok(reservationService.getAvailableRooms(checkIn, checkOut));
+    }
+
+    /**
+    * Price a stay in every room free from checkIn up to checkOut.
+    * @param checkIn the first night of the stay
+    * @param checkOut the day the guest leaves
+    * @return a quote for each room free every night of the stay
+    */
+    @GetMapping("/quotes")
+    public ResponseEntity<List<QuoteDto>> getQuotes(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
+        return ResponseEntity.ok(reservationService.getQuotes(checkIn, checkOut));
+    }
+
+    /**
+    * Get the reservations of a user.
+    * @param userId the ID of the user
+    * @return the reservations made by the user
+    */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<Reservation>> getReservationsByUser(@PathVariable String userId) {
+        return ResponseEntity.ok(reservationService.getReservationsByUser(userId));
+    }
+
+    /**
+    * Book a room.
+    * @param reservationDto the data transfer object containing the booking details
+    * @return the new reservation
+    */
+    @PostMapping("/new")
+    public ResponseEntity<Reservation> createReservation(@RequestBody ReservationDto reservationDto) {
+        return ResponseEntity.ok(reservationService.createReservation(reservationDto));
+    }
+
+    /**
+    * Cancel a reservation.
+    * @param id the ID of the reservation to cancel
+    * @return the cancelled reservation
+    */
+    @PutMapping("/cancel/{id}")
+    public ResponseEntity<Reservation> cancelReservation(@PathVariable String id) {
+        return ResponseEntity.ok(reservationService.cancelReservation(id));
+    }
+}
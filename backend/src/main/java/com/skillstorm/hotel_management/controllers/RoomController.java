@@ -3,13 +3,22 @@ package com.skillstorm.hotel_management.controllers;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.skillstorm.hotel_management.dtos.Room.BulkImportResultDto;
+import com.skillstorm.hotel_management.dtos.Room.RoomChangeEvent;
 import com.skillstorm.hotel_management.dtos.Room.EditRoomDto;
 import com.skillstorm.hotel_management.dtos.Room.RoomDto;
+import com.skillstorm.hotel_management.dtos.Room.RoomPageDto;
+import com.skillstorm.hotel_management.dtos.Room.RoomSearchCriteria;
+import com.skillstorm.hotel_management.dtos.Room.RoomSearchResultDto;
 import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.services.RoomEventService;
 import com.skillstorm.hotel_management.services.RoomService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,6 +26,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import reactor.core.publisher.Flux;
 
 
 
@@ -32,52 +47,87 @@ public class RoomController {
     */
     private final RoomService roomService;
 
-    public RoomController(RoomService roomService) {
+    /**
+    * The service for pushing room changes.
+    */
+    private final RoomEventService roomEventService;
+
+    public RoomController(RoomService roomService, RoomEventService roomEventService) {
         this.roomService = roomService;
+        this.roomEventService = roomEventService;
     }   
     
     /**
     * Get all rooms.
-    * @return a list of all rooms
+    * The ETag is the version of the whole list, checked before the rooms are read, so a client polling
+    * with If-None-Match gets an empty 304 until a room is added, edited or deleted.
+    * There is no Last-Modified, as a deletion would not move it forward.
+    * @param request the request, holding the client's If-None-Match
+    * @return a list of all rooms, or 304 if the client's copy is current
     */
     @GetMapping("all")
-    public ResponseEntity<List<Room>> getAllRooms() {
+    public ResponseEntity<List<Room>> getAllRooms(WebRequest request) {
+        String eTag = ConditionalResponses.weakETag(roomService.getRoomsVersion());
+        if (request.checkNotModified(eTag)) {
+            // checkNotModified has set the 304 and the ETag
+            return null;
+        }
         List<Room> rooms = roomService.getAllRooms();
-        return ResponseEntity.ok(rooms);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(ConditionalResponses.REVALIDATE).body(rooms);
+    }
+
+    /**
+    * Search rooms with filters and cursor pagination.
+    * Images and description are left out unless includeDetails is true.
+    * @param criteria the filters, cursor and page size taken from the query string
+    * @return a page of rooms and the cursor of the next page
+    */
+    @GetMapping("/search")
+    public ResponseEntity<RoomPageDto> searchRooms(RoomSearchCriteria criteria) {
+        return ResponseEntity.ok(roomService.searchRooms(criteria));
+    }
+
+    /**
+    * Search rooms and count the matches by type, bed type, floor, price range and amenity, in one call.
+    * Takes the same filters as /rooms/search; the counts cover every match, not only the page.
+    * @param criteria the filters, cursor and page size taken from the query string
+    * @return a page of rooms, the cursor of the next page and the facet counts
+    */
+    @GetMapping("/search/facets")
+    public ResponseEntity<RoomSearchResultDto> searchRoomsWithFacets(RoomSearchCriteria criteria) {
+        return ResponseEntity.ok(roomService.searchRoomsWithFacets(criteria));
+    }
+
+    /**
+    * Subscribe to room changes, e.g. a room going to cleaning or maintenance.
+    * Each event carries only what changed, so dashboards can apply it instead of polling /rooms/all.
+    * @return a server-sent event, or NDJSON line, per change
+    */
+    @GetMapping(value = "/events", produces = { MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<RoomChangeEvent> streamRoomEvents() {
+        return roomEventService.subscribe();
     }
 
     /**
     * Get a room by its ID.
     * @param id the ID of the room
-    * @return the room with the specified ID
+    * @return the room with the specified ID, or 304 if the client's copy is current
     */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getRoomById(@PathVariable String id) {
-        try {
-            Room room = roomService.getRoomById(id);
-            return ResponseEntity.ok(room);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Unexpected error: " + e.getMessage());
-        }
+    public ResponseEntity<Room> getRoomById(@PathVariable String id) {
+        Room room = roomService.getRoomById(id);
+        return ConditionalResponses.ok(room.getId(), room.getUpdatedAt()).cacheControl(ConditionalResponses.REVALIDATE).body(room);
     }
 
     /**
     * Get a room by its number.
     * @param roomNumber the number of the room
-    * @return the room with the specified number
+    * @return the room with the specified number, or 304 if the client's copy is current
     */  
     @GetMapping("/number/{roomNumber}")
     public ResponseEntity<Room> getRoomByNumber(@PathVariable String roomNumber) {
-        try {
-            Room room = roomService.getRoomByNumber(roomNumber);
-            return ResponseEntity.ok(room);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(null);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body(null);
-        }
+        Room room = roomService.getRoomByNumber(roomNumber);
+        return ConditionalResponses.ok(room.getId(), room.getUpdatedAt()).cacheControl(ConditionalResponses.REVALIDATE).body(room);
     }
     
     /**
@@ -86,17 +136,31 @@ public class RoomController {
     * @return the newly created room
     */
     @PostMapping("/new")
-    public ResponseEntity<?> createRoom(@RequestBody RoomDto roomDto) {
-        try {
-            Room room = roomService.createRoom(roomDto);
-            return ResponseEntity.ok(room);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Unexpected error: " + e.getMessage());
-        }
+    public ResponseEntity<Room> createRoom(@RequestBody RoomDto roomDto) {
+        Room room = roomService.createRoom(roomDto);
+        return ResponseEntity.ok(room);
     }
     
+    /**
+    * Create many rooms at once from a JSON array or newline-delimited JSON of rooms.
+    * Rows that cannot be inserted are reported and do not stop the others.
+    * @param body the streamed request body
+    * @return how many rooms were inserted and the errors of the rows that were not
+    */
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<BulkImportResultDto> importRooms(InputStream body) {
+        return ResponseEntity.ok(roomService.importRooms(body));
+    }
+
+    /**
+    * Export every room as newline-delimited JSON, streamed as it is read.
+    * @return the streamed rooms
+    */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRooms() {
+        return ResponseEntity.ok(out -> roomService.exportRooms(out));
+    }
+
     /**
     * Edit an existing room.
     * @param id the ID of the room to edit
@@ -104,32 +168,44 @@ public class RoomController {
     * @return the updated room
     */
     @PutMapping("/edit/{id}")
-    public ResponseEntity<?> EditRoom(@PathVariable String id, @RequestBody EditRoomDto editRoomDto) {
-        try {
-            Room room = roomService.editRoom(id, editRoomDto);
-            return ResponseEntity.ok(room);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Unexpected error: " + e.getMessage());
-        }
+    public ResponseEntity<Room> EditRoom(@PathVariable String id, @RequestBody EditRoomDto editRoomDto) {
+        Room room = roomService.editRoom(id, editRoomDto);
+        return ResponseEntity.ok(room);
     }
     
+    /**
+    * Upload an image of a room. The room keeps only the image ID; the image is served from /images/{imageId}.
+    * @param id the ID of the room
+    * @param file the image, as a JPEG, PNG or GIF multipart file
+    * @return the updated room
+    */
+    @PostMapping(value = "/{id}/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Room> addImage(@PathVariable String id, @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            return ResponseEntity.ok(roomService.addImage(id, content, file.getContentType()));
+        }
+    }
+
+    /**
+    * Remove an image from a room.
+    * @param id the ID of the room
+    * @param imageId the ID of the image
+    * @return the updated room
+    */
+    @DeleteMapping("/{id}/images/{imageId}")
+    public ResponseEntity<Room> removeImage(@PathVariable String id, @PathVariable String imageId) {
+        return ResponseEntity.ok(roomService.removeImage(id, imageId));
+    }
+
     /**
     * Delete a room by its ID.
     * @param id the ID of the room to delete
     * @return a response indicating the result of the deletion
     */
     @DeleteMapping("/delete/{id}")
-    public ResponseEntity<?> deleteRoom(@PathVariable String id) {
-        try {
-            roomService.deleteRoom(id);
-            return ResponseEntity.ok("Room deleted successfully");
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Unexpected error: " + e.getMessage());
-        }
+    public ResponseEntity<String> deleteRoom(@PathVariable String id) {
+        roomService.deleteRoom(id);
+        return ResponseEntity.ok("Room deleted successfully");
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.skillstorm.hotel_management.controllers;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.skillstorm.hotel_management.dtos.User.UserSummaryDto;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.services.StreamService;
+
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import reactor.core.publisher.Flux;
+
+
+
+/**
+ * Streaming variants of the list endpoints.
+ * Each document is written as soon as it is read, as newline-delimited JSON
+ * (Accept: application/x-ndjson) or server-sent events (Accept: text/event-stream),
+ * so memory use and time to first byte do not grow with the collection.
+ */
+@RestController
+@RequestMapping("/stream")
+public class StreamController {
+
+    /**
+     * Service for streaming collections.
+     */
+    private final StreamService streamService;
+
+    public StreamController(StreamService streamService) {
+        this.streamService = streamService;
+    }
+
+    /**
+    * Stream all rooms.
+    * @return every room
+    */
+    @GetMapping(value = "/rooms", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<Room> streamAllRooms() {
+        return streamService.streamAllRooms();
+    }
+
+    /**
+    * Stream all users.
+    * @return every user
+    */
+    @GetMapping(value = "/users", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<UserSummaryDto> streamAllUsers() {
+        return streamService.streamAllUsers();
+    }
+
+    /**
+    * Stream all users with a role.
+    * @param role the role of the users to stream
+    * @return the users with the role
+    */
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @GetMapping(value = "/users/role", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<UserSummaryDto> streamUsersByRole(@RequestParam String role) {
+        return streamService.streamUsersByRole(role);
+    }
+
+    /**
+    * Stream all guests.
+    * @return the users with the role "ROLE_GUEST"
+    */
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN', 'EMPLOYEE')")
+    @GetMapping(value = "/users/guests", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<UserSummaryDto> streamGuests() {
+        return streamService.streamUsersByRole("ROLE_GUEST");
+    }
+}
@@ -1,24 +1,39 @@
 package com.skillstorm.hotel_management.controllers;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.skillstorm.hotel_management.dtos.User.EditProfileUserDto;
+import com.skillstorm.hotel_management.dtos.User.EditRolesDto;
+import com.skillstorm.hotel_management.dtos.User.LoginDto;
+import com.skillstorm.hotel_management.dtos.User.TokenDto;
 import com.skillstorm.hotel_management.dtos.User.UserDto;
+import com.skillstorm.hotel_management.dtos.User.UserSummaryDto;
+import com.skillstorm.hotel_management.exceptions.NotFoundException;
 import com.skillstorm.hotel_management.models.User;
 import com.skillstorm.hotel_management.services.UserService;
 
-import java.util.List;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-//import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.server.ResponseStatusException;
 
 
 
@@ -41,53 +56,56 @@ public class UserController {
     }
 
     /**
-    * Get all users.
-    * @return a list of all users
+    * Get a page of all users.
+    * @param pageable the page, size and sort order, e.g. ?page=0&size=50&sort=lastName,asc
+    * @return a page of user summaries
     */
     @GetMapping("all")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<PagedModel<UserSummaryDto>> getAllUsers(@PageableDefault(size = 50, sort = { "lastName", "firstName" }) Pageable pageable) {
+        Page<UserSummaryDto> users = userService.getAllUsers(pageable);
+        return ResponseEntity.ok(new PagedModel<>(users));
     }
     
     /**
     * Get a user by their email.
     * @param email the email of the user to retrieve
-    * @return the user with the specified email, or a 404 if not found
+    * @return the user with the specified email, 304 if the client's copy is current, or a 404 if not found
     */
     @GetMapping
     public ResponseEntity<User> getUserByEmail(@RequestParam String email) {
         User user = userService.getUserByEmail(email);
-        if (user != null) {
-            return ResponseEntity.ok(user);
-        } else {
-            return ResponseEntity.notFound().build();
+        if (user == null) {
+            throw new NotFoundException("User with email " + email + " not found");
         }
+        // A profile is only revalidated by the client itself, never kept by a shared cache
+        return ConditionalResponses.ok(user.getId(), user.getUpdatedAt()).cacheControl(CacheControl.noCache().cachePrivate()).body(user);
     }
     
     /**
-    * Get all users by their role.
+    * Get a page of users by their role.
     * @param role the role of the users to retrieve
-    * @return a list of users with the specified role
+    * @param pageable the page, size and sort order, e.g. ?page=0&size=50&sort=lastName,asc
+    * @return a page of summaries of the users with the specified role
     */
 
-    // uncomment if you want to restrict access to managers and admins
-    //@PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
     @GetMapping("/role")
-    public ResponseEntity<List<User>> getUserByRole(@RequestParam String role) {
-        List<User> users = userService.getUsersByRole(role);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<PagedModel<UserSummaryDto>> getUserByRole(@RequestParam String role,
+            @PageableDefault(size = 50, sort = { "lastName", "firstName" }) Pageable pageable) {
+        Page<UserSummaryDto> users = userService.getUsersByRole(role, pageable);
+        return ResponseEntity.ok(new PagedModel<>(users));
     }
 
     /**
-    * Get all guests.
-    * @return a list of users with the role "ROLE_GUEST"
+    * Get a page of guests.
+    * @param pageable the page, size and sort order, e.g. ?page=0&size=50&sort=lastName,asc
+    * @return a page of summaries of the users with the role "ROLE_GUEST"
     */
-    //@PreAuthorize("hasAnyRole('MANAGER','ADMIN', 'EMPLOYEE')")
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN', 'EMPLOYEE')")
     @GetMapping("/guests")
-    public ResponseEntity<List<User>> getGuests() {
-        List<User> guests = userService.getUsersByRole("ROLE_GUEST");
-        return ResponseEntity.ok(guests);
+    public ResponseEntity<PagedModel<UserSummaryDto>> getGuests(@PageableDefault(size = 50, sort = { "lastName", "firstName" }) Pageable pageable) {
+        Page<UserSummaryDto> guests = userService.getUsersByRole("ROLE_GUEST", pageable);
+        return ResponseEntity.ok(new PagedModel<>(guests));
     }
     
     /**
@@ -101,6 +119,49 @@ public class UserController {
         return ResponseEntity.ok(createdUser);
     }
 
+    /**
+     * Log in with an email and password.
+     * The password is checked on the password pool, so the request does not hold a server thread while it waits.
+     * @param loginDto the email and password
+     * @return an access token to send as "Authorization: Bearer ...", a 401 if the email or password is wrong,
+     *         or a 503 if too many logins are waiting
+     */
+    @PostMapping("login")
+    public CompletableFuture<ResponseEntity<TokenDto>> login(@RequestBody LoginDto loginDto) {
+        return userService.login(loginDto.email(), loginDto.password()).handle((token, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause == null) {
+                return ResponseEntity.ok(token);
+            }
+            // A wrong email or password is a 401 here, not the 400 other invalid arguments get
+            if (cause instanceof IllegalArgumentException) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, cause.getMessage());
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    /**
+     * Revoke the access token the request was made with.
+     * @param authorization the Authorization header holding the bearer token
+     * @return a response entity with no content, or a 401 if the token is not valid
+     */
+    @PostMapping("logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        userService.logout(authorization.replaceFirst("(?i)^Bearer ", "").trim());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Verify a user's email with the token from their verification mail.
+     * @param token the token from the verification link
+     * @return the verified user, or a 400 if the token is not valid
+     */
+    @GetMapping("verify")
+    public ResponseEntity<User> verifyEmail(@RequestParam String token) {
+        return ResponseEntity.ok(userService.verifyEmail(token));
+    }
+
     /**
      * Edit a user's profile.
      * @param id the ID of the user to edit
@@ -112,6 +173,18 @@ public class UserController {
         return ResponseEntity.ok(userService.editUserProfile(id, editProfileUserDto));
     }
 
+    /**
+     * Replace a user's roles. Admin only, as sign-up always makes a guest.
+     * @param id the ID of the user
+     * @param editRolesDto the DTO containing the new roles
+     * @return the updated user; tokens issued before the change stop working
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("{id}/roles")
+    public ResponseEntity<User> editUserRoles(@PathVariable String id, @RequestBody EditRolesDto editRolesDto) {
+        return ResponseEntity.ok(userService.editUserRoles(id, editRolesDto));
+    }
+
     /**
      * Delete a user by their ID.
      * @param id the ID of the user to delete
@@ -0,0 +1,76 @@
+package com.skillstorm.hotel_management.controllers;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.skillstorm.hotel_management.dtos.Waitlist.WaitlistDto;
+import com.skillstorm.hotel_management.models.WaitlistEntry;
+import com.skillstorm.hotel_management.services.WaitlistService;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+
+
+/**
+* Controller class for the waitlist of sold out room types.
+*/
+@RestController
+@RequestMapping("/waitlist")
+public class WaitlistController {
+
+    /**
+    * The service for managing the waitlist.
+    */
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    /**
+    * Get a waitlist entry by its ID.
+    * @param id the ID of the entry
+    * @return the entry with the specified ID
+    */
+    @GetMapping("/{id}")
+    public ResponseEntity<WaitlistEntry> getEntryById(@PathVariable String id) {
+        return ResponseEntity.ok(waitlistService.getEntryById(id));
+    }
+
+    /**
+    * Get the waitlist entries of a user.
+    * @param userId the ID of the user
+    * @return the entries of the user, with the reservation of those that were allocated a room
+    */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<WaitlistEntry>> getEntriesByUser(@PathVariable String userId) {
+        return ResponseEntity.ok(waitlistService.getEntriesByUser(userId));
+    }
+
+    /**
+    * Wait for a room of a type that is sold out for a stay.
+    * @param waitlistDto the data transfer object containing the stay
+    * @return the new entry
+    */
+    @PostMapping("/new")
+    public ResponseEntity<WaitlistEntry> joinWaitlist(@RequestBody WaitlistDto waitlistDto) {
+        return ResponseEntity.ok(waitlistService.joinWaitlist(waitlistDto));
+    }
+
+    /**
+    * Leave the waitlist.
+    * @param id the ID of the entry
+    * @return the cancelled entry
+    */
+    @PutMapping("/cancel/{id}")
+    public ResponseEntity<WaitlistEntry> leaveWaitlist(@PathVariable String id) {
+        return ResponseEntity.ok(waitlistService.leaveWaitlist(id));
+    }
+}
@@ -0,0 +1,24 @@
+package com.skillstorm.hotel_management.dtos.Analytics;
+
+/**
+ * Occupancy and revenue of one group of rollup rows, e.g. one month or one room type.
+ * occupancy is roomNightsSold / roomNights, adr (average daily rate) is revenue / roomNightsSold
+ * and revpar (revenue per available room) is revenue / roomNights; each is 0 when its divisor is.
+ */
+public record AnalyticsRowDto(
+    String key,
+    long roomNights,
+    long roomNightsSold,
+    double revenue,
+    double occupancy,
+    double adr,
+    double revpar
+) {
+
+    public static AnalyticsRowDto of(String key, long roomNights, long roomNightsSold, double revenue) {
+        return new AnalyticsRowDto(key, roomNights, roomNightsSold, revenue,
+            roomNights == 0 ? 0 : (double) roomNightsSold / roomNights,
+            roomNightsSold == 0 ? 0 : revenue / roomNightsSold,
+            roomNights == 0 ? 0 : revenue / roomNights);
+    }
+}
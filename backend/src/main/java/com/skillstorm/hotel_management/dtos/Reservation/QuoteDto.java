@@ -0,0 +1,23 @@
+package com.skillstorm.hotel_management.dtos.Reservation;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.skillstorm.hotel_management.models.RoomType;
+
+/**
+ * The price of a stay in one room.
+ * nightlyRates holds the rate of each night before the length of stay factor is applied to the total.
+ */
+public record QuoteDto(
+    String roomId,
+    String roomNumber,
+    RoomType type,
+    LocalDate checkIn,
+    LocalDate checkOut,
+    List<Double> nightlyRates,
+    double lengthOfStayFactor,
+    double totalPrice
+) {
+    
+}
@@ -0,0 +1,15 @@
+package com.skillstorm.hotel_management.dtos.Reservation;
+
+import java.time.LocalDate;
+
+public record ReservationDto(
+    String roomId,
+    String userId,
+    LocalDate checkIn,
+    LocalDate checkOut,
+    Integer guests
+) {
+    public ReservationDto {
+        guests = (guests == null || guests <= 0) ? 1 : guests;
+    }
+}
@@ -0,0 +1,11 @@
+package com.skillstorm.hotel_management.dtos.Room;
+
+import java.util.List;
+
+public record BulkImportResultDto(
+    int received,
+    int inserted,
+    List<RowErrorDto> errors
+) {
+    
+}
@@ -2,17 +2,23 @@ package com.skillstorm.hotel_management.dtos.Room;
 
 import java.util.List;
 
+import com.skillstorm.hotel_management.models.BedType;
+import com.skillstorm.hotel_management.models.RoomStatus;
+import com.skillstorm.hotel_management.models.RoomType;
+
+/**
+ * The room fields an edit can change. Images are changed only through /rooms/{id}/images, which checks them.
+ */
 public record EditRoomDto(
-    String type,
+    RoomType type,
     Double pricePerNight,
     String description,
     Integer maxCapacity,
-    String bedType,
+    BedType bedType,
     Integer size,
     List<String> amenities,
-    List<String> images,
     Boolean isAvailable,
-    String status
+    RoomStatus status
 ) {
     
 }
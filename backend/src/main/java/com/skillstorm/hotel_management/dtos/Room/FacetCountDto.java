@@ -0,0 +1,11 @@
+package com.skillstorm.hotel_management.dtos.Room;
+
+/**
+ * How many matching rooms share one value of a facet, e.g. 12 rooms of type SUITE.
+ */
+public record FacetCountDto(
+    String value,
+    long count
+) {
+    
+}
@@ -0,0 +1,21 @@
+package com.skillstorm.hotel_management.dtos.Room;
+
+import java.util.List;
+import java.util.Map;
+
+import com.skillstorm.hotel_management.models.Room;
+
+/**
+ * A change to one room, pushed to the dashboards subscribed to /rooms/events.
+ * operation is insert, update, replace or delete.
+ * room is set for inserts and replaces; changes and removedFields are set for updates and hold only the fields that changed.
+ */
+public record RoomChangeEvent(
+    String operation,
+    String roomId,
+    Room room,
+    Map<String, Object> changes,
+    List<String> removedFields
+) {
+    
+}
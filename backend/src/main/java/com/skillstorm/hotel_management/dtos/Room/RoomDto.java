@@ -2,24 +2,30 @@ package com.skillstorm.hotel_management.dtos.Room;
 
 import java.util.List;
 
+import com.skillstorm.hotel_management.models.BedType;
+import com.skillstorm.hotel_management.models.RoomType;
+
+/**
+ * A new room, as created by POST /rooms/new and each row of POST /rooms/bulk.
+ * New rooms start without images; they are added through /rooms/{id}/images, which checks them.
+ */
 public record RoomDto(
     String roomNumber, 
-    String type, 
+    RoomType type, 
     Double pricePerNight,
     String description,
     Integer maxCapacity,
-    String bedType,
+    BedType bedType,
     Integer size,
     Integer floor,
-    List<String> amenities,
-    List<String> images
+    List<String> amenities
 ) {
     public RoomDto {
-        type = (type == null) ? "STANDARD" : type;
+        type = (type == null) ? RoomType.STANDARD : type;
         size = (size == null || size <= 0) ? 250 : size;
         maxCapacity = (maxCapacity == null || maxCapacity <= 0) ? 2 : maxCapacity;
         pricePerNight = (pricePerNight == null || pricePerNight <= 0) ? 129.99 : pricePerNight;
-        bedType = (bedType == null) ? "QUEEN" : bedType;
+        bedType = (bedType == null) ? BedType.QUEEN : bedType;
         description = (description == null) ? "No description" : description; 
     }
 }
@@ -0,0 +1,17 @@
+package com.skillstorm.hotel_management.dtos.Room;
+
+import java.util.List;
+
+/**
+ * Facet counts over every room matching a search, most common value first.
+ * priceRanges are labelled by their bounds, e.g. 100-150, and ordered by price.
+ */
+public record RoomFacetsDto(
+    List<FacetCountDto> types,
+    List<FacetCountDto> bedTypes,
+    List<FacetCountDto> floors,
+    List<FacetCountDto> priceRanges,
+    List<FacetCountDto> amenities
+) {
+    
+}
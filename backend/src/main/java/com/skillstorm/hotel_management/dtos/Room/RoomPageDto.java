@@ -0,0 +1,16 @@
+package com.skillstorm.hotel_management.dtos.Room;
+
+import java.util.List;
+
+import com.skillstorm.hotel_management.models.Room;
+
+/**
+ * A single page of room search results.
+ * nextCursor is the roomNumber to pass as the cursor for the next page, or null on the last page.
+ */
+public record RoomPageDto(
+    List<Room> rooms,
+    String nextCursor
+) {
+    
+}
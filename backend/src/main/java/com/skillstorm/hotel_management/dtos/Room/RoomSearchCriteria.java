@@ -0,0 +1,33 @@
+package com.skillstorm.hotel_management.dtos.Room;
+
+import java.util.List;
+
+import com.skillstorm.hotel_management.models.RoomStatus;
+import com.skillstorm.hotel_management.models.RoomType;
+
+/**
+ * Filters of a room search, bound from the query string.
+ * amenities matches rooms having all of them; text is a full-text search over the description.
+ * type and status are the enum names, e.g. SUITE and AVAILABLE.
+ */
+public record RoomSearchCriteria(
+    String text,
+    RoomType type,
+    Integer floor,
+    Double minPrice,
+    Double maxPrice,
+    Integer guests,
+    List<String> amenities,
+    RoomStatus status,
+    String cursor,
+    Integer limit,
+    boolean includeDetails
+) {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    public RoomSearchCriteria {
+        limit = (limit == null || limit <= 0) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        amenities = (amenities == null) ? List.of() : amenities;
+    }
+}
@@ -0,0 +1,17 @@
+package com.skillstorm.hotel_management.dtos.Room;
+
+import java.util.List;
+
+import com.skillstorm.hotel_management.models.Room;
+
+/**
+ * A page of room search results with the facet counts of the whole search.
+ * nextCursor is the roomNumber to pass as the cursor for the next page, or null on the last page.
+ */
+public record RoomSearchResultDto(
+    List<Room> rooms,
+    String nextCursor,
+    RoomFacetsDto facets
+) {
+    
+}
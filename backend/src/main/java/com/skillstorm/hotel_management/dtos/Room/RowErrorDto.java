@@ -0,0 +1,13 @@
+package com.skillstorm.hotel_management.dtos.Room;
+
+/**
+ * Why one row of a bulk import was not inserted.
+ * row is the zero-based position of the row in the uploaded stream.
+ */
+public record RowErrorDto(
+    int row,
+    String roomNumber,
+    String message
+) {
+    
+}
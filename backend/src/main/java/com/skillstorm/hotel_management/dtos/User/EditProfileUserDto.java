@@ -1,5 +1,5 @@
 package com.skillstorm.hotel_management.dtos.User;
 
-public record EditProfileUserDto(String firstName, String lastName, String phoneNumber, String language, boolean newsLetter, boolean notifications) {
+public record EditProfileUserDto(String firstName, String lastName, String phoneNumber, String language, Boolean newsLetter, Boolean notifications) {
     
 }
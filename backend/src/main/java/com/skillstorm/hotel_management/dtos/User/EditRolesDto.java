@@ -0,0 +1,7 @@
+package com.skillstorm.hotel_management.dtos.User;
+
+import java.util.List;
+
+public record EditRolesDto(List<String> roles) {
+    
+}
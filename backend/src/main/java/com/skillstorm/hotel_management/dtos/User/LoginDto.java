@@ -0,0 +1,6 @@
+package com.skillstorm.hotel_management.dtos.User;
+
+public record LoginDto(
+    String email,
+    String password
+) {}
@@ -0,0 +1,10 @@
+package com.skillstorm.hotel_management.dtos.User;
+
+import java.time.Instant;
+
+public record TokenDto(
+    String accessToken,
+    String tokenType,
+    Instant expiresAt,
+    UserSummaryDto user
+) {}
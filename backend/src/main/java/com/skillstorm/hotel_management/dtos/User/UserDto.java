@@ -1,20 +1,19 @@
 package com.skillstorm.hotel_management.dtos.User;
 
-import java.util.List;
-
+/**
+ * A sign-up. There are no roles: every new user is a guest, and only an admin can change roles afterwards.
+ */
 public record UserDto(
     String email,
     String password,
     String firstName,
     String lastName,
-    List<String> roles,
     String phoneNumber,
     String language,
     boolean newsLetter,
     boolean notifications
 ) {
     public UserDto {
-        roles = roles == null || roles.isEmpty() ? List.of("ROLE_GUEST") : roles;
         language = language == null ? "en" : language;
     }
 }
@@ -0,0 +1,19 @@
+package com.skillstorm.hotel_management.dtos.User;
+
+import java.util.List;
+
+/**
+ * Read model for user listings.
+ * Only these fields are fetched from Mongo, so passwords, preferences,
+ * payment methods and audit dates never leave the database.
+ */
+public record UserSummaryDto(
+    String id,
+    String email,
+    String firstName,
+    String lastName,
+    String phoneNumber,
+    List<String> roles
+) {
+    
+}
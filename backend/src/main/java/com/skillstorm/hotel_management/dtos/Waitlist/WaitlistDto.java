@@ -0,0 +1,17 @@
+package com.skillstorm.hotel_management.dtos.Waitlist;
+
+import java.time.LocalDate;
+
+import com.skillstorm.hotel_management.models.RoomType;
+
+public record WaitlistDto(
+    String userId,
+    RoomType type,
+    LocalDate checkIn,
+    LocalDate checkOut,
+    Integer guests
+) {
+    public WaitlistDto {
+        guests = (guests == null || guests <= 0) ? 1 : guests;
+    }
+}
@@ -0,0 +1,17 @@
+package com.skillstorm.hotel_management.exceptions;
+
+/**
+ * Thrown when a request is valid but clashes with the current state, e.g. a taken room number or booked nights,
+ * and answered with a 409. Like NotFoundException it skips capturing a stack trace.
+ */
+public class ConflictException extends IllegalArgumentException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
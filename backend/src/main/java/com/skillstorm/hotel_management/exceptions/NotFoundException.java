@@ -0,0 +1,18 @@
+package com.skillstorm.hotel_management.exceptions;
+
+/**
+ * Thrown when the resource a request names does not exist, and answered with a 404.
+ * Lookups of missing rooms and users are an expected outcome, e.g. a kiosk scanning an unknown room number,
+ * so the exception skips capturing a stack trace. It extends IllegalArgumentException so existing callers still catch it.
+ */
+public class NotFoundException extends IllegalArgumentException {
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
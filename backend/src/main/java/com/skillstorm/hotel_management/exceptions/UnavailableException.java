@@ -0,0 +1,17 @@
+package com.skillstorm.hotel_management.exceptions;
+
+/**
+ * Thrown when a request cannot be served yet but will be shortly, e.g. while room availability is still loading,
+ * and answered with a 503 and Retry-After. Like NotFoundException it skips capturing a stack trace.
+ */
+public class UnavailableException extends IllegalStateException {
+
+    public UnavailableException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,26 @@
+package com.skillstorm.hotel_management.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * The largest bed of a room. Stored in Mongo as its code.
+ */
+public enum BedType implements CodedEnum {
+	SINGLE(1),
+	TWIN(2),
+	DOUBLE(3),
+	QUEEN(4),
+	KING(5);
+
+	private final int code;
+
+	BedType(int code) { this.code = code; }
+
+	@Override
+	public int getCode() { return code; }
+
+	@JsonCreator
+	public static BedType of(String value) throws IllegalArgumentException {
+		return CodedEnum.parse(BedType.class, value);
+	}
+}
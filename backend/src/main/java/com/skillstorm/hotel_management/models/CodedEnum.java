@@ -0,0 +1,36 @@
+package com.skillstorm.hotel_management.models;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * An enum stored in Mongo as a small integer code instead of its name, which keeps documents and their indexes small.
+ * Codes are fixed per constant, unlike ordinals, so constants can be added or reordered without rewriting documents.
+ * Clients still see and send the constant names.
+ */
+public interface CodedEnum {
+
+	/**
+	 * @return the code stored in Mongo
+	 */
+	int getCode();
+
+	/**
+	 * Parse a value sent by a client, ignoring case and treating spaces and dashes as underscores.
+	 * @throws IllegalArgumentException if the value is not one of the constants
+	 */
+	static <E extends Enum<E>> E parse(Class<E> type, String value) throws IllegalArgumentException {
+		if (value == null) {
+			return null;
+		}
+		String name = value.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+		for (E constant : type.getEnumConstants()) {
+			if (constant.name().equals(name)) {
+				return constant;
+			}
+		}
+		throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " " + value + ", expected one of "
+			+ Arrays.stream(type.getEnumConstants()).map(Enum::name).collect(Collectors.joining(", ")));
+	}
+}
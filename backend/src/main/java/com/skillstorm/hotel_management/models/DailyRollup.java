@@ -0,0 +1,84 @@
+package com.skillstorm.hotel_management.models;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.Date;
+
+/**
+ * The room nights sold and the revenue of one night for the rooms of one type on one floor.
+ * Bookings and cancellations add to roomNightsSold and revenue as they happen; the nightly reconciliation
+ * recomputes them from the reservations and sets rooms, the number of rooms for sale, so the rows cannot drift.
+ * Occupancy, ADR and RevPAR are derived from these sums when the rows are read, so rows can be added up freely.
+ */
+@Document(collection = "daily_rollups")
+public class DailyRollup {
+	@Id
+	private String id;
+
+	// the night, as an epoch day
+	@Indexed
+	private long day;
+	// the month of the night, as yyyy-MM, so rows can be grouped by month without date arithmetic
+	private String month;
+	private RoomType roomType;
+	private int floor;
+	private int rooms;
+	private int roomNightsSold;
+	private double revenue;
+	// when the reconciliation last wrote this row
+	private Date reconciledAt;
+	// when a booking or cancellation last added to this row; the reconciliation leaves rows changed after it started
+	private Date updatedAt;
+
+	//constructors
+	public DailyRollup(long day, String month, RoomType roomType, int floor, int rooms, int roomNightsSold, double revenue) {
+		this.id = idOf(day, roomType, floor);
+		this.day = day;
+		this.month = month;
+		this.roomType = roomType;
+		this.floor = floor;
+		this.rooms = rooms;
+		this.roomNightsSold = roomNightsSold;
+		this.revenue = revenue;
+	}
+
+	public DailyRollup(){}
+
+	/**
+	 * @return the ID of the row for a night, room type and floor
+	 */
+	public static String idOf(long day, RoomType roomType, int floor) {
+		return day + "|" + roomType + "|" + floor;
+	}
+
+	// Getters and setters
+	public String getId() { return id; }
+	public void setId(String id) { this.id = id; }
+
+	public long getDay() { return day; }
+	public void setDay(long day) { this.day = day; }
+
+	public String getMonth() { return month; }
+	public void setMonth(String month) { this.month = month; }
+
+	public RoomType getRoomType() { return roomType; }
+	public void setRoomType(RoomType roomType) { this.roomType = roomType; }
+
+	public int getFloor() { return floor; }
+	public void setFloor(int floor) { this.floor = floor; }
+
+	public int getRooms() { return rooms; }
+	public void setRooms(int rooms) { this.rooms = rooms; }
+
+	public int getRoomNightsSold() { return roomNightsSold; }
+	public void setRoomNightsSold(int roomNightsSold) { this.roomNightsSold = roomNightsSold; }
+
+	public double getRevenue() { return revenue; }
+	public void setRevenue(double revenue) { this.revenue = revenue; }
+
+	public Date getReconciledAt() { return reconciledAt; }
+	public void setReconciledAt(Date reconciledAt) { this.reconciledAt = reconciledAt; }
+
+	public Date getUpdatedAt() { return updatedAt; }
+	public void setUpdatedAt(Date updatedAt) { this.updatedAt = updatedAt; }
+}
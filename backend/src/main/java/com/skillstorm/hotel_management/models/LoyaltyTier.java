@@ -0,0 +1,26 @@
+package com.skillstorm.hotel_management.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * A guest's standing in the loyalty programme, from lowest to highest. Stored in Mongo as its code.
+ * Higher tiers are served first from the waitlist.
+ */
+public enum LoyaltyTier implements CodedEnum {
+	MEMBER(1),
+	SILVER(2),
+	GOLD(3),
+	PLATINUM(4);
+
+	private final int code;
+
+	LoyaltyTier(int code) { this.code = code; }
+
+	@Override
+	public int getCode() { return code; }
+
+	@JsonCreator
+	public static LoyaltyTier of(String value) throws IllegalArgumentException {
+		return CodedEnum.parse(LoyaltyTier.class, value);
+	}
+}
@@ -0,0 +1,124 @@
+package com.skillstorm.hotel_management.models;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.data.annotation.CreatedDate;
+
+/**
+ * An email waiting to be sent, written next to the change that caused it.
+ * The MailDispatcher claims pending messages in batches, so nothing is sent from a request thread.
+ * While a message is claimed, nextAttemptAt is the end of the claim, after which another dispatcher may take it over.
+ * Sent and skipped messages are removed by a TTL index a week after they are done.
+ */
+@Document(collection = "outbox")
+// Serves the dispatcher's claim: pending messages that are due, oldest first
+@CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class OutboxMessage {
+
+	public enum Status { PENDING, SENDING, SENT, SKIPPED, FAILED }
+
+	/**
+	 * Which user preference, if any, decides whether a message is sent, and what applies when the user never set it.
+	 */
+	public enum Category {
+		ACCOUNT(null, null, true),
+		NOTIFICATIONS("notifications", UserPreferences::notifications, true),
+		NEWSLETTER("newsLetter", UserPreferences::newsLetter, false);
+
+		private final String preference;
+		private final Function<UserPreferences, Boolean> choice;
+		private final boolean sentByDefault;
+
+		Category(String preference, Function<UserPreferences, Boolean> choice, boolean sentByDefault) {
+			this.preference = preference;
+			this.choice = choice;
+			this.sentByDefault = sentByDefault;
+		}
+
+		public String getPreference() { return preference; }
+
+		public boolean allows(UserPreferences preferences) {
+			Boolean allowed = choice == null || preferences == null ? null : choice.apply(preferences);
+			return allowed == null ? sentByDefault : allowed;
+		}
+	}
+
+	public enum Type {
+		VERIFY_EMAIL(Category.ACCOUNT),
+		RESERVATION_CONFIRMED(Category.NOTIFICATIONS),
+		RESERVATION_CANCELLED(Category.NOTIFICATIONS);
+
+		private final Category category;
+
+		Type(Category category) { this.category = category; }
+
+		public Category getCategory() { return category; }
+	}
+
+	@Id
+	private String id;
+
+	private Type type;
+	private String userId;
+	private Map<String, Object> params;
+	private Status status;
+	private int attempts;
+	private Date nextAttemptAt;
+	private String claimedBy;
+	private String lastError;
+
+	@CreatedDate
+	private Date createdAt;
+	@Indexed(name = "doneAt_ttl", expireAfter = "7d")
+	private Date doneAt;
+
+	//constructors
+	public OutboxMessage(Type type, String userId, Map<String, Object> params) {
+		this.type = type;
+		this.userId = userId;
+		this.params = params;
+		this.status = Status.PENDING;
+		this.attempts = 0;
+		this.nextAttemptAt = new Date();
+	}
+
+	public OutboxMessage(){}
+
+	// Getters and setters
+	public String getId() { return id; }
+	public void setId(String id) { this.id = id; }
+
+	public Type getType() { return type; }
+	public void setType(Type type) { this.type = type; }
+
+	public String getUserId() { return userId; }
+	public void setUserId(String userId) { this.userId = userId; }
+
+	public Map<String, Object> getParams() { return params; }
+	public void setParams(Map<String, Object> params) { this.params = params; }
+
+	public Status getStatus() { return status; }
+	public void setStatus(Status status) { this.status = status; }
+
+	public int getAttempts() { return attempts; }
+	public void setAttempts(int attempts) { this.attempts = attempts; }
+
+	public Date getNextAttemptAt() { return nextAttemptAt; }
+	public void setNextAttemptAt(Date nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+	public String getClaimedBy() { return claimedBy; }
+	public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+
+	public String getLastError() { return lastError; }
+	public void setLastError(String lastError) { this.lastError = lastError; }
+
+	public Date getCreatedAt() { return createdAt; }
+	public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+
+	public Date getDoneAt() { return doneAt; }
+	public void setDoneAt(Date doneAt) { this.doneAt = doneAt; }
+}
@@ -0,0 +1,86 @@
+package com.skillstorm.hotel_management.models;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDate;
+import java.util.Date;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+
+@Document(collection = "reservations")
+// serves the analytics reconciliation: confirmed stays that end inside its window
+@CompoundIndex(name = "status_checkOut", def = "{'status': 1, 'checkOut': 1}")
+public class Reservation {
+	@Id
+	private String id;
+
+	@Indexed
+	private String roomId;
+	@Indexed
+	private String userId;
+	private LocalDate checkIn;
+	private LocalDate checkOut;
+	private int guests;
+	private double totalPrice;
+	private String status;
+	// the room's type and floor when it was booked, the analytics rollups its nights are counted under
+	private RoomType roomType;
+	private Integer floor;
+
+	@CreatedDate
+	private Date createdAt;
+	@LastModifiedDate
+	private Date updatedAt;
+
+	//constructors
+	public Reservation(String roomId, String userId, LocalDate checkIn, LocalDate checkOut, int guests,
+			double totalPrice, String status) {
+		this.roomId = roomId;
+		this.userId = userId;
+		this.checkIn = checkIn;
+		this.checkOut = checkOut;
+		this.guests = guests;
+		this.totalPrice = totalPrice;
+		this.status = status;
+	}
+
+	public Reservation(){}
+
+	// Getters and setters
+	public String getId() { return id; }
+	public void setId(String id) { this.id = id; }
+
+	public String getRoomId() { return roomId; }
+	public void setRoomId(String roomId) { this.roomId = roomId; }
+
+	public String getUserId() { return userId; }
+	public void setUserId(String userId) { this.userId = userId; }
+
+	public LocalDate getCheckIn() { return checkIn; }
+	public void setCheckIn(LocalDate checkIn) { this.checkIn = checkIn; }
+
+	public LocalDate getCheckOut() { return checkOut; }
+	public void setCheckOut(LocalDate checkOut) { this.checkOut = checkOut; }
+
+	public int getGuests() { return guests; }
+	public void setGuests(int guests) { this.guests = guests; }
+
+	public double getTotalPrice() { return totalPrice; }
+	public void setTotalPrice(double totalPrice) { this.totalPrice = totalPrice; }
+
+	public String getStatus() { return status; }
+	public void setStatus(String status) { this.status = status; }
+
+	public RoomType getRoomType() { return roomType; }
+	public void setRoomType(RoomType roomType) { this.roomType = roomType; }
+
+	public Integer getFloor() { return floor; }
+	public void setFloor(Integer floor) { this.floor = floor; }
+
+	public Date getCreatedAt() { return createdAt; }
+	public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+
+	public Date getUpdatedAt() { return updatedAt; }
+	public void setUpdatedAt(Date updatedAt) { this.updatedAt = updatedAt; }
+}
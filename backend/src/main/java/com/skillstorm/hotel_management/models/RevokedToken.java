@@ -0,0 +1,51 @@
+package com.skillstorm.hotel_management.models;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.Date;
+
+/**
+ * A revoked access token, or every token of a user issued before a moment.
+ * Every instance keeps the revocations in memory and polls this collection for new ones.
+ * A revocation is removed by a TTL index once the tokens it covers have expired anyway.
+ */
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+	@Id
+	private String id;
+
+	private String userId;
+	// null when a single token, identified by id, is revoked
+	private Date issuedBefore;
+	@Indexed
+	private Date createdAt;
+	@Indexed(name = "expiresAt_ttl", expireAfter = "0s")
+	private Date expiresAt;
+
+	//constructors
+	public RevokedToken(String id, String userId, Date issuedBefore, Date expiresAt) {
+		this.id = id;
+		this.userId = userId;
+		this.issuedBefore = issuedBefore;
+		this.createdAt = new Date();
+		this.expiresAt = expiresAt;
+	}
+
+	public RevokedToken(){}
+
+	// Getters and setters
+	public String getId() { return id; }
+	public void setId(String id) { this.id = id; }
+
+	public String getUserId() { return userId; }
+	public void setUserId(String userId) { this.userId = userId; }
+
+	public Date getIssuedBefore() { return issuedBefore; }
+	public void setIssuedBefore(Date issuedBefore) { this.issuedBefore = issuedBefore; }
+
+	public Date getCreatedAt() { return createdAt; }
+	public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+
+	public Date getExpiresAt() { return expiresAt; }
+	public void setExpiresAt(Date expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -1,5 +1,9 @@
 package com.skillstorm.hotel_management.models;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.List;
 import java.util.Date;
@@ -7,32 +11,46 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
 @Document(collection = "rooms")
+@CompoundIndexes({
+	// backs /rooms/search: equality filters first, then the roomNumber keyset sort
+	@CompoundIndex(name = "type_status_roomNumber", def = "{'type': 1, 'status': 1, 'roomNumber': 1}"),
+	@CompoundIndex(name = "status_roomNumber", def = "{'status': 1, 'roomNumber': 1}"),
+	@CompoundIndex(name = "floor_pricePerNight", def = "{'floor': 1, 'pricePerNight': 1}")
+})
+// findByType is served by the type_status_roomNumber prefix
+// type, bedType and status are enums stored as their codes, see CodedEnum
 public class Room {
 	@Id
 	private String id;
     
+	@Indexed(unique = true)
 	private String roomNumber;
-	private String type;
+	private RoomType type;
+	// the text index used by the search text filter; type and bed type are searched with their own filters
+	@TextIndexed
 	private String description;
 	private double pricePerNight;
 	private int maxCapacity;
-	private String bedType;
+	private BedType bedType;
 	private int size;
 	private int floor;
+	@Indexed
 	private List<String> amenities;
 	private List<String> images;
 	private boolean isAvailable;
-	private String status;
+	private RoomStatus status;
 	
 	@CreatedDate
 	private Date createdAt;
+	// the latest change is read from this index to version /rooms/all
+	@Indexed
 	@LastModifiedDate
 	private Date updatedAt;
 	
 	//constructors
-	public Room(String roomNumber, String type, String description, double pricePerNight, int maxCapacity,
-			String bedType, int size, int floor, List<String> amenities, List<String> images, boolean isAvailable,
-			String status) {
+	public Room(String roomNumber, RoomType type, String description, double pricePerNight, int maxCapacity,
+			BedType bedType, int size, int floor, List<String> amenities, List<String> images, boolean isAvailable,
+			RoomStatus status) {
 		this.roomNumber = roomNumber;
 		this.type = type;
 		this.description = description;
@@ -56,8 +74,8 @@ public class Room {
 	public String getRoomNumber() { return roomNumber; }
 	public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
 
-	public String getType() { return type; }
-	public void setType(String type) { this.type = type; }
+	public RoomType getType() { return type; }
+	public void setType(RoomType type) { this.type = type; }
 
 	public String getDescription() { return description; }
 	public void setDescription(String description) { this.description = description; }
@@ -68,8 +86,8 @@ public class Room {
 	public int getMaxCapacity() { return maxCapacity; }
 	public void setMaxCapacity(int maxCapacity) { this.maxCapacity = maxCapacity; }
 
-	public String getBedType() { return bedType; }
-	public void setBedType(String bedType) { this.bedType = bedType; }
+	public BedType getBedType() { return bedType; }
+	public void setBedType(BedType bedType) { this.bedType = bedType; }
 
 	public int getSize() { return size; }
 	public void setSize(int size) { this.size = size; }
@@ -86,8 +104,8 @@ public class Room {
 	public boolean isAvailable() { return isAvailable; }
 	public void setAvailable(boolean available) { isAvailable = available; }
 
-	public String getStatus() { return status; }
-	public void setStatus(String status) { this.status = status; }
+	public RoomStatus getStatus() { return status; }
+	public void setStatus(RoomStatus status) { this.status = status; }
 
 	public Date getCreatedAt() { return createdAt; }
 	public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
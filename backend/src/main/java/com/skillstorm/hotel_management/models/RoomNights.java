@@ -0,0 +1,33 @@
+package com.skillstorm.hotel_management.models;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The booked nights of one room, stored as epoch days.
+ * Bookings are claimed with a single conditional update on this document,
+ * which Mongo applies atomically, so a night can never be sold twice.
+ */
+@Document(collection = "room_nights")
+public class RoomNights {
+	@Id
+	private String roomId;
+
+	private List<Long> nights;
+
+	//constructors
+	public RoomNights(String roomId) {
+		this.roomId = roomId;
+		this.nights = new ArrayList<>();
+	}
+
+	public RoomNights(){}
+
+	// Getters and setters
+	public String getRoomId() { return roomId; }
+	public void setRoomId(String roomId) { this.roomId = roomId; }
+
+	public List<Long> getNights() { return nights; }
+	public void setNights(List<Long> nights) { this.nights = nights; }
+}
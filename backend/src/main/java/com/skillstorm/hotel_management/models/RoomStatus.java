@@ -0,0 +1,26 @@
+package com.skillstorm.hotel_management.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * Whether a room can be let right now. Stored in Mongo as its code.
+ */
+public enum RoomStatus implements CodedEnum {
+	AVAILABLE(1),
+	OCCUPIED(2),
+	CLEANING(3),
+	MAINTENANCE(4),
+	OUT_OF_ORDER(5);
+
+	private final int code;
+
+	RoomStatus(int code) { this.code = code; }
+
+	@Override
+	public int getCode() { return code; }
+
+	@JsonCreator
+	public static RoomStatus of(String value) throws IllegalArgumentException {
+		return CodedEnum.parse(RoomStatus.class, value);
+	}
+}
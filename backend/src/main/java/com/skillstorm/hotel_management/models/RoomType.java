@@ -0,0 +1,27 @@
+package com.skillstorm.hotel_management.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * The kinds of room. Stored in Mongo as its code.
+ */
+public enum RoomType implements CodedEnum {
+	STANDARD(1),
+	DOUBLE(2),
+	TWIN(3),
+	DELUXE(4),
+	SUITE(5),
+	FAMILY(6);
+
+	private final int code;
+
+	RoomType(int code) { this.code = code; }
+
+	@Override
+	public int getCode() { return code; }
+
+	@JsonCreator
+	public static RoomType of(String value) throws IllegalArgumentException {
+		return CodedEnum.parse(RoomType.class, value);
+	}
+}
@@ -2,29 +2,43 @@
 package com.skillstorm.hotel_management.models;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.List;
-import java.util.Map;
 import java.util.Date;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Document(collection = "users")
+// Serves role filters and the default lastName, firstName sort of the listings
+@CompoundIndex(name = "roles_lastName_firstName", def = "{'roles': 1, 'lastName': 1, 'firstName': 1}")
 public class User {
 	@Id
 	private String id;
 
+	@Indexed(unique = true)
 	private String email;
+	// {id}hash as written by the PasswordEncoder, never sent to clients
+	@JsonIgnore
 	private String password;
 	private String firstName;
 	private String lastName;
 	private String phoneNumber;
 	private List<String> roles;
 	private boolean isEmailVerified;
+	// SHA-256 of the token mailed to the user, cleared once the email is verified
+	@JsonIgnore
+	@Indexed(sparse = true)
+	private String emailVerificationToken;
 	private String provider;
 	private String providerId;
 	private String profileImage;
-	private Map<String, Object> preferences;
+	private UserPreferences preferences;
+	// set by the loyalty programme; null is treated as MEMBER
+	private LoyaltyTier loyaltyTier;
 	private List<Object> savedPaymentMethods;
 	@CreatedDate
 	private Date createdAt;
@@ -32,7 +46,7 @@ public class User {
 	private Date updatedAt;
 
 	public User(String email, String password, String firstName, String lastName, String phoneNumber,
-			List<String> roles, Map<String, Object> preferences) {
+			List<String> roles, UserPreferences preferences) {
 		this.email = email;
 		this.password = password;
 		this.firstName = firstName;
@@ -75,6 +89,9 @@ public class User {
 	public boolean isEmailVerified() { return isEmailVerified; }
 	public void setEmailVerified(boolean emailVerified) { isEmailVerified = emailVerified; }
 
+	public String getEmailVerificationToken() { return emailVerificationToken; }
+	public void setEmailVerificationToken(String emailVerificationToken) { this.emailVerificationToken = emailVerificationToken; }
+
 	public String getProvider() { return provider; }
 	public void setProvider(String provider) { this.provider = provider; }
 
@@ -84,8 +101,11 @@ public class User {
 	public String getProfileImage() { return profileImage; }
 	public void setProfileImage(String profileImage) { this.profileImage = profileImage; }
 
-	public Map<String, Object> getPreferences() { return preferences; }
-	public void setPreferences(Map<String, Object> preferences) { this.preferences = preferences; }
+	public UserPreferences getPreferences() { return preferences; }
+	public void setPreferences(UserPreferences preferences) { this.preferences = preferences; }
+
+	public LoyaltyTier getLoyaltyTier() { return loyaltyTier; }
+	public void setLoyaltyTier(LoyaltyTier loyaltyTier) { this.loyaltyTier = loyaltyTier; }
 
 	public List<Object> getSavedPaymentMethods() { return savedPaymentMethods; }
 	public void setSavedPaymentMethods(List<Object> savedPaymentMethods) { this.savedPaymentMethods = savedPaymentMethods; }
@@ -0,0 +1,34 @@
+package com.skillstorm.hotel_management.models;
+
+import java.util.regex.Pattern;
+
+/**
+ * What a user chose for their account, embedded in the user document under the same field names as before.
+ * newsLetter and notifications are null until the user chooses, in which case the mail category's default applies.
+ *
+ * @param language the language of the mails sent to the user, as an ISO 639 code such as en or en-US
+ * @param newsLetter whether the user wants the newsletter
+ * @param notifications whether the user wants mails about their reservations
+ */
+public record UserPreferences(
+	String language,
+	Boolean newsLetter,
+	Boolean notifications
+) {
+
+	/**
+	 * A language code such as en, fil or en-US.
+	 */
+	private static final Pattern LANGUAGE = Pattern.compile("[a-z]{2,3}(-[A-Z]{2})?");
+
+	/**
+	 * @return the language, if it is null or a valid code
+	 * @throws IllegalArgumentException if it is not a valid code
+	 */
+	public static String checkLanguage(String language) throws IllegalArgumentException {
+		if (language != null && !LANGUAGE.matcher(language).matches()) {
+			throw new IllegalArgumentException("Language must be a code such as en or en-US");
+		}
+		return language;
+	}
+}
@@ -0,0 +1,87 @@
+package com.skillstorm.hotel_management.models;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDate;
+import java.util.Date;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+
+/**
+ * A guest waiting for a room of a type that was sold out for their stay.
+ * Entries are served by loyalty tier, highest first, then by when they were requested,
+ * and turn into a reservation as soon as a cancellation frees a room that fits.
+ */
+@Document(collection = "waitlist")
+// serves loading the entries still waiting on startup and expiring those whose stay has started
+@CompoundIndex(name = "status_checkIn", def = "{'status': 1, 'checkIn': 1}")
+public class WaitlistEntry {
+	@Id
+	private String id;
+
+	@Indexed
+	private String userId;
+	private RoomType roomType;
+	private LocalDate checkIn;
+	private LocalDate checkOut;
+	private int guests;
+	// the user's tier when they joined, so a later change does not reorder the queue
+	private LoyaltyTier loyaltyTier;
+	private String status;
+	// the reservation made for the entry once it was allocated a room
+	private String reservationId;
+
+	@CreatedDate
+	private Date createdAt;
+	@LastModifiedDate
+	private Date updatedAt;
+
+	//constructors
+	public WaitlistEntry(String userId, RoomType roomType, LocalDate checkIn, LocalDate checkOut, int guests,
+			LoyaltyTier loyaltyTier, String status) {
+		this.userId = userId;
+		this.roomType = roomType;
+		this.checkIn = checkIn;
+		this.checkOut = checkOut;
+		this.guests = guests;
+		this.loyaltyTier = loyaltyTier;
+		this.status = status;
+	}
+
+	public WaitlistEntry(){}
+
+	// Getters and setters
+	public String getId() { return id; }
+	public void setId(String id) { this.id = id; }
+
+	public String getUserId() { return userId; }
+	public void setUserId(String userId) { this.userId = userId; }
+
+	public RoomType getRoomType() { return roomType; }
+	public void setRoomType(RoomType roomType) { this.roomType = roomType; }
+
+	public LocalDate getCheckIn() { return checkIn; }
+	public void setCheckIn(LocalDate checkIn) { this.checkIn = checkIn; }
+
+	public LocalDate getCheckOut() { return checkOut; }
+	public void setCheckOut(LocalDate checkOut) { this.checkOut = checkOut; }
+
+	public int getGuests() { return guests; }
+	public void setGuests(int guests) { this.guests = guests; }
+
+	public LoyaltyTier getLoyaltyTier() { return loyaltyTier; }
+	public void setLoyaltyTier(LoyaltyTier loyaltyTier) { this.loyaltyTier = loyaltyTier; }
+
+	public String getStatus() { return status; }
+	public void setStatus(String status) { this.status = status; }
+
+	public String getReservationId() { return reservationId; }
+	public void setReservationId(String reservationId) { this.reservationId = reservationId; }
+
+	public Date getCreatedAt() { return createdAt; }
+	public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+
+	public Date getUpdatedAt() { return updatedAt; }
+	public void setUpdatedAt(Date updatedAt) { this.updatedAt = updatedAt; }
+}
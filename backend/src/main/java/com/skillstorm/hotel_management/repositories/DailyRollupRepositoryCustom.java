@@ -0,0 +1,23 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import com.skillstorm.hotel_management.dtos.Analytics.AnalyticsRowDto;
+import com.skillstorm.hotel_management.models.DailyRollup;
+import com.skillstorm.hotel_management.models.RoomType;
+
+
+public interface DailyRollupRepositoryCustom {
+
+    //add sold room nights and their revenue to the rows of some nights, creating missing rows with the given number of rooms
+    void addNights(RoomType roomType, int floor, Collection<Long> days, int roomNights, double revenuePerNight, int rooms);
+
+    //replace the rows of the nights from fromDay up to, but not including, toDay with the given ones, computed from the reservations
+    //as read from snapshotAt; rows addNights changed since then are left as they are
+    void replaceRange(long fromDay, long toDay, Collection<DailyRollup> rollups, Date snapshotAt);
+
+    //sum the rows of the nights from fromDay up to, but not including, toDay by day, month, roomType or floor, or all together when groupBy is null
+    List<AnalyticsRowDto> summarize(long fromDay, long toDay, String groupBy);
+}
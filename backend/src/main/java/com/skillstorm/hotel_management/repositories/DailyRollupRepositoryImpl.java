@@ -0,0 +1,142 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.ErrorCategory;
+import com.skillstorm.hotel_management.dtos.Analytics.AnalyticsRowDto;
+import com.skillstorm.hotel_management.models.DailyRollup;
+import com.skillstorm.hotel_management.models.RoomType;
+
+/**
+ * Bulk upserts and aggregations over the daily rollups.
+ * Every write is a single bulk request, and reads sum the rows in Mongo so only the groups come back.
+ */
+public class DailyRollupRepositoryImpl implements DailyRollupRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public DailyRollupRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void addNights(RoomType roomType, int floor, Collection<Long> days, int roomNights, double revenuePerNight, int rooms) {
+        if (days.isEmpty()) {
+            return;
+        }
+        Date now = new Date();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, DailyRollup.class);
+        for (long day : days) {
+            // $inc never reads the row, so concurrent bookings of the same night both count
+            Update update = new Update()
+                .inc("roomNightsSold", roomNights)
+                .inc("revenue", roomNights * revenuePerNight)
+                .set("updatedAt", now)
+                .setOnInsert("day", day)
+                .setOnInsert("month", monthOf(day))
+                .setOnInsert("roomType", roomType)
+                .setOnInsert("floor", floor)
+                .setOnInsert("rooms", rooms);
+            bulkOps.upsert(new Query(Criteria.where("_id").is(DailyRollup.idOf(day, roomType, floor))), update);
+        }
+        bulkOps.execute();
+    }
+
+    @Override
+    public void replaceRange(long fromDay, long toDay, Collection<DailyRollup> rollups, Date snapshotAt) {
+        Date reconciledAt = new Date();
+        if (!rollups.isEmpty()) {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, DailyRollup.class);
+            for (DailyRollup rollup : rollups) {
+                Update update = new Update()
+                    .set("day", rollup.getDay())
+                    .set("month", monthOf(rollup.getDay()))
+                    .set("roomType", rollup.getRoomType())
+                    .set("floor", rollup.getFloor())
+                    .set("rooms", rollup.getRooms())
+                    .set("roomNightsSold", rollup.getRoomNightsSold())
+                    .set("revenue", rollup.getRevenue())
+                    .set("reconciledAt", reconciledAt);
+                Query unchanged = new Query(Criteria.where("_id").is(rollup.getId()).andOperator(notChangedSince(snapshotAt)));
+                bulkOps.upsert(unchanged, update);
+            }
+            try {
+                bulkOps.execute();
+            } catch (BulkOperationException e) {
+                // A row changed since the snapshot does not match, so its upsert fails on the existing _id and the row keeps
+                // what bookings added to it; unordered writes carry on past it
+                if (e.getErrors().stream().anyMatch(error -> error.getCategory() != ErrorCategory.DUPLICATE_KEY)) {
+                    throw e;
+                }
+            }
+        }
+        // Rows an earlier run wrote and this one did not belong to room types or floors that no longer have rooms or bookings.
+        // Rows bookings changed since the snapshot are kept, including those addNights created, which have no reconciledAt
+        Query stale = new Query(Criteria.where("day").gte(fromDay).lt(toDay).and("reconciledAt").lt(reconciledAt)
+            .andOperator(notChangedSince(snapshotAt)));
+        mongoTemplate.remove(stale, DailyRollup.class);
+    }
+
+    /**
+     * @return rows no booking or cancellation has added to since the given time
+     */
+    private static Criteria notChangedSince(Date snapshotAt) {
+        return new Criteria().orOperator(Criteria.where("updatedAt").exists(false), Criteria.where("updatedAt").lt(snapshotAt));
+    }
+
+    @Override
+    public List<AnalyticsRowDto> summarize(long fromDay, long toDay, String groupBy) {
+        GroupOperation group = (groupBy == null) ? Aggregation.group() : Aggregation.group(groupBy);
+        TypedAggregation<DailyRollup> aggregation = Aggregation.newAggregation(DailyRollup.class,
+            Aggregation.match(Criteria.where("day").gte(fromDay).lt(toDay)),
+            group.sum("rooms").as("roomNights")
+                .sum("roomNightsSold").as("roomNightsSold")
+                .sum("revenue").as("revenue"),
+            Aggregation.sort(Sort.Direction.ASC, "_id"));
+        return mongoTemplate.aggregate(aggregation, Document.class).getMappedResults().stream()
+            .map(row -> AnalyticsRowDto.of(
+                keyOf(row.get("_id"), groupBy),
+                ((Number) row.get("roomNights")).longValue(),
+                ((Number) row.get("roomNightsSold")).longValue(),
+                ((Number) row.get("revenue")).doubleValue()))
+            .toList();
+    }
+
+    /**
+     * @return the group's value as shown to clients, with nights as ISO dates and room types by name
+     */
+    private String keyOf(Object value, String groupBy) {
+        if (groupBy == null) {
+            return "total";
+        }
+        if ("day".equals(groupBy)) {
+            return LocalDate.ofEpochDay(((Number) value).longValue()).toString();
+        }
+        if ("roomType".equals(groupBy) && value != null) {
+            // Room types are stored as codes, or as names in rows the migration has not reached yet
+            return mongoTemplate.getConverter().getConversionService().convert(value, RoomType.class).name();
+        }
+        return String.valueOf(value);
+    }
+
+    private static String monthOf(long day) {
+        return YearMonth.from(LocalDate.ofEpochDay(day)).toString();
+    }
+}
@@ -0,0 +1,9 @@
+package com.skillstorm.hotel_management.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.skillstorm.hotel_management.models.OutboxMessage;
+
+
+public interface OutboxRepository extends MongoRepository<OutboxMessage, String>, OutboxRepositoryCustom {
+}
@@ -0,0 +1,17 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import com.skillstorm.hotel_management.models.OutboxMessage;
+
+
+public interface OutboxRepositoryCustom {
+
+    //claim up to size due messages for this dispatcher, including those whose previous claim has run out
+    List<OutboxMessage> claimBatch(String claimId, int size, Duration lease);
+
+    //store the outcome of claimed messages in one bulk write, skipping any whose claim was taken over
+    void saveResults(Collection<OutboxMessage> messages);
+}
@@ -0,0 +1,85 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.skillstorm.hotel_management.models.OutboxMessage;
+import com.skillstorm.hotel_management.models.OutboxMessage.Status;
+
+/**
+ * Batch claims on the outbox. A batch is claimed in three round trips whatever its size,
+ * and the claim is conditional so two dispatchers never take the same message.
+ */
+public class OutboxRepositoryImpl implements OutboxRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public OutboxRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<OutboxMessage> claimBatch(String claimId, int size, Duration lease) {
+        Date now = new Date();
+        Query due = new Query(Criteria.where("status").in(Status.PENDING, Status.SENDING).and("nextAttemptAt").lte(now))
+            .with(Sort.by("nextAttemptAt"))
+            .limit(size);
+        due.fields().include("_id");
+        List<Object> ids = mongoTemplate.find(due, OutboxMessage.class).stream().<Object>map(OutboxMessage::getId).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Repeat the due condition, so messages another dispatcher claimed in the meantime are left alone
+        Query claim = new Query(Criteria.where("_id").in(ids)
+            .and("status").in(Status.PENDING, Status.SENDING)
+            .and("nextAttemptAt").lte(now));
+        Update update = new Update()
+            .set("status", Status.SENDING)
+            .set("claimedBy", claimId)
+            .set("nextAttemptAt", new Date(now.getTime() + lease.toMillis()))
+            .inc("attempts", 1);
+        mongoTemplate.updateMulti(claim, update, OutboxMessage.class);
+
+        // The claim gave every message the same nextAttemptAt, so the due order is restored from ids
+        List<OutboxMessage> claimed = mongoTemplate.find(new Query(Criteria.where("_id").in(ids).and("claimedBy").is(claimId)), OutboxMessage.class);
+        Map<Object, Integer> position = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            position.put(ids.get(i), i);
+        }
+        return claimed.stream().sorted(Comparator.comparing(message -> position.get(message.getId()))).toList();
+    }
+
+    @Override
+    public void saveResults(Collection<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, OutboxMessage.class);
+        for (OutboxMessage message : messages) {
+            Query query = new Query(Criteria.where("_id").is(message.getId())
+                .and("status").is(Status.SENDING)
+                .and("claimedBy").is(message.getClaimedBy()));
+            Update update = new Update()
+                .set("status", message.getStatus())
+                .set("nextAttemptAt", message.getNextAttemptAt())
+                .set("lastError", message.getLastError())
+                .set("doneAt", message.getDoneAt());
+            bulkOps.updateOne(query, update);
+        }
+        bulkOps.execute();
+    }
+}
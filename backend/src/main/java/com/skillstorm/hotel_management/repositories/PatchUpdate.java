@@ -0,0 +1,44 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.util.Date;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Builds a single $set update out of the fields of an edit DTO that were actually sent.
+ * Null values are skipped so the stored value is kept, and updatedAt is stamped
+ * because auditing only runs on save().
+ */
+public final class PatchUpdate {
+
+    private final Update update = new Update();
+    private boolean empty = true;
+
+    /**
+     * Set a field unless the value is null.
+     * @param key the property path to set
+     * @param value the new value, or null to keep the stored one
+     * @return this patch
+     */
+    public PatchUpdate set(String key, Object value) {
+        if (value != null) {
+            update.set(key, value);
+            empty = false;
+        }
+        return this;
+    }
+
+    /**
+     * @return true if no field was set
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * @return the update to send, including the updatedAt timestamp
+     */
+    public Update toUpdate() {
+        return update.set("updatedAt", new Date());
+    }
+}
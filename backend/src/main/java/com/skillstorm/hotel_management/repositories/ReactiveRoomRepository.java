@@ -0,0 +1,13 @@
+package com.skillstorm.hotel_management.repositories;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.skillstorm.hotel_management.models.Room;
+
+
+/**
+ * Non-blocking access to rooms, used by the streaming endpoints.
+ */
+public interface ReactiveRoomRepository extends ReactiveMongoRepository<Room, String> {
+
+}
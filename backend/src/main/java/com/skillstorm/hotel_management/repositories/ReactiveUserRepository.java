@@ -0,0 +1,21 @@
+package com.skillstorm.hotel_management.repositories;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.skillstorm.hotel_management.dtos.User.UserSummaryDto;
+import com.skillstorm.hotel_management.models.User;
+
+import reactor.core.publisher.Flux;
+
+
+/**
+ * Non-blocking access to users, used by the streaming endpoints.
+ */
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+
+    // Stream all users, fetching only the summary fields
+    Flux<UserSummaryDto> findAllBy();
+
+    // Stream users by their roles, fetching only the summary fields
+    Flux<UserSummaryDto> findByRolesContaining(String role);
+}
@@ -0,0 +1,26 @@
+package com.skillstorm.hotel_management.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.skillstorm.hotel_management.models.Reservation;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+
+public interface ReservationRepository extends MongoRepository<Reservation, String>, ReservationRepositoryCustom {
+
+    //find the reservations made by a user
+    List<Reservation> findByUserId(String userId);
+
+    //find the reservations of a room
+    List<Reservation> findByRoomId(String roomId);
+
+    //stream the reservations in a status that end after a date through a cursor
+    Stream<Reservation> streamByStatusAndCheckOutAfter(String status, LocalDate date);
+
+    //find the reservations in a status that last changed before a date, e.g. cancellations that were interrupted
+    List<Reservation> findByStatusAndUpdatedAtBefore(String status, Date date);
+}
@@ -0,0 +1,12 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.util.Optional;
+
+import com.skillstorm.hotel_management.models.Reservation;
+
+
+public interface ReservationRepositoryCustom {
+
+    //atomically move a reservation from one status to another, empty if it is not in the expected status
+    Optional<Reservation> updateStatus(String id, String expectedStatus, String newStatus);
+}
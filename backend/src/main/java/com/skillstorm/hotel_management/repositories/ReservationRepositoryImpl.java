@@ -0,0 +1,31 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.util.Date;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.skillstorm.hotel_management.models.Reservation;
+
+/**
+ * Conditional status changes on reservations, so that only one of several concurrent requests wins.
+ */
+public class ReservationRepositoryImpl implements ReservationRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ReservationRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<Reservation> updateStatus(String id, String expectedStatus, String newStatus) {
+        Query query = new Query(Criteria.where("_id").is(id).and("status").is(expectedStatus));
+        Update update = new Update().set("status", newStatus).set("updatedAt", new Date());
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Reservation.class));
+    }
+}
@@ -0,0 +1,15 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.skillstorm.hotel_management.models.RevokedToken;
+
+
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+
+    //find the revocations recorded after a moment, by any instance
+    List<RevokedToken> findByCreatedAtAfter(Date createdAt);
+}
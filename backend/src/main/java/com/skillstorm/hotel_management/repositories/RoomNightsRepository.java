@@ -0,0 +1,10 @@
+package com.skillstorm.hotel_management.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.skillstorm.hotel_management.models.RoomNights;
+
+
+public interface RoomNightsRepository extends MongoRepository<RoomNights, String>, RoomNightsRepositoryCustom {
+
+}
@@ -0,0 +1,23 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+
+public interface RoomNightsRepositoryCustom {
+
+    //atomically add the nights to a room if none of them is booked yet, returns false if any is taken or the room has no calendar
+    boolean claimNights(String roomId, List<Long> nights);
+
+    //remove the nights from a room
+    void releaseNights(String roomId, List<Long> nights);
+
+    //create an empty calendar for a room unless it already has one
+    void createIfMissing(String roomId);
+
+    //create empty calendars for many rooms in one bulk write
+    void createAllIfMissing(Collection<String> roomIds);
+
+    //drop every night before the given epoch day from all rooms
+    void pruneNightsBefore(long day);
+}
@@ -0,0 +1,72 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.skillstorm.hotel_management.models.RoomNights;
+
+/**
+ * Conditional updates on room calendars. None of them reads the document first,
+ * so concurrent bookings never lose each other's nights.
+ */
+public class RoomNightsRepositoryImpl implements RoomNightsRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public RoomNightsRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean claimNights(String roomId, List<Long> nights) {
+        // Only matches while none of the requested nights is in the array
+        Query query = new Query(Criteria.where("_id").is(roomId).and("nights").nin(nights));
+        Update update = new Update().push("nights").each(nights.toArray());
+        return mongoTemplate.updateFirst(query, update, RoomNights.class).getModifiedCount() == 1;
+    }
+
+    @Override
+    public void releaseNights(String roomId, List<Long> nights) {
+        Query query = new Query(Criteria.where("_id").is(roomId));
+        Update update = new Update().pullAll("nights", nights.toArray());
+        mongoTemplate.updateFirst(query, update, RoomNights.class);
+    }
+
+    @Override
+    public void createIfMissing(String roomId) {
+        Query query = new Query(Criteria.where("_id").is(roomId));
+        Update update = new Update().setOnInsert("nights", List.of());
+        try {
+            mongoTemplate.upsert(query, update, RoomNights.class);
+        } catch (DuplicateKeyException e) {
+            // Another request created it first
+        }
+    }
+
+    @Override
+    public void createAllIfMissing(Collection<String> roomIds) {
+        if (roomIds.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, RoomNights.class);
+        for (String roomId : roomIds) {
+            bulkOps.upsert(new Query(Criteria.where("_id").is(roomId)), new Update().setOnInsert("nights", List.of()));
+        }
+        bulkOps.execute();
+    }
+
+    @Override
+    public void pruneNightsBefore(long day) {
+        Update update = new Update().pull("nights", new Document("$lt", day));
+        mongoTemplate.updateMulti(new Query(Criteria.where("nights").lt(day)), update, RoomNights.class);
+    }
+}
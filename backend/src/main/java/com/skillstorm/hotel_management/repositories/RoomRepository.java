@@ -1,21 +1,28 @@
 package com.skillstorm.hotel_management.repositories;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomType;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
-public interface RoomRepository extends MongoRepository <Room, String> {
+public interface RoomRepository extends MongoRepository <Room, String>, RoomRepositoryCustom {
     
     //find room by room number
     Optional<Room> findByRoomNumber(String roomNumber);
 
     //find a list of rooms by type
-    List<Room> findByType(String type);
+    List<Room> findByType(RoomType type);
     
-    //find a list of rooms by amenities
+    //find a list of rooms having every one of the amenities, whatever else they have
+    @Query("{ 'amenities': { '$all': ?0 } }")
     List<Room> findRoomByAmenities(List<String> amenities); 
+
+    //stream every room through a cursor instead of loading them into a list
+    Stream<Room> streamAllBy();
 }
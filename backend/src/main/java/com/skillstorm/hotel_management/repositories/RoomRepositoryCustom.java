@@ -0,0 +1,41 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.mongodb.bulk.BulkWriteError;
+
+import com.skillstorm.hotel_management.dtos.Room.RoomSearchCriteria;
+import com.skillstorm.hotel_management.dtos.Room.RoomSearchResultDto;
+import com.skillstorm.hotel_management.models.Room;
+
+
+public interface RoomRepositoryCustom {
+
+    //find rooms matching the criteria, ordered by room number and starting after the criteria cursor
+    List<Room> searchRooms(RoomSearchCriteria criteria, int limit);
+
+    //find a page of rooms matching the criteria together with facet counts over every match, in one aggregation
+    RoomSearchResultDto searchRoomsWithFacets(RoomSearchCriteria criteria, int limit);
+
+    //apply the patch in one atomic update and return the updated room, empty if not found
+    Optional<Room> patchRoom(String id, PatchUpdate patch);
+
+    //add an image reference unless the room already has maxImages images, and return the updated room
+    Optional<Room> addImage(String id, String imageId, int maxImages);
+
+    //remove an image reference and return the updated room, empty if not found
+    Optional<Room> removeImage(String id, String imageId);
+
+    //find which of the room numbers are already taken, in a single $in query
+    Set<String> findExistingRoomNumbers(Collection<String> roomNumbers);
+
+    //insert the rooms in one unordered bulk write and return the rows that failed
+    List<BulkWriteError> insertRooms(List<Room> rooms);
+
+    //find when any room was last changed, read from the updatedAt index alone; empty if there are no rooms
+    Optional<Date> findLastModified();
+}
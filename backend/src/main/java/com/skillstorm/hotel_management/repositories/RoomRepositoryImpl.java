@@ -0,0 +1,237 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.bson.Document;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.skillstorm.hotel_management.dtos.Room.FacetCountDto;
+import com.skillstorm.hotel_management.dtos.Room.RoomFacetsDto;
+import com.skillstorm.hotel_management.dtos.Room.RoomSearchCriteria;
+import com.skillstorm.hotel_management.dtos.Room.RoomSearchResultDto;
+import com.skillstorm.hotel_management.models.BedType;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomType;
+
+/**
+ * MongoTemplate backed queries and updates for {@link RoomRepository} that cannot be expressed as derived queries.
+ */
+public class RoomRepositoryImpl implements RoomRepositoryCustom {
+
+    /**
+     * The bounds of the price ranges counted by the faceted search; prices from the last bound up share one range.
+     * An Object[] so it is passed to withBoundaries as its varargs array.
+     */
+    private static final Object[] PRICE_BOUNDARIES = { 0, 100, 150, 200, 300, 500 };
+    private static final String PRICE_ABOVE = PRICE_BOUNDARIES[PRICE_BOUNDARIES.length - 1] + "+";
+
+    private final MongoTemplate mongoTemplate;
+
+    public RoomRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Room> searchRooms(RoomSearchCriteria criteria, int limit) {
+        Query query = new Query();
+        textFilter(criteria).ifPresent(query::addCriteria);
+        filters(criteria).forEach(query::addCriteria);
+
+        // Keyset pagination: continue after the last room number of the previous page
+        if (criteria.cursor() != null && !criteria.cursor().isBlank()) {
+            query.addCriteria(Criteria.where("roomNumber").gt(criteria.cursor()));
+        }
+
+        // Leave out the heavy fields unless the caller asked for them
+        if (!criteria.includeDetails()) {
+            query.fields().exclude("images", "description");
+        }
+
+        query.with(Sort.by(Sort.Direction.ASC, "roomNumber")).limit(limit);
+        return mongoTemplate.find(query, Room.class);
+    }
+
+    @Override
+    public RoomSearchResultDto searchRoomsWithFacets(RoomSearchCriteria criteria, int limit) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        // $text has to be in the first stage of the pipeline
+        textFilter(criteria).ifPresent(text -> stages.add(Aggregation.match(text)));
+        List<Criteria> filters = filters(criteria);
+        if (!filters.isEmpty()) {
+            stages.add(Aggregation.match(new Criteria().andOperator(filters)));
+        }
+
+        // The page of rooms is one more facet, so the cursor narrows only the page and not the counts
+        List<AggregationOperation> page = new ArrayList<>();
+        if (criteria.cursor() != null && !criteria.cursor().isBlank()) {
+            page.add(Aggregation.match(Criteria.where("roomNumber").gt(criteria.cursor())));
+        }
+        page.add(Aggregation.sort(Sort.Direction.ASC, "roomNumber"));
+        page.add(Aggregation.limit(limit));
+        if (!criteria.includeDetails()) {
+            page.add(Aggregation.project().andExclude("images", "description"));
+        }
+
+        stages.add(Aggregation.facet(page.toArray(AggregationOperation[]::new)).as("rooms")
+            .and(Aggregation.sortByCount("type")).as("types")
+            .and(Aggregation.sortByCount("bedType")).as("bedTypes")
+            .and(Aggregation.sortByCount("floor")).as("floors")
+            .and(Aggregation.bucket("pricePerNight").withBoundaries(PRICE_BOUNDARIES).withDefaultBucket(PRICE_ABOVE)).as("priceRanges")
+            .and(Aggregation.unwind("amenities"), Aggregation.sortByCount("amenities")).as("amenities"));
+
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(Room.class, stages), Document.class).getUniqueMappedResult();
+        if (result == null) {
+            result = new Document();
+        }
+        List<Room> rooms = result.getList("rooms", Document.class, List.of()).stream()
+            .map(room -> mongoTemplate.getConverter().read(Room.class, room))
+            .toList();
+        RoomFacetsDto facets = new RoomFacetsDto(
+            counts(result, "types", RoomType.class),
+            counts(result, "bedTypes", BedType.class),
+            counts(result, "floors", null),
+            counts(result, "priceRanges", null).stream().map(RoomRepositoryImpl::labelPriceRange).toList(),
+            counts(result, "amenities", null));
+        return new RoomSearchResultDto(rooms, null, facets);
+    }
+
+    /**
+     * The full-text filter of a search, if it has one.
+     */
+    private static Optional<TextCriteria> textFilter(RoomSearchCriteria criteria) {
+        if (criteria.text() == null || criteria.text().isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.of(TextCriteria.forDefaultLanguage().matching(criteria.text()));
+    }
+
+    /**
+     * The field filters of a search, equality filters first so the compound indexes on Room can be used.
+     */
+    private static List<Criteria> filters(RoomSearchCriteria criteria) {
+        List<Criteria> filters = new ArrayList<>();
+        if (criteria.type() != null) {
+            filters.add(Criteria.where("type").is(criteria.type()));
+        }
+        if (criteria.status() != null) {
+            filters.add(Criteria.where("status").is(criteria.status()));
+        }
+        if (criteria.floor() != null) {
+            filters.add(Criteria.where("floor").is(criteria.floor()));
+        }
+        if (criteria.minPrice() != null || criteria.maxPrice() != null) {
+            Criteria price = Criteria.where("pricePerNight");
+            if (criteria.minPrice() != null) {
+                price.gte(criteria.minPrice());
+            }
+            if (criteria.maxPrice() != null) {
+                price.lte(criteria.maxPrice());
+            }
+            filters.add(price);
+        }
+        if (criteria.guests() != null) {
+            filters.add(Criteria.where("maxCapacity").gte(criteria.guests()));
+        }
+        if (!criteria.amenities().isEmpty()) {
+            // $all: the room must have every requested amenity, in any order and among others
+            filters.add(Criteria.where("amenities").all(criteria.amenities()));
+        }
+        return filters;
+    }
+
+    /**
+     * Read the counts of one facet, turning the codes of an enum field back into its names.
+     * @param enumType the enum the facet counts, or null if its values are shown as they are stored
+     */
+    private List<FacetCountDto> counts(Document result, String facet, Class<?> enumType) {
+        return result.getList(facet, Document.class, List.of()).stream()
+            .map(count -> {
+                Object value = count.get("_id");
+                if (enumType != null && value != null) {
+                    value = mongoTemplate.getConverter().getConversionService().convert(value, enumType);
+                }
+                return new FacetCountDto(Objects.toString(value, null), ((Number) count.get("count")).longValue());
+            })
+            .toList();
+    }
+
+    /**
+     * Replace the lower bound that $bucket uses as the ID of a price range with the range itself, e.g. 100-150.
+     */
+    private static FacetCountDto labelPriceRange(FacetCountDto count) {
+        for (int i = 0; i < PRICE_BOUNDARIES.length - 1; i++) {
+            if (String.valueOf(PRICE_BOUNDARIES[i]).equals(count.value())) {
+                return new FacetCountDto(PRICE_BOUNDARIES[i] + "-" + PRICE_BOUNDARIES[i + 1], count.count());
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Optional<Room> patchRoom(String id, PatchUpdate patch) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, patch.toUpdate(), FindAndModifyOptions.options().returnNew(true), Room.class));
+    }
+
+    @Override
+    public Optional<Room> addImage(String id, String imageId, int maxImages) {
+        // A room whose images array already reaches maxImages does not match, which keeps the array bounded
+        Query query = new Query(Criteria.where("_id").is(id).and("images." + (maxImages - 1)).exists(false));
+        Update update = new Update().addToSet("images", imageId).set("updatedAt", new Date());
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Room.class));
+    }
+
+    @Override
+    public Optional<Room> removeImage(String id, String imageId) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        Update update = new Update().pull("images", imageId).set("updatedAt", new Date());
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Room.class));
+    }
+
+    @Override
+    public Set<String> findExistingRoomNumbers(Collection<String> roomNumbers) {
+        Query query = new Query(Criteria.where("roomNumber").in(roomNumbers));
+        query.fields().include("roomNumber").exclude("_id");
+        Set<String> existing = new HashSet<>();
+        mongoTemplate.find(query, Room.class).forEach(room -> existing.add(room.getRoomNumber()));
+        return existing;
+    }
+
+    @Override
+    public List<BulkWriteError> insertRooms(List<Room> rooms) {
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, Room.class).insert(rooms).execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            // Unordered writes carry on past failed rows, so only these rows are missing
+            return e.getErrors();
+        }
+    }
+
+    @Override
+    public Optional<Date> findLastModified() {
+        // Only updatedAt is projected, so the newest entry of its index answers the query without reading a room
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "updatedAt")).limit(1);
+        query.fields().include("updatedAt").exclude("_id");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Room.class)).map(Room::getUpdatedAt);
+    }
+}
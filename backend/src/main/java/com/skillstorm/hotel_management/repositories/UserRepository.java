@@ -1,16 +1,23 @@
 package com.skillstorm.hotel_management.repositories;
 
 import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.skillstorm.hotel_management.dtos.User.UserSummaryDto;
 import com.skillstorm.hotel_management.models.User;
-import java.util.List;
 
 
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     
     // Find a user by their email
     Optional<User> findByEmail(String email);
 
-    // Find users by their roles
-    List<User> findByRolesContaining(String role);
+    // Find a page of users by their roles, fetching only the summary fields
+    Page<UserSummaryDto> findByRolesContaining(String role, Pageable pageable);
+
+    // Find a page of all users, fetching only the summary fields
+    Page<UserSummaryDto> findAllBy(Pageable pageable);
 }
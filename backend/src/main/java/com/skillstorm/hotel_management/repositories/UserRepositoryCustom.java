@@ -0,0 +1,18 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.util.Optional;
+
+import com.skillstorm.hotel_management.models.User;
+
+
+public interface UserRepositoryCustom {
+
+    //apply the patch in one atomic update and return the updated user, empty if not found
+    Optional<User> patchUser(String id, PatchUpdate patch);
+
+    //mark the user holding this verification token as verified and clear the token, empty if no user holds it
+    Optional<User> verifyEmail(String tokenHash);
+
+    //replace the stored password hash if it is still the expected one, false otherwise
+    boolean updatePassword(String id, String expectedHash, String newHash);
+}
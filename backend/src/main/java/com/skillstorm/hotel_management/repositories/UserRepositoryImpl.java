@@ -0,0 +1,44 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.util.Date;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.skillstorm.hotel_management.models.User;
+
+/**
+ * MongoTemplate backed updates for {@link UserRepository}.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<User> patchUser(String id, PatchUpdate patch) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, patch.toUpdate(), FindAndModifyOptions.options().returnNew(true), User.class));
+    }
+
+    @Override
+    public Optional<User> verifyEmail(String tokenHash) {
+        Query query = new Query(Criteria.where("emailVerificationToken").is(tokenHash));
+        Update update = new Update().set("isEmailVerified", true).unset("emailVerificationToken").set("updatedAt", new Date());
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), User.class));
+    }
+
+    @Override
+    public boolean updatePassword(String id, String expectedHash, String newHash) {
+        Query query = new Query(Criteria.where("_id").is(id).and("password").is(expectedHash));
+        Update update = new Update().set("password", newHash).set("updatedAt", new Date());
+        return mongoTemplate.updateFirst(query, update, User.class).getModifiedCount() == 1;
+    }
+}
@@ -0,0 +1,23 @@
+package com.skillstorm.hotel_management.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.skillstorm.hotel_management.models.WaitlistEntry;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+
+public interface WaitlistRepository extends MongoRepository<WaitlistEntry, String>, WaitlistRepositoryCustom {
+
+    //find the waitlist entries of a user
+    List<WaitlistEntry> findByUserId(String userId);
+
+    //stream the entries in a status whose stay starts on or after a date through a cursor
+    Stream<WaitlistEntry> streamByStatusAndCheckInGreaterThanEqual(String status, LocalDate date);
+
+    //find the entries in a status that last changed before a date, e.g. those left allocating
+    List<WaitlistEntry> findByStatusAndUpdatedAtBefore(String status, Date date);
+}
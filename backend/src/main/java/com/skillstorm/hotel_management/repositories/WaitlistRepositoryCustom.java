@@ -0,0 +1,19 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import com.skillstorm.hotel_management.models.WaitlistEntry;
+
+
+public interface WaitlistRepositoryCustom {
+
+    //atomically move an entry from one status to another, empty if it is not in the expected status
+    Optional<WaitlistEntry> updateStatus(String id, String expectedStatus, String newStatus);
+
+    //record the reservation an entry being allocated was given, false if the entry is no longer being allocated
+    boolean markAllocated(String id, String allocatingStatus, String allocatedStatus, String reservationId);
+
+    //move every entry in a status whose stay started before a date to another status, returning how many moved
+    long updateStatusBefore(LocalDate date, String expectedStatus, String newStatus);
+}
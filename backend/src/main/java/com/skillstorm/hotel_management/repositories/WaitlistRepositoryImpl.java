@@ -0,0 +1,46 @@
+package com.skillstorm.hotel_management.repositories;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.skillstorm.hotel_management.models.WaitlistEntry;
+
+/**
+ * Conditional status changes on waitlist entries, so that an entry is allocated at most once across instances.
+ */
+public class WaitlistRepositoryImpl implements WaitlistRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public WaitlistRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<WaitlistEntry> updateStatus(String id, String expectedStatus, String newStatus) {
+        Query query = new Query(Criteria.where("_id").is(id).and("status").is(expectedStatus));
+        Update update = new Update().set("status", newStatus).set("updatedAt", new Date());
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), WaitlistEntry.class));
+    }
+
+    @Override
+    public boolean markAllocated(String id, String allocatingStatus, String allocatedStatus, String reservationId) {
+        Query query = new Query(Criteria.where("_id").is(id).and("status").is(allocatingStatus));
+        Update update = new Update().set("status", allocatedStatus).set("reservationId", reservationId).set("updatedAt", new Date());
+        return mongoTemplate.updateFirst(query, update, WaitlistEntry.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public long updateStatusBefore(LocalDate date, String expectedStatus, String newStatus) {
+        Query query = new Query(Criteria.where("status").is(expectedStatus).and("checkIn").lt(date));
+        Update update = new Update().set("status", newStatus).set("updatedAt", new Date());
+        return mongoTemplate.updateMulti(query, update, WaitlistEntry.class).getModifiedCount();
+    }
+}
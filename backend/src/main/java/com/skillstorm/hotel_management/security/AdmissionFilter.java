@@ -0,0 +1,110 @@
+package com.skillstorm.hotel_management.security;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.skillstorm.hotel_management.config.AdmissionProperties;
+import com.skillstorm.hotel_management.config.AdmissionProperties.Route;
+import com.skillstorm.hotel_management.services.TokenService.TokenUser;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for the routes in hotel.admission.routes.
+ * A request to one of them is shed with a 503 while the service is overloaded, refused with a 429 once its client
+ * has used up its quota, and otherwise timed to feed the overload detection. Both refusals say when to retry.
+ * Runs after the token filter, so authenticated clients are limited per user and anonymous ones per address.
+ * Not a bean, so that it only runs inside the security filter chain.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private record CompiledRoute(Route route, PathPattern pattern) {}
+
+    private final boolean enabled;
+    private final List<CompiledRoute> routes;
+    private final long retryAfterSeconds;
+    private final RateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionFilter(AdmissionProperties properties, RateLimiter rateLimiter, LoadShedder loadShedder, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.routes = properties.routes().stream()
+            .map(route -> new CompiledRoute(route, PathPatternParser.defaultInstance.parse(route.path())))
+            .toList();
+        this.retryAfterSeconds = Math.max(1, properties.shedding().retryAfter().toSeconds());
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Route route = enabled ? match(request) : null;
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (loadShedder.shouldShed()) {
+            reject(response, route, HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds, "shed");
+            return;
+        }
+        long waitNanos = rateLimiter.tryAcquire(route, client(request));
+        if (waitNanos > 0) {
+            reject(response, route, HttpStatus.TOO_MANY_REQUESTS, (waitNanos + 999_999_999L) / 1_000_000_000L, "rate_limited");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            loadShedder.recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    private Route match(HttpServletRequest request) {
+        PathContainer path = null;
+        for (CompiledRoute compiled : routes) {
+            if (compiled.route().method().equalsIgnoreCase(request.getMethod())) {
+                if (path == null) {
+                    path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+                }
+                if (compiled.pattern().matches(path)) {
+                    return compiled.route();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the ID of the authenticated user, or the remote address of an anonymous client
+     */
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof TokenUser user) {
+            return "user:" + user.id();
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, Route route, HttpStatus status, long retryAfter, String reason) {
+        meterRegistry.counter("hotel.admission.rejected", "route", route.name(), "reason", reason).increment();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+    }
+}
@@ -0,0 +1,105 @@
+package com.skillstorm.hotel_management.security;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import com.skillstorm.hotel_management.config.AdmissionProperties;
+import com.skillstorm.hotel_management.config.AdmissionProperties.Shedding;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decides when requests to the limited routes are shed because the service is overloaded.
+ * It keeps exponentially weighted moving averages of their latency and of the time requests wait for a Mongo connection,
+ * which it hears about as a connection pool listener. Once an average passes its threshold, the share of requests shed
+ * grows with how far past it is: twice the threshold sheds them all, up to hotel.admission.shedding.max-shed-ratio.
+ */
+@Component
+public class LoadShedder implements ConnectionPoolListener {
+
+    /**
+     * Weight of the newest sample in the moving averages.
+     */
+    private static final double ALPHA = 0.05;
+
+    private final Shedding shedding;
+    private final MovingAverage latencyNanos = new MovingAverage();
+    private final MovingAverage poolWaitNanos = new MovingAverage();
+
+    public LoadShedder(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.shedding = properties.shedding();
+        Gauge.builder("hotel.admission.latency", latencyNanos, average -> average.get() / 1_000_000)
+            .description("Moving average of the latency of the limited routes, in ms")
+            .register(meterRegistry);
+        Gauge.builder("hotel.admission.pool.wait", poolWaitNanos, average -> average.get() / 1_000_000)
+            .description("Moving average of the Mongo connection checkout wait, in ms")
+            .register(meterRegistry);
+        Gauge.builder("hotel.admission.shed.ratio", this, LoadShedder::shedRatio)
+            .description("Share of requests to the limited routes currently shed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return true if this request should be turned away
+     */
+    public boolean shouldShed() {
+        double ratio = shedRatio();
+        return ratio > 0 && ThreadLocalRandom.current().nextDouble() < ratio;
+    }
+
+    /**
+     * Record how long a request to a limited route took.
+     */
+    public void recordLatency(long nanos) {
+        latencyNanos.add(nanos);
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        poolWaitNanos.add(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        poolWaitNanos.add(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    double shedRatio() {
+        if (!shedding.enabled()) {
+            return 0;
+        }
+        double overload = Math.max(
+            latencyNanos.get() / shedding.latency().toNanos(),
+            poolWaitNanos.get() / shedding.poolWait().toNanos()) - 1;
+        return Math.max(0, Math.min(shedding.maxShedRatio(), overload));
+    }
+
+    /**
+     * An exponentially weighted moving average updated with compare-and-set, so recording never blocks.
+     */
+    private static final class MovingAverage {
+
+        private final AtomicLong bits = new AtomicLong(Double.doubleToRawLongBits(0));
+
+        void add(double sample) {
+            while (true) {
+                long current = bits.get();
+                double next = Double.longBitsToDouble(current) * (1 - ALPHA) + sample * ALPHA;
+                if (bits.compareAndSet(current, Double.doubleToRawLongBits(next))) {
+                    return;
+                }
+            }
+        }
+
+        double get() {
+            return Double.longBitsToDouble(bits.get());
+        }
+    }
+}
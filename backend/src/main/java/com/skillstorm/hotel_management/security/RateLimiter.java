@@ -0,0 +1,69 @@
+package com.skillstorm.hotel_management.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.skillstorm.hotel_management.config.AdmissionProperties.Route;
+
+/**
+ * Token buckets per route and client, without locks.
+ * Each bucket is a single AtomicLong holding the time at which it will be full again, the generic cell rate form
+ * of a token bucket: a request takes a token by moving that time one interval later with a compare-and-set,
+ * and is refused when it would move it further than a burst ahead of now. Buckets live in a ConcurrentHashMap,
+ * so clients never contend with each other, and a full bucket is the same as no bucket, so idle ones are dropped.
+ */
+@Component
+public class RateLimiter {
+
+    /**
+     * Bucket state keyed by route name and client, as the nano time at which each bucket is full again.
+     */
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Take a token from a client's bucket for a route.
+     * @param route the route being called
+     * @param client the user ID or remote address of the caller
+     * @return 0 if the request may go ahead, otherwise the nanoseconds until it could
+     */
+    public long tryAcquire(Route route, String client) {
+        return tryAcquire(route, client, System.nanoTime());
+    }
+
+    long tryAcquire(Route route, String client, long now) {
+        long interval = (long) (1_000_000_000L / route.permitsPerSecond());
+        long tolerance = interval * route.burst();
+        AtomicLong fullAt = buckets.computeIfAbsent(route.name() + '|' + client, key -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            if (next - now > tolerance) {
+                return next - now - tolerance;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop the buckets that have filled up again, so clients that went away take no memory.
+     * A request racing with the removal of its bucket starts a new one, which at worst allows one extra burst.
+     */
+    @Scheduled(fixedDelayString = "${hotel.admission.sweep-interval:1m}")
+    public void sweep() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(fullAt -> fullAt.get() - now < 0);
+    }
+
+    /**
+     * @return the number of clients holding a bucket that is not full
+     */
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -1,16 +1,95 @@
 package com.skillstorm.hotel_management.security;
 
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import com.skillstorm.hotel_management.config.AdmissionProperties;
+import com.skillstorm.hotel_management.services.TokenService;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
+/**
+ * Requests are authenticated by the bearer tokens TokenService issues at login, without sessions.
+ * Endpoints are open unless a controller method restricts them with @PreAuthorize.
+ * The routes in hotel.admission.routes are rate limited per client, and shed under overload, once the token is known.
+ */
 @Configuration
+@EnableMethodSecurity
 public class SecurityConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, TokenService tokenService, AdmissionProperties admissionProperties,
+            RateLimiter rateLimiter, LoadShedder loadShedder, MeterRegistry meterRegistry) throws Exception {
         http.csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new JwtAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(new AdmissionFilter(admissionProperties, rateLimiter, loadShedder, meterRegistry), JwtAuthenticationFilter.class)
+            // Anonymous requests to a restricted endpoint get a 401, authenticated ones without the role a 403
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             .authorizeHttpRequests(authz -> authz.anyRequest().permitAll());
         return http.build();
     }
+
+    /**
+     * Hash new passwords with bcrypt, stored as {bcrypt}hash.
+     * The bcrypt strength is hotel.security.password.strength, or when that is 0 the highest strength whose hash
+     * takes no longer than target-ms on this machine, measured on startup.
+     * Passwords stored before hashing have no {id} prefix and are compared as plain text, so those users can still
+     * log in; PasswordService rehashes them, and any hash weaker than the current strength, when they do.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${hotel.security.password.strength:0}") int strength,
+            @Value("${hotel.security.password.target-ms:250}") long targetMs,
+            @Value("${hotel.security.password.min-strength:10}") int minStrength,
+            @Value("${hotel.security.password.max-strength:16}") int maxStrength) {
+        if (strength == 0) {
+            strength = calibrateBcrypt(targetMs, minStrength, maxStrength);
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(NoOpPasswordEncoder.getInstance());
+        return encoder;
+    }
+
+    /**
+     * Time bcrypt at the minimum strength and double the estimate, as each step doubles the work, until the target is reached.
+     * @return the strength to hash with, between minStrength and maxStrength
+     */
+    static int calibrateBcrypt(long targetMs, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        String hash = probe.encode("calibration");
+        // The best of a few runs, so a warming JIT or a busy startup does not inflate the estimate
+        long fastestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.matches("calibration", hash);
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+        }
+        int strength = minStrength;
+        long estimateNanos = fastestNanos;
+        while (strength < maxStrength && estimateNanos * 2 <= targetMs * 1_000_000) {
+            strength++;
+            estimateNanos *= 2;
+        }
+        log.info("Hashing passwords with bcrypt strength {}, about {} ms per hash", strength, estimateNanos / 1_000_000);
+        return strength;
+    }
 }
@@ -0,0 +1,278 @@
+package com.skillstorm.hotel_management.services;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotel_management.dtos.Analytics.AnalyticsRowDto;
+import com.skillstorm.hotel_management.models.DailyRollup;
+import com.skillstorm.hotel_management.models.Reservation;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomType;
+import com.skillstorm.hotel_management.repositories.DailyRollupRepository;
+import com.skillstorm.hotel_management.repositories.ReservationRepository;
+import com.skillstorm.hotel_management.repositories.RoomRepository;
+
+import io.micrometer.observation.annotation.Observed;
+
+/**
+* Service class for occupancy and revenue analytics.
+* Reports read the daily rollups, one row per night, room type and floor, which bookings and cancellations keep
+* up to date as they happen. A nightly reconciliation recomputes the rows around today from the reservations,
+* repairing any update that was lost and recording how many rooms were for sale.
+*/
+@Service
+@Observed(name = "hotel.service")
+public class AnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsService.class);
+
+    /**
+    * The groupings a report can ask for, mapped to the rollup field they group by; total is a single row.
+    */
+    private static final Map<String, String> GROUP_FIELDS = Map.of(
+        "day", "day",
+        "month", "month",
+        "type", "roomType",
+        "floor", "floor");
+
+    /**
+    * The longest range a report covers.
+    */
+    private static final int MAX_REPORT_DAYS = 3 * 366;
+
+    /**
+    * The repository holding the daily rollups.
+    */
+    private final DailyRollupRepository dailyRollupRepository;
+
+    /**
+    * The repository for accessing room data.
+    */
+    private final RoomRepository roomRepository;
+
+    /**
+    * The repository for accessing reservation data.
+    */
+    private final ReservationRepository reservationRepository;
+
+    private final TaskExecutor taskExecutor;
+
+    /**
+    * How many past nights the reconciliation recomputes; older rows are final.
+    */
+    private final int lookbackDays;
+
+    /**
+    * How many nights from today the reconciliation recomputes, which covers every bookable night.
+    */
+    private final int horizonDays;
+
+    /**
+    * The number of rooms of each room type and floor, keyed by inventoryKey, as of the last reconciliation.
+    */
+    private volatile Map<String, Integer> inventory = Map.of();
+
+    public AnalyticsService(DailyRollupRepository dailyRollupRepository, RoomRepository roomRepository,
+            ReservationRepository reservationRepository, @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${hotel.analytics.lookback-days:7}") int lookbackDays,
+            @Value("${hotel.availability.horizon-days:365}") int horizonDays) {
+        this.dailyRollupRepository = dailyRollupRepository;
+        this.roomRepository = roomRepository;
+        this.reservationRepository = reservationRepository;
+        this.taskExecutor = taskExecutor;
+        this.lookbackDays = lookbackDays;
+        this.horizonDays = horizonDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskExecutor.execute(this::reconcile);
+    }
+
+    /**
+    * Service method to report occupancy, ADR and RevPAR
+    * @param from the first night reported
+    * @param to the day after the last night reported
+    * @param groupBy day, month, type, floor or total
+    * @return one row per group, in order
+    * @throws IllegalArgumentException if the range or the grouping is invalid
+    */
+    public List<AnalyticsRowDto> getReport(LocalDate from, LocalDate to, String groupBy) throws IllegalArgumentException {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("From and to dates are required");
+        }
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("To must be after from");
+        }
+        if (to.toEpochDay() - from.toEpochDay() > MAX_REPORT_DAYS) {
+            throw new IllegalArgumentException("Reports cover at most " + MAX_REPORT_DAYS + " days");
+        }
+        String groupField = null;
+        if (!"total".equals(groupBy)) {
+            groupField = GROUP_FIELDS.get(groupBy);
+            if (groupField == null) {
+                throw new IllegalArgumentException("Group by must be one of day, month, type, floor or total");
+            }
+        }
+        return dailyRollupRepository.summarize(from.toEpochDay(), to.toEpochDay(), groupField);
+    }
+
+    /**
+    * Count the nights of a new reservation. A failure is logged and left to the next reconciliation.
+    * @param reservation the confirmed reservation
+    * @param room the booked room
+    */
+    public void recordBooked(Reservation reservation, Room room) {
+        addStay(reservation, typeOf(reservation, room), floorOf(reservation, room), 1);
+    }
+
+    /**
+    * Take the nights of a cancelled reservation back out of the rollups they were counted under when it was booked.
+    * Reservations stored without the room's type and floor fall back to the room as it is now.
+    * A failure is logged and left to the next reconciliation.
+    * @param reservation the cancelled reservation
+    */
+    public void recordCancelled(Reservation reservation) {
+        if (reservation.getRoomType() != null && reservation.getFloor() != null) {
+            addStay(reservation, reservation.getRoomType(), reservation.getFloor(), -1);
+            return;
+        }
+        try {
+            roomRepository.findById(reservation.getRoomId()).ifPresent(room -> addStay(reservation, room.getType(), room.getFloor(), -1));
+        } catch (RuntimeException e) {
+            log.warn("Could not update analytics for reservation {}: {}", reservation.getId(), e.getMessage());
+        }
+    }
+
+    /**
+    * Recompute the rollups from lookback-days ago to the end of the booking horizon from the confirmed reservations.
+    * Runs nightly and on startup. Rows a booking or cancellation changes while this runs keep their incremental totals
+    * and are recomputed by the next run.
+    */
+    @Scheduled(cron = "${hotel.analytics.reconcile-cron:0 30 0 * * *}")
+    public void reconcile() {
+        try {
+            Date snapshotAt = new Date();
+            long fromDay = LocalDate.now().minusDays(lookbackDays).toEpochDay();
+            long toDay = LocalDate.now().plusDays(horizonDays + 1).toEpochDay();
+
+            Map<String, Room> rooms = new HashMap<>();
+            // One room of each room type and floor
+            Map<String, Room> groups = new HashMap<>();
+            Map<String, Integer> counts = new HashMap<>();
+            try (Stream<Room> stream = roomRepository.streamAllBy()) {
+                stream.forEach(room -> {
+                    String key = inventoryKey(room.getType(), room.getFloor());
+                    rooms.put(room.getId(), room);
+                    groups.putIfAbsent(key, room);
+                    counts.merge(key, 1, Integer::sum);
+                });
+            }
+            inventory = Map.copyOf(counts);
+
+            // Every night gets a row for every room type and floor, so nights without sales still count as room nights for sale
+            Map<String, DailyRollup> rollups = new HashMap<>();
+            for (long day = fromDay; day < toDay; day++) {
+                for (Room room : groups.values()) {
+                    rollupOf(rollups, day, room.getType(), room.getFloor());
+                }
+            }
+            try (Stream<Reservation> reservations = reservationRepository.streamByStatusAndCheckOutAfter(
+                    ReservationService.CONFIRMED, LocalDate.ofEpochDay(fromDay))) {
+                reservations.forEach(reservation -> {
+                    Room room = rooms.get(reservation.getRoomId());
+                    if (room == null) {
+                        return;
+                    }
+                    // Counted under the type and floor it was booked with, as its cancellation will take it out of those
+                    RoomType roomType = typeOf(reservation, room);
+                    int floor = floorOf(reservation, room);
+                    double revenuePerNight = revenuePerNight(reservation);
+                    long first = Math.max(fromDay, reservation.getCheckIn().toEpochDay());
+                    long last = Math.min(toDay, reservation.getCheckOut().toEpochDay());
+                    for (long day = first; day < last; day++) {
+                        DailyRollup rollup = rollupOf(rollups, day, roomType, floor);
+                        rollup.setRoomNightsSold(rollup.getRoomNightsSold() + 1);
+                        rollup.setRevenue(rollup.getRevenue() + revenuePerNight);
+                    }
+                });
+            }
+            dailyRollupRepository.replaceRange(fromDay, toDay, rollups.values(), snapshotAt);
+            log.info("Reconciled {} analytics rows", rollups.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile analytics: {}", e.getMessage());
+        }
+    }
+
+    /**
+    * Add or remove the nights of a stay from the rollups of a room type and floor
+    * @param sign 1 to add the stay, -1 to remove it
+    */
+    private void addStay(Reservation reservation, RoomType roomType, int floor, int sign) {
+        try {
+            List<Long> days = Stream.iterate(reservation.getCheckIn().toEpochDay(), day -> day + 1)
+                .limit(reservation.getCheckOut().toEpochDay() - reservation.getCheckIn().toEpochDay())
+                .toList();
+            Integer rooms = inventory.get(inventoryKey(roomType, floor));
+            dailyRollupRepository.addNights(roomType, floor, days, sign, revenuePerNight(reservation),
+                rooms == null ? 0 : rooms);
+        } catch (RuntimeException e) {
+            log.warn("Could not update analytics for reservation {}: {}", reservation.getId(), e.getMessage());
+        }
+    }
+
+    /**
+    * @return the rollup of a night for a room type and floor, created with the room count if it is not there yet
+    */
+    private DailyRollup rollupOf(Map<String, DailyRollup> rollups, long day, RoomType roomType, int floor) {
+        return rollups.computeIfAbsent(DailyRollup.idOf(day, roomType, floor), id -> new DailyRollup(
+            day,
+            YearMonth.from(LocalDate.ofEpochDay(day)).toString(),
+            roomType,
+            floor,
+            inventory.getOrDefault(inventoryKey(roomType, floor), 0),
+            0,
+            0));
+    }
+
+    /**
+    * @return the room type a reservation was booked with, or the room's current one if it was not stored
+    */
+    private static RoomType typeOf(Reservation reservation, Room room) {
+        return reservation.getRoomType() != null ? reservation.getRoomType() : room.getType();
+    }
+
+    /**
+    * @return the floor a reservation was booked on, or the room's current one if it was not stored
+    */
+    private static int floorOf(Reservation reservation, Room room) {
+        return reservation.getFloor() != null ? reservation.getFloor() : room.getFloor();
+    }
+
+    /**
+    * @return the price of a stay spread evenly over its nights
+    */
+    private static double revenuePerNight(Reservation reservation) {
+        long nights = reservation.getCheckOut().toEpochDay() - reservation.getCheckIn().toEpochDay();
+        return nights <= 0 ? 0 : reservation.getTotalPrice() / nights;
+    }
+
+    private static String inventoryKey(RoomType roomType, int floor) {
+        return roomType + "|" + floor;
+    }
+}
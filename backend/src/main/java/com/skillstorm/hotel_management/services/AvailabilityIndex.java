@@ -0,0 +1,407 @@
+package com.skillstorm.hotel_management.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomNights;
+import com.skillstorm.hotel_management.models.RoomType;
+
+/**
+ * In-memory booking calendar of every room.
+ * Each room keeps one bit per night over a rolling horizon starting today, set when the night is booked,
+ * so range availability over the whole inventory is answered without touching Mongo.
+ * The number of booked rooms of each type is counted per night as bits change, which gives the occupancy used for pricing.
+ */
+@Service
+public class AvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+    /**
+     * The calendars of every known room, keyed by room ID.
+     */
+    private final Map<String, RoomCalendar> calendars = new ConcurrentHashMap<>();
+
+    /**
+     * The booked room count of every room type, indexed by ordinal, with rooms without a type last.
+     * Filled in the constructor and never replaced, so lookups need neither hashing nor locking.
+     */
+    private final TypeOccupancy[] occupancies;
+
+    private final MongoTemplate mongoTemplate;
+    private final TaskExecutor taskExecutor;
+
+    /**
+     * The number of nights, starting today, that can be booked.
+     */
+    private final int horizonDays;
+
+    private volatile boolean ready;
+
+    /**
+     * Held while a rebuild runs, so a retry does not start a second one.
+     */
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public AvailabilityIndex(MongoTemplate mongoTemplate,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${hotel.availability.horizon-days:365}") int horizonDays) {
+        this.mongoTemplate = mongoTemplate;
+        this.taskExecutor = taskExecutor;
+        this.horizonDays = horizonDays;
+        RoomType[] types = RoomType.values();
+        this.occupancies = new TypeOccupancy[types.length + 1];
+        for (RoomType type : types) {
+            occupancies[type.ordinal()] = new TypeOccupancy(type, horizonDays);
+        }
+        occupancies[types.length] = new TypeOccupancy(null, horizonDays);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskExecutor.execute(this::rebuild);
+    }
+
+    /**
+     * Retry loading the index while it is not ready, e.g. because Mongo was unreachable on startup;
+     * until then every booking is refused.
+     */
+    @Scheduled(fixedDelayString = "${hotel.availability.retry-interval:15s}", initialDelayString = "${hotel.availability.retry-interval:15s}")
+    public void retryRebuild() {
+        if (!ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Load every room and its booked nights from Mongo, one document at a time.
+     * Marking nights is idempotent, so bookings made while the rebuild runs are kept.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Query roomQuery = new Query();
+            roomQuery.fields().include("type");
+            try (Stream<Room> rooms = mongoTemplate.stream(roomQuery, Room.class)) {
+                rooms.forEach(this::registerRoom);
+            }
+            try (Stream<RoomNights> booked = mongoTemplate.stream(new Query(), RoomNights.class)) {
+                booked.forEach(nights -> {
+                    RoomCalendar calendar = calendars.get(nights.getRoomId());
+                    if (calendar != null) {
+                        nights.getNights().forEach(day -> calendar.set(day, day + 1, true));
+                    }
+                });
+            }
+            ready = true;
+            log.info("Availability index loaded {} rooms", calendars.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not load the availability index, retrying: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Shift every calendar so that it starts today. Runs just after midnight.
+     */
+    @Scheduled(cron = "${hotel.availability.roll-cron:0 1 0 * * *}")
+    public void roll() {
+        long today = LocalDate.now().toEpochDay();
+        calendars.values().forEach(calendar -> calendar.rollTo(today));
+    }
+
+    /**
+     * @return true once the index has been loaded from Mongo
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return the last check-out date that can be booked
+     */
+    public LocalDate getHorizonEnd() {
+        return LocalDate.now().plusDays(horizonDays);
+    }
+
+    /**
+     * Add a room with an empty calendar. Does nothing if the room is already known.
+     * @param room the room to add
+     */
+    public void registerRoom(Room room) {
+        calendars.computeIfAbsent(room.getId(), id -> new RoomCalendar(occupancyOf(room.getType()), LocalDate.now().toEpochDay(), horizonDays));
+    }
+
+    /**
+     * Forget a room and its calendar.
+     * @param roomId the ID of the room to remove
+     */
+    public void removeRoom(String roomId) {
+        RoomCalendar calendar = calendars.remove(roomId);
+        if (calendar != null) {
+            calendar.detach();
+        }
+    }
+
+    /**
+     * Move a room, with its booked nights, to the occupancy of another room type.
+     * @param roomId the ID of the room
+     * @param type the new type of the room
+     */
+    public void changeRoomType(String roomId, RoomType type) {
+        RoomCalendar calendar = calendars.get(roomId);
+        if (calendar != null) {
+            calendar.moveTo(occupancyOf(type));
+        }
+    }
+
+    /**
+     * @return the share of the rooms of a type booked on a night, from 0 to 1
+     */
+    public double getOccupancy(RoomType type, long epochDay) {
+        return occupancyOf(type).rate(epochDay);
+    }
+
+    /**
+     * @return the number of rooms of a type
+     */
+    public int getRoomCount(RoomType type) {
+        return occupancyOf(type).rooms.get();
+    }
+
+    /**
+     * Book the nights from checkIn up to, but not including, checkOut if they are all free.
+     * @return true if the nights were free and are now booked, false otherwise
+     */
+    public boolean tryBook(String roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = calendars.get(roomId);
+        return calendar != null && calendar.tryBook(checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    /**
+     * Mark the nights from checkIn up to checkOut as booked, whether or not they were free.
+     */
+    public void mark(String roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = calendars.get(roomId);
+        if (calendar != null) {
+            calendar.set(checkIn.toEpochDay(), checkOut.toEpochDay(), true);
+        }
+    }
+
+    /**
+     * Free the nights from checkIn up to checkOut, e.g. after a cancellation.
+     */
+    public void release(String roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = calendars.get(roomId);
+        if (calendar != null) {
+            calendar.set(checkIn.toEpochDay(), checkOut.toEpochDay(), false);
+        }
+    }
+
+    /**
+     * Mark the nights stored in Mongo as booked, e.g. after another instance booked some of them.
+     * Nights already set are kept, as they may be held by bookings on this instance that are still being claimed.
+     * @param roomId the ID of the room
+     * @param nights the booked nights as epoch days
+     */
+    public void merge(String roomId, Collection<Long> nights) {
+        RoomCalendar calendar = calendars.get(roomId);
+        if (calendar != null) {
+            calendar.setAll(nights);
+        }
+    }
+
+    /**
+     * @return true if the room is known and free every night from checkIn up to checkOut
+     */
+    public boolean isAvailable(String roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = calendars.get(roomId);
+        return calendar != null && calendar.isFree(checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    /**
+     * @return the IDs of every room free each night from checkIn up to checkOut
+     */
+    public List<String> findAvailableRoomIds(LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay();
+        long to = checkOut.toEpochDay();
+        List<String> available = new ArrayList<>();
+        calendars.forEach((roomId, calendar) -> {
+            if (calendar.isFree(from, to)) {
+                available.add(roomId);
+            }
+        });
+        return available;
+    }
+
+    private TypeOccupancy occupancyOf(RoomType type) {
+        return occupancies[type == null ? occupancies.length - 1 : type.ordinal()];
+    }
+
+    /**
+     * The number of rooms of one type and how many of them are booked each night.
+     * Counts live in a ring indexed by epoch day, which stays unambiguous because only nights inside the horizon are ever counted.
+     */
+    static final class TypeOccupancy {
+
+        private final RoomType type;
+        private final AtomicInteger rooms = new AtomicInteger();
+        private final AtomicIntegerArray booked;
+
+        TypeOccupancy(RoomType type, int horizonDays) {
+            this.type = type;
+            this.booked = new AtomicIntegerArray(Math.max(horizonDays, 1));
+        }
+
+        void add(long day, int delta) {
+            booked.addAndGet((int) Math.floorMod(day, (long) booked.length()), delta);
+        }
+
+        int booked(long day) {
+            return booked.get((int) Math.floorMod(day, (long) booked.length()));
+        }
+
+        double rate(long day) {
+            int total = rooms.get();
+            return total == 0 ? 0 : Math.min(1.0, (double) booked(day) / total);
+        }
+    }
+
+    /**
+     * The booked nights of one room. Bit i is night baseDay + i.
+     * Each calendar guards itself, so operations on different rooms never contend.
+     * Every bit that flips is counted in the occupancy of the room's type.
+     */
+    static final class RoomCalendar {
+
+        private final int horizonDays;
+        private TypeOccupancy occupancy;
+        private long baseDay;
+        private BitSet nights;
+        private boolean detached;
+
+        RoomCalendar(TypeOccupancy occupancy, long baseDay, int horizonDays) {
+            this.occupancy = occupancy;
+            this.baseDay = baseDay;
+            this.horizonDays = horizonDays;
+            this.nights = new BitSet(horizonDays);
+            occupancy.rooms.incrementAndGet();
+        }
+
+        synchronized RoomType getType() {
+            return occupancy.type;
+        }
+
+        synchronized boolean isFree(long fromDay, long toDay) {
+            int from = clamp(fromDay);
+            int to = clamp(toDay);
+            int next = nights.nextSetBit(from);
+            return next < 0 || next >= to;
+        }
+
+        synchronized boolean tryBook(long fromDay, long toDay) {
+            if (!isFree(fromDay, toDay)) {
+                return false;
+            }
+            set(fromDay, toDay, true);
+            return true;
+        }
+
+        synchronized void set(long fromDay, long toDay, boolean booked) {
+            int from = clamp(fromDay);
+            int to = clamp(toDay);
+            for (int i = from; i < to; i++) {
+                if (!detached && nights.get(i) != booked) {
+                    occupancy.add(baseDay + i, booked ? 1 : -1);
+                }
+            }
+            if (from < to) {
+                nights.set(from, to, booked);
+            }
+        }
+
+        synchronized void setAll(Collection<Long> bookedDays) {
+            bookedDays.forEach(day -> set(day, day + 1, true));
+        }
+
+        synchronized void rollTo(long day) {
+            int shift = (int) Math.min(day - baseDay, horizonDays);
+            if (shift > 0) {
+                uncount(0, shift);
+                nights = nights.get(shift, horizonDays + shift);
+                baseDay = day;
+            }
+        }
+
+        /**
+         * Take the room and its booked nights out of its type's occupancy.
+         */
+        synchronized void detach() {
+            if (!detached) {
+                uncount(0, horizonDays);
+                occupancy.rooms.decrementAndGet();
+                detached = true;
+            }
+        }
+
+        /**
+         * Count the room and its booked nights under another type.
+         */
+        synchronized void moveTo(TypeOccupancy target) {
+            if (detached || target == occupancy) {
+                return;
+            }
+            uncount(0, horizonDays);
+            occupancy.rooms.decrementAndGet();
+            occupancy = target;
+            occupancy.rooms.incrementAndGet();
+            for (int i = nights.nextSetBit(0); i >= 0; i = nights.nextSetBit(i + 1)) {
+                occupancy.add(baseDay + i, 1);
+            }
+        }
+
+        /**
+         * Remove the booked nights between two bit offsets from the occupancy counts.
+         */
+        private void uncount(int from, int to) {
+            if (detached) {
+                return;
+            }
+            for (int i = nights.nextSetBit(from); i >= 0 && i < to; i = nights.nextSetBit(i + 1)) {
+                occupancy.add(baseDay + i, -1);
+            }
+        }
+
+        /**
+         * Convert an epoch day into a bit offset, keeping it inside the horizon.
+         */
+        private int clamp(long day) {
+            return (int) Math.max(0, Math.min(day - baseDay, horizonDays));
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.skillstorm.hotel_management.services;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotel_management.exceptions.NotFoundException;
+
+/**
+ * Stores room images on the local filesystem under hotel.images.dir.
+ * An image is named by the SHA-256 of its content plus its extension, which is the reference kept on the room,
+ * so identical uploads are stored once and a stored file never changes.
+ * Thumbnails are generated in the background on a small pool of its own, as the work is CPU bound whatever the request thread mode.
+ * The pool's queue is bounded; thumbnails it rejects are made on first request.
+ * It is not a bean, since an Executor bean would replace Spring Boot's applicationTaskExecutor.
+ */
+@Service
+public class ImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageService.class);
+
+    /**
+     * The accepted content types and the extension they are stored with.
+     */
+    private static final Map<String, String> EXTENSIONS = Map.of(
+        "image/jpeg", "jpg",
+        "image/png", "png",
+        "image/gif", "gif"
+    );
+
+    private static final Pattern IMAGE_ID = Pattern.compile("[0-9a-f]{64}\\.(jpg|png|gif)");
+
+    /**
+     * Images larger than this are refused before they are decoded, so a small file cannot expand into a huge bitmap.
+     */
+    private static final long MAX_PIXELS = 40_000_000L;
+
+    private final Path originals;
+    private final Path thumbnails;
+    private final int thumbnailWidth;
+    private final ExecutorService thumbnailExecutor;
+
+    /**
+     * Thumbnails being generated, so concurrent requests for the same one wait for a single job.
+     */
+    private final Map<String, CompletableFuture<Path>> pending = new ConcurrentHashMap<>();
+
+    public ImageService(@Value("${hotel.images.dir:data/images}") Path directory,
+            @Value("${hotel.images.thumbnail-width:320}") int thumbnailWidth,
+            @Value("${hotel.images.threads:2}") int threads,
+            @Value("${hotel.images.queue-capacity:100}") int queueCapacity) {
+        this.originals = directory.resolve("originals");
+        this.thumbnails = directory.resolve("thumbnails");
+        this.thumbnailWidth = thumbnailWidth;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.thumbnailExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            task -> {
+                Thread thread = new Thread(task, "image-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Stop generating thumbnails and wait briefly for those in progress, so no file is left half written.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        thumbnailExecutor.shutdownNow();
+        thumbnailExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Store an uploaded image and queue its thumbnail.
+     * @param content the image bytes
+     * @param contentType the content type sent with the upload
+     * @return the ID of the stored image
+     * @throws IllegalArgumentException if the content type is not supported or the content is not a readable image
+     */
+    public String store(InputStream content, String contentType) throws IllegalArgumentException {
+        String extension = contentType == null ? null : EXTENSIONS.get(contentType.toLowerCase());
+        if (extension == null) {
+            throw new IllegalArgumentException("Images must be one of " + EXTENSIONS.keySet());
+        }
+        Path upload = null;
+        try {
+            Files.createDirectories(originals);
+            upload = Files.createTempFile(originals, "upload-", ".tmp");
+
+            // Hash while writing, so the content is read only once
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (DigestInputStream in = new DigestInputStream(content, digest)) {
+                Files.copy(in, upload, StandardCopyOption.REPLACE_EXISTING);
+            }
+            checkImage(upload);
+
+            String id = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+            Path target = originals.resolve(id);
+            if (Files.exists(target)) {
+                Files.delete(upload);
+            } else {
+                Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            upload = null;
+
+            try {
+                thumbnail(id);
+            } catch (RejectedExecutionException e) {
+                log.debug("Image executor busy, thumbnail of {} will be made on first request", id);
+            }
+            return id;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (upload != null) {
+                try {
+                    Files.deleteIfExists(upload);
+                } catch (IOException e) {
+                    log.warn("Could not delete upload {}: {}", upload, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Get an image, or its thumbnail.
+     * A missing thumbnail is generated and waited for; if that fails the original is returned.
+     * @param id the ID of the image
+     * @param thumbnail true for the thumbnail
+     * @return the image file
+     * @throws IllegalArgumentException if the ID is malformed or there is no such image
+     */
+    public Resource load(String id, boolean thumbnail) throws IllegalArgumentException {
+        if (!IMAGE_ID.matcher(id).matches()) {
+            throw new NotFoundException("Image not found");
+        }
+        Path original = originals.resolve(id);
+        if (!Files.exists(original)) {
+            throw new NotFoundException("Image not found");
+        }
+        if (thumbnail) {
+            Path small = thumbnails.resolve(id);
+            if (Files.exists(small)) {
+                return new FileSystemResource(small);
+            }
+            try {
+                return new FileSystemResource(thumbnail(id).get(10, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                log.warn("Could not make the thumbnail of {}: {}", id, e.getMessage());
+            }
+        }
+        return new FileSystemResource(original);
+    }
+
+    /**
+     * @param id the ID of the image
+     * @return true if the thumbnail of the image has been generated
+     */
+    public boolean hasThumbnail(String id) {
+        return IMAGE_ID.matcher(id).matches() && Files.exists(thumbnails.resolve(id));
+    }
+
+    /**
+     * Generate the thumbnail of an image on the image executor, unless it is already being generated.
+     */
+    private CompletableFuture<Path> thumbnail(String id) {
+        return pending.computeIfAbsent(id, key -> CompletableFuture
+            .supplyAsync(() -> generateThumbnail(key), thumbnailExecutor)
+            .whenComplete((path, error) -> pending.remove(key)));
+    }
+
+    private Path generateThumbnail(String id) {
+        Path target = thumbnails.resolve(id);
+        try {
+            Files.createDirectories(thumbnails);
+            BufferedImage image = ImageIO.read(originals.resolve(id).toFile());
+            if (image == null) {
+                throw new IOException("Unreadable image " + id);
+            }
+            int width = Math.min(thumbnailWidth, image.getWidth());
+            int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+            boolean jpeg = id.endsWith(".jpg");
+
+            // JPEG has no alpha channel
+            BufferedImage small = new BufferedImage(width, height, jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = small.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(image, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            Path temp = Files.createTempFile(thumbnails, "thumb-", ".tmp");
+            try {
+                ImageIO.write(small, jpeg ? "jpg" : id.substring(id.length() - 3), temp.toFile());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Check that a file is an image of a supported size by reading only its header.
+     * @throws IllegalArgumentException if it is not
+     */
+    private static void checkImage(Path file) throws IOException, IllegalArgumentException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("The file is not a readable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    throw new IllegalArgumentException("Images can have at most " + MAX_PIXELS + " pixels");
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
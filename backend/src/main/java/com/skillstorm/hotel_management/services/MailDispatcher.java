@@ -0,0 +1,245 @@
+package com.skillstorm.hotel_management.services;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotel_management.models.OutboxMessage;
+import com.skillstorm.hotel_management.models.OutboxMessage.Status;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.repositories.OutboxRepository;
+import com.skillstorm.hotel_management.repositories.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Sends the mail queued in the outbox, in the background.
+ * Due messages are claimed in batches; each batch loads its users in one query and is sent over a single SMTP connection.
+ * Preferences are read when the message is sent, so a user who turns notifications off stops getting them at once.
+ * A message that fails is retried with exponential backoff until hotel.mail.max-attempts, then left as FAILED.
+ * Delivery is at least once: a dispatcher that dies after sending but before recording it sends the batch again once its claim runs out.
+ * Nothing is sent until spring.mail.host is set; messages wait in the outbox until then.
+ */
+@Service
+public class MailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private final OutboxRepository outboxRepository;
+    private final UserRepository userRepository;
+    private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+    private final String from;
+    private final String verifyUrl;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+
+    /**
+     * Identifies this instance in the claims it makes.
+     */
+    private final String dispatcherId = UUID.randomUUID().toString();
+
+    public MailDispatcher(OutboxRepository outboxRepository, UserRepository userRepository,
+            ObjectProvider<JavaMailSender> mailSender, MeterRegistry meterRegistry,
+            @Value("${hotel.mail.from:no-reply@hotel.local}") String from,
+            @Value("${hotel.mail.verify-url:http://localhost:8080/users/verify?token=}") String verifyUrl,
+            @Value("${hotel.mail.batch-size:50}") int batchSize,
+            @Value("${hotel.mail.max-attempts:8}") int maxAttempts,
+            @Value("${hotel.mail.lease:5m}") Duration lease,
+            @Value("${hotel.mail.backoff:30s}") Duration backoff,
+            @Value("${hotel.mail.max-backoff:1h}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.userRepository = userRepository;
+        this.mailSender = mailSender.getIfAvailable();
+        this.meterRegistry = meterRegistry;
+        this.from = from;
+        this.verifyUrl = verifyUrl;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (mailSender == null) {
+            log.info("spring.mail.host is not set, outbox mail will wait until it is");
+        }
+    }
+
+    /**
+     * Send every due message, a batch at a time.
+     */
+    @Scheduled(fixedDelayString = "${hotel.mail.poll-interval:5s}", initialDelayString = "${hotel.mail.poll-interval:5s}")
+    public void dispatch() {
+        if (mailSender == null) {
+            return;
+        }
+        try {
+            List<OutboxMessage> batch;
+            do {
+                batch = outboxRepository.claimBatch(dispatcherId + ":" + UUID.randomUUID(), batchSize, lease);
+                if (batch.isEmpty()) {
+                    return;
+                }
+                List<String> userIds = batch.stream().map(OutboxMessage::getUserId).distinct().toList();
+                Map<String, User> users = userRepository.findAllById(userIds).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+                send(batch, users);
+                outboxRepository.saveResults(batch);
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Could not dispatch the outbox: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Send a claimed batch and record the outcome on each message.
+     * @param batch the claimed messages
+     * @param users the users the messages are for, keyed by ID
+     */
+    void send(List<OutboxMessage> batch, Map<String, User> users) {
+        Date now = new Date();
+        // In claim order; MimeMessage does not override equals, so messages are told apart by identity
+        Map<MimeMessage, OutboxMessage> outgoing = new LinkedHashMap<>();
+        for (OutboxMessage message : batch) {
+            User user = users.get(message.getUserId());
+            String skipped = skipReason(message, user);
+            if (skipped != null) {
+                finish(message, Status.SKIPPED, skipped, now);
+                continue;
+            }
+            try {
+                outgoing.put(compose(message, user), message);
+            } catch (MessagingException | RuntimeException e) {
+                // Composing fails the same way every time, so it is not retried
+                finish(message, Status.FAILED, e.getMessage(), null);
+            }
+        }
+        if (outgoing.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        try {
+            // JavaMailSender opens one connection for the whole array
+            mailSender.send(outgoing.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            failures.putAll(e.getFailedMessages());
+            if (failures.isEmpty()) {
+                outgoing.keySet().forEach(mime -> failures.put(mime, e));
+            }
+        } catch (MailException e) {
+            outgoing.keySet().forEach(mime -> failures.put(mime, e));
+        }
+
+        outgoing.forEach((mime, message) -> {
+            Exception error = failures.get(mime);
+            if (error == null) {
+                finish(message, Status.SENT, null, now);
+            } else {
+                retry(message, error.getMessage(), now);
+            }
+        });
+    }
+
+    /**
+     * @return why a message should not be sent, or null if it should
+     */
+    private static String skipReason(OutboxMessage message, User user) {
+        if (user == null) {
+            return "User no longer exists";
+        }
+        if (!message.getType().getCategory().allows(user.getPreferences())) {
+            return "User turned off " + message.getType().getCategory().getPreference();
+        }
+        if (message.getType() == OutboxMessage.Type.VERIFY_EMAIL && user.isEmailVerified()) {
+            return "Email is already verified";
+        }
+        return null;
+    }
+
+    private MimeMessage compose(OutboxMessage message, User user) throws MessagingException {
+        Map<String, Object> params = message.getParams() == null ? Map.of() : message.getParams();
+        String greeting = "Hi " + (user.getFirstName() == null ? "there" : user.getFirstName()) + ",\n\n";
+        String subject;
+        String text;
+        switch (message.getType()) {
+            case VERIFY_EMAIL -> {
+                subject = "Confirm your email address";
+                text = greeting + "Please confirm your email address by opening this link:\n" + verifyUrl + params.get("token") + "\n";
+            }
+            case RESERVATION_CONFIRMED -> {
+                subject = "Your reservation is confirmed";
+                text = greeting + "Your stay in room " + params.get("roomNumber") + " from " + params.get("checkIn")
+                    + " to " + params.get("checkOut") + " is confirmed.\nTotal: " + params.get("totalPrice")
+                    + "\nReservation: " + params.get("reservationId") + "\n";
+            }
+            case RESERVATION_CANCELLED -> {
+                subject = "Your reservation was cancelled";
+                text = greeting + "Your stay from " + params.get("checkIn") + " to " + params.get("checkOut")
+                    + " was cancelled.\nReservation: " + params.get("reservationId") + "\n";
+            }
+            default -> throw new IllegalStateException("No template for " + message.getType());
+        }
+
+        MimeMessage mime = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mime, false, "UTF-8");
+        helper.setFrom(from);
+        helper.setTo(user.getEmail());
+        helper.setSubject(subject);
+        helper.setText(text);
+        return mime;
+    }
+
+    private void finish(OutboxMessage message, Status status, String reason, Date doneAt) {
+        message.setStatus(status);
+        message.setLastError(reason);
+        message.setDoneAt(doneAt);
+        meterRegistry.counter("hotel.mail.messages", "type", message.getType().name(), "outcome", status.name().toLowerCase()).increment();
+    }
+
+    /**
+     * Schedule another attempt after an exponential backoff with jitter, or give up after hotel.mail.max-attempts.
+     */
+    private void retry(OutboxMessage message, String error, Date now) {
+        if (message.getAttempts() >= maxAttempts) {
+            log.warn("Giving up on {} mail {} after {} attempts: {}", message.getType(), message.getId(), message.getAttempts(), error);
+            finish(message, Status.FAILED, error, null);
+            return;
+        }
+        long delay = Math.min(maxBackoff.toMillis(), backoff.toMillis() << Math.max(0, Math.min(message.getAttempts() - 1, 20)));
+        // Jitter spreads out the retries of a batch that failed together
+        delay += ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+        message.setStatus(Status.PENDING);
+        message.setLastError(error);
+        message.setNextAttemptAt(new Date(now.getTime() + delay));
+        meterRegistry.counter("hotel.mail.messages", "type", message.getType().name(), "outcome", "retried").increment();
+    }
+}
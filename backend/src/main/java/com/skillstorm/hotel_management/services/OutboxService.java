@@ -0,0 +1,70 @@
+package com.skillstorm.hotel_management.services;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skillstorm.hotel_management.models.OutboxMessage;
+import com.skillstorm.hotel_management.repositories.OutboxRepository;
+
+/**
+ * Writes outbox messages together with the change that causes them.
+ * With hotel.mongo.transactions, which needs a replica set, the change and its messages commit or roll back together.
+ * Without it the messages are inserted right after the change; if that insert fails the change is kept and the mail is lost,
+ * which is logged, rather than failing a request whose change already happened.
+ */
+@Service
+public class OutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxService.class);
+
+    private final OutboxRepository outboxRepository;
+
+    /**
+     * Runs the change and its messages in one Mongo transaction, or null when transactions are off.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxService(OutboxRepository outboxRepository, ObjectProvider<MongoTransactionManager> transactionManager) {
+        this.outboxRepository = outboxRepository;
+        MongoTransactionManager manager = transactionManager.getIfAvailable();
+        this.transactionTemplate = manager == null ? null : new TransactionTemplate(manager);
+    }
+
+    /**
+     * Run a write and store the messages it produces.
+     * @param write the change, e.g. inserting a user
+     * @param messages the messages to send for the result of the change, possibly none
+     * @return the result of the change
+     */
+    public <T> T writeWith(Supplier<T> write, Function<T, List<OutboxMessage>> messages) {
+        if (transactionTemplate != null) {
+            return transactionTemplate.execute(status -> {
+                T result = write.get();
+                List<OutboxMessage> produced = messages.apply(result);
+                if (!produced.isEmpty()) {
+                    outboxRepository.insert(produced);
+                }
+                return result;
+            });
+        }
+        T result = write.get();
+        List<OutboxMessage> produced = messages.apply(result);
+        if (produced.isEmpty()) {
+            return result;
+        }
+        try {
+            outboxRepository.insert(produced);
+        } catch (RuntimeException e) {
+            produced.forEach(message -> log.error("Could not queue {} mail for user {}: {}", message.getType(), message.getUserId(), e.getMessage()));
+        }
+        return result;
+    }
+}
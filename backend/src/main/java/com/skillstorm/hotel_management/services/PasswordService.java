@@ -0,0 +1,124 @@
+package com.skillstorm.hotel_management.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotel_management.config.CacheConfig;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.repositories.UserRepository;
+
+/**
+ * Hashes and checks passwords on a bounded pool of its own.
+ * A hash is tuned to take a few hundred milliseconds of CPU, so a burst of logins or sign ups would otherwise
+ * occupy every request thread; here at most hotel.security.password.threads run at once, a few more wait,
+ * and the rest are rejected straight away so the caller can answer 503.
+ * The pool is not a bean, since an Executor bean would replace Spring Boot's applicationTaskExecutor.
+ */
+@Service
+public class PasswordService {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService hashExecutor;
+
+    /**
+     * Cache of users by email, evicted when a password is rehashed so it does not keep the old hash.
+     */
+    private final Cache usersByEmailCache;
+
+    /**
+     * Checked against when the email is unknown, so that a failed login takes as long whether or not the user exists.
+     */
+    private final String unknownUserHash;
+
+    public PasswordService(UserRepository userRepository, PasswordEncoder passwordEncoder, CacheManager cacheManager,
+            @Value("${hotel.security.password.threads:0}") int threads,
+            @Value("${hotel.security.password.queue-capacity:64}") int queueCapacity) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.usersByEmailCache = cacheManager.getCache(CacheConfig.USERS_BY_EMAIL);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            task -> {
+                Thread thread = new Thread(task, "password-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.unknownUserHash = passwordEncoder.encode("unknown-user");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    /**
+     * Hash a new password, waiting for a hashing thread.
+     * @param rawPassword the password as typed
+     * @return the encoded password, or null if there is none
+     * @throws RejectedExecutionException if too many passwords are being hashed
+     */
+    public String hash(String rawPassword) throws RejectedExecutionException {
+        if (rawPassword == null) {
+            return null;
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), hashExecutor).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Check a user's password without holding the calling thread.
+     * A password stored in plain text or with a weaker hash than the current one is rehashed once it is verified.
+     * @param email the email of the user
+     * @param rawPassword the password as typed
+     * @return the user once verified; completes with an IllegalArgumentException if the email or password is wrong,
+     *         or a RejectedExecutionException if too many logins are waiting
+     */
+    public CompletableFuture<User> authenticate(String email, String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> verify(email, rawPassword), hashExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private User verify(String email, String rawPassword) {
+        User user = email == null ? null : userRepository.findByEmail(email).orElse(null);
+        String stored = user == null ? null : user.getPassword();
+        if (stored == null || rawPassword == null) {
+            passwordEncoder.matches(rawPassword == null ? "" : rawPassword, unknownUserHash);
+            throw new IllegalArgumentException("Invalid email or password");
+        }
+        if (!passwordEncoder.matches(rawPassword, stored)) {
+            throw new IllegalArgumentException("Invalid email or password");
+        }
+        if (passwordEncoder.upgradeEncoding(stored)) {
+            String upgraded = passwordEncoder.encode(rawPassword);
+            // Conditional on the old hash, so a password changed in the meantime is not overwritten
+            if (userRepository.updatePassword(user.getId(), stored, upgraded)) {
+                user.setPassword(upgraded);
+                usersByEmailCache.evict(user.getEmail());
+            }
+        }
+        return user;
+    }
+}
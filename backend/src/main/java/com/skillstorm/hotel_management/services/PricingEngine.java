@@ -0,0 +1,194 @@
+package com.skillstorm.hotel_management.services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotel_management.config.PricingProperties;
+import com.skillstorm.hotel_management.dtos.Reservation.QuoteDto;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomType;
+
+/**
+ * Prices stays from the rules in hotel.pricing.
+ * The rules are compiled once per room type into a rate table holding the multiplier of every night of the horizon
+ * at every occupancy level, so quoting a night is one occupancy read and one array lookup.
+ * Occupancy is counted by the AvailabilityIndex as nights are booked and released; since the tables already cover
+ * every occupancy level, a booking moves the lookup to another cell instead of recompiling anything.
+ * Tables are recompiled lazily when the day changes.
+ */
+@Service
+public class PricingEngine {
+
+    private final AvailabilityIndex availabilityIndex;
+    private final int horizonDays;
+    private final int occupancyBuckets;
+    private final double minMultiplier;
+    private final double maxMultiplier;
+    private final List<CompiledRule> rules;
+
+    /**
+     * Length of stay factors keyed by the minimum number of nights they apply from.
+     */
+    private final NavigableMap<Integer, Double> lengthOfStay;
+
+    /**
+     * The rate table of every room type, indexed by ordinal, with the table of rooms without a type last.
+     */
+    private final AtomicReferenceArray<RateTable> tables = new AtomicReferenceArray<>(RoomType.values().length + 1);
+
+    public PricingEngine(AvailabilityIndex availabilityIndex, PricingProperties properties,
+            @Value("${hotel.availability.horizon-days:365}") int horizonDays) {
+        this.availabilityIndex = availabilityIndex;
+        this.horizonDays = horizonDays;
+        this.occupancyBuckets = properties.occupancyBuckets();
+        this.minMultiplier = properties.minMultiplier();
+        this.maxMultiplier = properties.maxMultiplier();
+        this.rules = properties.rules().stream().map(CompiledRule::of).toList();
+        this.lengthOfStay = new TreeMap<>(properties.lengthOfStay());
+    }
+
+    /**
+     * Price a stay in a room.
+     * @param room the room to price
+     * @param checkIn the first night of the stay
+     * @param checkOut the day the guest leaves
+     * @return the rate of each night and the total
+     * @throws IllegalArgumentException if the stay is outside the booking horizon
+     */
+    public QuoteDto quote(Room room, LocalDate checkIn, LocalDate checkOut) throws IllegalArgumentException {
+        RateTable table = tableFor(room.getType());
+        long from = checkIn.toEpochDay();
+        long to = checkOut.toEpochDay();
+        if (from < table.baseDay() || to > table.baseDay() + horizonDays || from >= to) {
+            throw new IllegalArgumentException("Rates are only available from " + LocalDate.ofEpochDay(table.baseDay())
+                + " until " + LocalDate.ofEpochDay(table.baseDay() + horizonDays));
+        }
+
+        List<Double> nightlyRates = new ArrayList<>((int) (to - from));
+        double total = 0;
+        for (long day = from; day < to; day++) {
+            double rate = room.getPricePerNight() * table.multiplier(day, availabilityIndex.getOccupancy(room.getType(), day));
+            nightlyRates.add(roundToCents(rate));
+            total += rate;
+        }
+        double factor = lengthOfStayFactor(nightlyRates.size());
+        return new QuoteDto(room.getId(), room.getRoomNumber(), room.getType(), checkIn, checkOut,
+            nightlyRates, factor, roundToCents(total * factor));
+    }
+
+    /**
+     * @return the factor applied to the total of a stay of this many nights
+     */
+    public double lengthOfStayFactor(int nights) {
+        Map.Entry<Integer, Double> entry = lengthOfStay.floorEntry(nights);
+        return entry == null ? 1.0 : entry.getValue();
+    }
+
+    /**
+     * Get the rate table of a room type, compiling it if there is none yet or it was compiled before today.
+     */
+    private RateTable tableFor(RoomType type) {
+        int index = type == null ? tables.length() - 1 : type.ordinal();
+        long today = LocalDate.now().toEpochDay();
+        RateTable table = tables.get(index);
+        if (table == null || table.baseDay() != today) {
+            table = compile(type, today);
+            tables.set(index, table);
+        }
+        return table;
+    }
+
+    /**
+     * Evaluate every rule for every night of the horizon and every occupancy level of a room type.
+     */
+    RateTable compile(RoomType type, long baseDay) {
+        int width = occupancyBuckets + 1;
+        double[] multipliers = new double[horizonDays * width];
+        for (int offset = 0; offset < horizonDays; offset++) {
+            LocalDate date = LocalDate.ofEpochDay(baseDay + offset);
+            // Only the rules that match the date need their occupancy bounds checked per bucket
+            List<CompiledRule> matching = rules.stream().filter(rule -> rule.matches(type, date)).toList();
+            for (int bucket = 0; bucket < width; bucket++) {
+                double occupancy = (double) bucket / occupancyBuckets;
+                double multiplier = 1.0;
+                for (CompiledRule rule : matching) {
+                    if (rule.matchesOccupancy(occupancy)) {
+                        multiplier *= rule.multiplier();
+                    }
+                }
+                multipliers[offset * width + bucket] = Math.max(minMultiplier, Math.min(maxMultiplier, multiplier));
+            }
+        }
+        return new RateTable(baseDay, occupancyBuckets, multipliers);
+    }
+
+    private static double roundToCents(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    /**
+     * The nightly multipliers of one room type. Row i is night baseDay + i, column b is occupancy from b / buckets.
+     */
+    record RateTable(long baseDay, int buckets, double[] multipliers) {
+
+        double multiplier(long day, double occupancy) {
+            int bucket = (int) Math.min(buckets, Math.max(0, occupancy * buckets));
+            return multipliers[(int) (day - baseDay) * (buckets + 1) + bucket];
+        }
+    }
+
+    /**
+     * A pricing rule with its season parsed.
+     */
+    private record CompiledRule(Set<RoomType> types, Set<DayOfWeek> days, MonthDay from, MonthDay to,
+            double minOccupancy, double maxOccupancy, double multiplier) {
+
+        static CompiledRule of(PricingProperties.Rule rule) {
+            if ((rule.from() == null) != (rule.to() == null)) {
+                throw new IllegalArgumentException("Pricing rule " + rule.name() + " needs both from and to");
+            }
+            if (rule.multiplier() <= 0) {
+                throw new IllegalArgumentException("Pricing rule " + rule.name() + " needs a positive multiplier");
+            }
+            return new CompiledRule(
+                rule.types() == null ? Set.of() : rule.types(),
+                rule.days() == null ? Set.of() : rule.days(),
+                rule.from() == null ? null : MonthDay.parse("--" + rule.from()),
+                rule.to() == null ? null : MonthDay.parse("--" + rule.to()),
+                rule.minOccupancy() == null ? 0 : rule.minOccupancy(),
+                rule.maxOccupancy() == null ? Double.MAX_VALUE : rule.maxOccupancy(),
+                rule.multiplier());
+        }
+
+        boolean matches(RoomType type, LocalDate date) {
+            if (!types.isEmpty() && (type == null || !types.contains(type))) {
+                return false;
+            }
+            if (!days.isEmpty() && !days.contains(date.getDayOfWeek())) {
+                return false;
+            }
+            if (from == null) {
+                return true;
+            }
+            MonthDay day = MonthDay.from(date);
+            return from.isAfter(to)
+                ? !day.isBefore(from) || !day.isAfter(to)
+                : !day.isBefore(from) && !day.isAfter(to);
+        }
+
+        boolean matchesOccupancy(double occupancy) {
+            return occupancy >= minOccupancy && occupancy < maxOccupancy;
+        }
+    }
+}
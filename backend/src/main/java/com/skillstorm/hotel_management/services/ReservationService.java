@@ -0,0 +1,358 @@
+package com.skillstorm.hotel_management.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotel_management.dtos.Reservation.QuoteDto;
+import com.skillstorm.hotel_management.dtos.Reservation.ReservationDto;
+import com.skillstorm.hotel_management.exceptions.ConflictException;
+import com.skillstorm.hotel_management.exceptions.NotFoundException;
+import com.skillstorm.hotel_management.exceptions.UnavailableException;
+import com.skillstorm.hotel_management.models.OutboxMessage;
+import com.skillstorm.hotel_management.models.Reservation;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.repositories.ReservationRepository;
+import com.skillstorm.hotel_management.repositories.RoomNightsRepository;
+import com.skillstorm.hotel_management.repositories.RoomRepository;
+
+import io.micrometer.observation.annotation.Observed;
+
+
+/**
+* Service class for booking and cancelling reservations.
+*/
+@Service
+@Observed(name = "hotel.service")
+public class ReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationService.class);
+
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String CANCELLING = "CANCELLING";
+    public static final String CANCELLED = "CANCELLED";
+
+    /**
+    * The repository for accessing reservation data.
+    */
+    private final ReservationRepository reservationRepository;
+
+    /**
+    * The repository for accessing room data.
+    */
+    private final RoomRepository roomRepository;
+
+    /**
+    * The repository holding the booked nights of each room. This is where bookings are claimed.
+    */
+    private final RoomNightsRepository roomNightsRepository;
+
+    /**
+    * The in-memory calendar of every room.
+    */
+    private final AvailabilityIndex availabilityIndex;
+
+    /**
+    * The engine that prices stays.
+    */
+    private final PricingEngine pricingEngine;
+
+    /**
+    * Queues the confirmation and cancellation mails together with the reservation.
+    */
+    private final OutboxService outboxService;
+
+    /**
+    * Keeps the occupancy and revenue rollups up to date as stays are booked and cancelled.
+    */
+    private final AnalyticsService analyticsService;
+
+    /**
+    * Tells the waitlist about freed nights without the two services depending on each other.
+    */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+    * How many times a claim is tried when the room has no calendar yet or Mongo reports a transient error.
+    */
+    private final int maxClaimAttempts;
+
+    /**
+    * How long a reservation may stay CANCELLING before the sweep takes the cancellation for interrupted and finishes it.
+    */
+    private final Duration cancelTimeout;
+
+    public ReservationService(ReservationRepository reservationRepository, RoomRepository roomRepository,
+            RoomNightsRepository roomNightsRepository, AvailabilityIndex availabilityIndex, PricingEngine pricingEngine,
+            OutboxService outboxService, AnalyticsService analyticsService, ApplicationEventPublisher eventPublisher,
+            @Value("${hotel.booking.max-claim-attempts:3}") int maxClaimAttempts,
+            @Value("${hotel.booking.cancel-timeout:1m}") Duration cancelTimeout) {
+        this.reservationRepository = reservationRepository;
+        this.roomRepository = roomRepository;
+        this.roomNightsRepository = roomNightsRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.pricingEngine = pricingEngine;
+        this.outboxService = outboxService;
+        this.analyticsService = analyticsService;
+        this.eventPublisher = eventPublisher;
+        this.maxClaimAttempts = maxClaimAttempts;
+        this.cancelTimeout = cancelTimeout;
+    }
+
+    /**
+    * Service method to get a reservation by its ID
+    * @param id the ID of the reservation
+    * @return the reservation with the specified ID
+    * @throws NotFoundException if the reservation is not found
+    */
+    public Reservation getReservationById(String id) throws NotFoundException {
+        return reservationRepository.findById(id).orElseThrow(() -> new NotFoundException("Reservation not found"));
+    }
+
+    /**
+    * Service method to get the reservations of a user
+    * @param userId the ID of the user
+    * @return the reservations made by the user
+    */
+    public List<Reservation> getReservationsByUser(String userId) {
+        return reservationRepository.findByUserId(userId);
+    }
+
+    /**
+    * Service method to get every room that is free for a date range
+    * @param checkIn the first night of the stay
+    * @param checkOut the day the guest leaves
+    * @return the rooms free every night of the stay
+    * @throws IllegalArgumentException if the dates are invalid
+    */
+    public List<Room> getAvailableRooms(LocalDate checkIn, LocalDate checkOut) throws IllegalArgumentException {
+        validateDates(checkIn, checkOut);
+        return roomRepository.findAllById(availabilityIndex.findAvailableRoomIds(checkIn, checkOut));
+    }
+
+    /**
+    * Service method to price a stay in every room that is free for a date range
+    * @param checkIn the first night of the stay
+    * @param checkOut the day the guest leaves
+    * @return a quote for each room free every night of the stay
+    * @throws IllegalArgumentException if the dates are invalid
+    */
+    public List<QuoteDto> getQuotes(LocalDate checkIn, LocalDate checkOut) throws IllegalArgumentException {
+        return getAvailableRooms(checkIn, checkOut).stream()
+            .map(room -> pricingEngine.quote(room, checkIn, checkOut))
+            .toList();
+    }
+
+    /**
+    * Service method to book a room for a date range and queue the confirmation mail
+    * @param reservationDto the data transfer object containing the booking details
+    * @return the new reservation
+    * @throws IllegalArgumentException if the dates are invalid, the room is not found or it is already booked
+    */
+    public Reservation createReservation(ReservationDto reservationDto) throws IllegalArgumentException {
+        validateDates(reservationDto.checkIn(), reservationDto.checkOut());
+        Room room = roomRepository.findById(reservationDto.roomId()).orElseThrow(() -> new NotFoundException("Room not found"));
+        if (reservationDto.guests() > room.getMaxCapacity()) {
+            throw new IllegalArgumentException("Room cannot hold " + reservationDto.guests() + " guests");
+        }
+        // Price the stay at the occupancy the guest saw, before this booking raises it
+        QuoteDto quote = pricingEngine.quote(room, reservationDto.checkIn(), reservationDto.checkOut());
+
+        // Reject from the in-memory calendar first, which also stops concurrent bookings on this instance from racing
+        if (!availabilityIndex.tryBook(room.getId(), reservationDto.checkIn(), reservationDto.checkOut())) {
+            throw new ConflictException("Room is not available for the selected dates");
+        }
+
+        // Then claim the nights in Mongo, which decides between instances
+        List<Long> nights = nightsOf(reservationDto.checkIn(), reservationDto.checkOut());
+        boolean claimed;
+        try {
+            claimed = claimNights(room.getId(), nights);
+        } catch (RuntimeException e) {
+            availabilityIndex.release(room.getId(), reservationDto.checkIn(), reservationDto.checkOut());
+            throw e;
+        }
+        if (!claimed) {
+            // Another instance booked some of these nights: give back the ones this request took, then add what Mongo
+            // holds, without touching nights other requests on this instance have taken but not claimed yet
+            availabilityIndex.release(room.getId(), reservationDto.checkIn(), reservationDto.checkOut());
+            roomNightsRepository.findById(room.getId()).ifPresent(booked -> availabilityIndex.merge(room.getId(), booked.getNights()));
+            throw new ConflictException("Room is not available for the selected dates");
+        }
+
+        Reservation reservation = new Reservation(
+            room.getId(),
+            reservationDto.userId(),
+            reservationDto.checkIn(),
+            reservationDto.checkOut(),
+            reservationDto.guests(),
+            quote.totalPrice(),
+            CONFIRMED
+        );
+        // Kept so a cancellation takes the nights out of the rollups they were added to, even if the room changes since
+        reservation.setRoomType(room.getType());
+        reservation.setFloor(room.getFloor());
+
+        Reservation saved;
+        try {
+            saved = outboxService.writeWith(() -> reservationRepository.save(reservation),
+                stored -> List.of(mailAbout(OutboxMessage.Type.RESERVATION_CONFIRMED, stored, room.getRoomNumber())));
+        } catch (RuntimeException e) {
+            // Give the nights back if the reservation could not be stored
+            roomNightsRepository.releaseNights(room.getId(), nights);
+            availabilityIndex.release(room.getId(), reservationDto.checkIn(), reservationDto.checkOut());
+            throw e;
+        }
+        analyticsService.recordBooked(saved, room);
+        return saved;
+    }
+
+    /**
+    * Service method to cancel a reservation, free its nights, queue the cancellation mail and offer the nights to the waitlist
+    * @param id the ID of the reservation to cancel
+    * @return the cancelled reservation
+    * @throws IllegalArgumentException if the reservation is not found or already cancelled
+    */
+    public Reservation cancelReservation(String id) throws IllegalArgumentException {
+        // Only one of several concurrent cancellations moves the reservation out of CONFIRMED and frees its nights
+        Reservation cancelling = reservationRepository.updateStatus(id, CONFIRMED, CANCELLING).orElse(null);
+        if (cancelling == null) {
+            getReservationById(id);
+            throw new ConflictException("Reservation is already cancelled");
+        }
+        return finishCancellation(cancelling, nightsOf(cancelling.getCheckIn(), cancelling.getCheckOut()));
+    }
+
+    /**
+    * Finish the cancellations interrupted between freeing the nights and recording the reservation as cancelled.
+    * Nights a confirmed reservation of the room has booked since are kept, in case they were freed before the interruption.
+    */
+    @Scheduled(fixedDelayString = "${hotel.booking.cancel-timeout:1m}", initialDelayString = "${hotel.booking.cancel-timeout:1m}")
+    public void finishInterruptedCancellations() {
+        Date before = new Date(System.currentTimeMillis() - cancelTimeout.toMillis());
+        for (Reservation cancelling : reservationRepository.findByStatusAndUpdatedAtBefore(CANCELLING, before)) {
+            try {
+                Set<Long> heldByOthers = new HashSet<>();
+                reservationRepository.findByRoomId(cancelling.getRoomId()).stream()
+                    .filter(other -> CONFIRMED.equals(other.getStatus()))
+                    .forEach(other -> heldByOthers.addAll(nightsOf(other.getCheckIn(), other.getCheckOut())));
+                List<Long> nights = nightsOf(cancelling.getCheckIn(), cancelling.getCheckOut()).stream()
+                    .filter(night -> !heldByOthers.contains(night))
+                    .toList();
+                finishCancellation(cancelling, nights);
+                log.info("Finished the interrupted cancellation of reservation {}", cancelling.getId());
+            } catch (RuntimeException e) {
+                log.warn("Could not finish the cancellation of reservation {}: {}", cancelling.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+    * Free the nights of a reservation being cancelled, then record it as cancelled and queue its mail.
+    * The nights go first, so a failure in between leaves the reservation CANCELLING for the sweep to finish,
+    * instead of CANCELLED with its nights claimed for good.
+    * @return the cancelled reservation
+    */
+    private Reservation finishCancellation(Reservation cancelling, List<Long> nights) {
+        roomNightsRepository.releaseNights(cancelling.getRoomId(), nights);
+        nights.forEach(night -> availabilityIndex.release(cancelling.getRoomId(), LocalDate.ofEpochDay(night), LocalDate.ofEpochDay(night + 1)));
+        Reservation cancelled = outboxService.writeWith(() -> reservationRepository.updateStatus(cancelling.getId(), CANCELLING, CANCELLED).orElse(null),
+            changed -> changed == null ? List.of() : List.of(mailAbout(OutboxMessage.Type.RESERVATION_CANCELLED, changed, null)));
+        if (cancelled == null) {
+            // The sweep finished it in the meantime
+            return getReservationById(cancelling.getId());
+        }
+        analyticsService.recordCancelled(cancelled);
+        eventPublisher.publishEvent(new RoomReleasedEvent(cancelled.getRoomId(), cancelled.getCheckIn(), cancelled.getCheckOut()));
+        return cancelled;
+    }
+
+    /**
+    * Drop past nights from the stored room calendars so they stay small. Runs nightly.
+    */
+    @Scheduled(cron = "${hotel.booking.prune-cron:0 15 0 * * *}")
+    public void pruneBookedNights() {
+        roomNightsRepository.pruneNightsBefore(LocalDate.now().toEpochDay());
+    }
+
+    /**
+    * Claim nights in Mongo with a bounded number of attempts
+    * @return true if every night was free and is now booked, false if any is taken
+    */
+    private boolean claimNights(String roomId, List<Long> nights) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (roomNightsRepository.claimNights(roomId, nights)) {
+                    return true;
+                }
+                // The claim only misses when a night is taken or the room has no stored calendar yet
+                if (attempt >= maxClaimAttempts || roomNightsRepository.existsById(roomId)) {
+                    return false;
+                }
+                roomNightsRepository.createIfMissing(roomId);
+            } catch (TransientDataAccessException e) {
+                if (attempt >= maxClaimAttempts) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+    * @return an outbox message about a reservation, with the details its template shows
+    */
+    private static OutboxMessage mailAbout(OutboxMessage.Type type, Reservation reservation, String roomNumber) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("reservationId", reservation.getId());
+        params.put("checkIn", reservation.getCheckIn().toString());
+        params.put("checkOut", reservation.getCheckOut().toString());
+        params.put("totalPrice", reservation.getTotalPrice());
+        if (roomNumber != null) {
+            params.put("roomNumber", roomNumber);
+        }
+        return new OutboxMessage(type, reservation.getUserId(), params);
+    }
+
+    /**
+    * @return the nights from checkIn up to, but not including, checkOut as epoch days
+    */
+    private static List<Long> nightsOf(LocalDate checkIn, LocalDate checkOut) {
+        return LongStream.range(checkIn.toEpochDay(), checkOut.toEpochDay()).boxed().toList();
+    }
+
+    /**
+    * Check that a stay starts today or later, lasts at least one night and ends inside the booking horizon
+    * @throws IllegalArgumentException if the dates are invalid
+    */
+    private void validateDates(LocalDate checkIn, LocalDate checkOut) throws IllegalArgumentException {
+        if (checkIn == null || checkOut == null) {
+            throw new IllegalArgumentException("Check-in and check-out dates are required");
+        }
+        if (!checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out must be after check-in");
+        }
+        if (checkIn.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Check-in cannot be in the past");
+        }
+        if (checkOut.isAfter(availabilityIndex.getHorizonEnd())) {
+            throw new IllegalArgumentException("Reservations can only be made until " + availabilityIndex.getHorizonEnd());
+        }
+        if (!availabilityIndex.isReady()) {
+            throw new UnavailableException("Room availability is still loading");
+        }
+    }
+}
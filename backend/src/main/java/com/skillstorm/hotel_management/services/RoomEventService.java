@@ -0,0 +1,181 @@
+package com.skillstorm.hotel_management.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import com.skillstorm.hotel_management.dtos.Room.RoomChangeEvent;
+import com.skillstorm.hotel_management.models.BedType;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomStatus;
+import com.skillstorm.hotel_management.models.RoomType;
+
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ * Service that pushes room changes to subscribed clients.
+ * One Mongo change stream on the rooms collection is shared by every subscriber; it is opened by the first
+ * subscriber and closed when the last one leaves. Change streams need a replica set, a single-node one is enough.
+ */
+@Service
+public class RoomEventService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomEventService.class);
+
+    private static final List<String> OPERATIONS = List.of("insert", "update", "replace", "delete");
+
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+
+    /**
+     * The server error codes of a change stream that cannot resume from its token, e.g. because the oplog has moved past it.
+     */
+    private static final Set<Integer> NON_RESUMABLE_CODES = Set.of(280, 286);
+
+    /**
+     * The room fields stored as codes, with the enum each code stands for.
+     */
+    private static final Map<String, Class<?>> CODED_FIELDS = Map.of(
+        "type", RoomType.class,
+        "bedType", BedType.class,
+        "status", RoomStatus.class);
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    /**
+     * The number of events held for a client that reads slower than rooms change.
+     * When it is full the oldest events are dropped; the client should reload the rooms it shows.
+     */
+    private final int clientBufferSize;
+
+    /**
+     * The shared change stream.
+     */
+    private final Flux<RoomChangeEvent> events;
+
+    /**
+     * The resume token of the last event read, so a reconnect does not miss or repeat changes.
+     * Cleared when the last subscriber leaves, as a new subscriber wants changes from now on,
+     * and when the server can no longer resume from it.
+     */
+    private volatile BsonValue resumeToken;
+
+    public RoomEventService(ReactiveMongoTemplate reactiveMongoTemplate,
+            @Value("${hotel.rooms.events.client-buffer-size:256}") int clientBufferSize) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.clientBufferSize = clientBufferSize;
+        this.events = Flux.defer(this::watchRooms)
+            // The backoff starts over once a reconnect delivers an event
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                .maxBackoff(Duration.ofSeconds(30))
+                .transientErrors(true)
+                .doBeforeRetry(signal -> {
+                    if (isNonResumable(signal.failure())) {
+                        // Retrying with the same token would fail forever; start from now instead
+                        resumeToken = null;
+                    }
+                    log.warn("Room change stream failed, reconnecting: {}", signal.failure().getMessage());
+                }))
+            // The stream ends when the collection is dropped or renamed; start a new one
+            .repeatWhen(completed -> completed.delayElements(Duration.ofSeconds(1)))
+            // Cancelled when the last subscriber leaves
+            .doOnCancel(() -> resumeToken = null)
+            .publish()
+            .refCount();
+    }
+
+    /**
+     * Subscribe to room changes.
+     * Each subscriber gets its own bounded buffer and is written to on its own worker,
+     * so a slow client neither holds back the others nor grows the heap.
+     * @return the changes made to rooms from now on
+     */
+    public Flux<RoomChangeEvent> subscribe() {
+        return events
+            .onBackpressureBuffer(clientBufferSize,
+                dropped -> log.debug("Dropped room change {} for a slow client", dropped.roomId()),
+                BufferOverflowStrategy.DROP_OLDEST)
+            .publishOn(Schedulers.boundedElastic(), 1);
+    }
+
+    /**
+     * Open a change stream on the rooms collection, resuming after the last event read if there is one.
+     */
+    private Flux<RoomChangeEvent> watchRooms() {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+            .filter(new Document("$match", new Document("operationType", new Document("$in", OPERATIONS))));
+        if (resumeToken != null) {
+            options.resumeAfter(resumeToken);
+        }
+        return reactiveMongoTemplate.changeStream(null, reactiveMongoTemplate.getCollectionName(Room.class), options.build(), Room.class)
+            .doOnNext(event -> resumeToken = event.getResumeToken())
+            .doOnComplete(() -> resumeToken = null)
+            .map(this::toChangeEvent);
+    }
+
+    /**
+     * @return true if the error, or one of its causes, is a change stream error that resuming cannot recover from
+     */
+    static boolean isNonResumable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException && NON_RESUMABLE_CODES.contains(mongoException.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private RoomChangeEvent toChangeEvent(ChangeStreamEvent<Room> event) {
+        ChangeStreamDocument<Document> raw = event.getRaw();
+        String roomId = toId(raw.getDocumentKey().get("_id"));
+        String operation = raw.getOperationTypeString();
+        UpdateDescription update = raw.getUpdateDescription();
+        if (update != null) {
+            Map<String, Object> changes = update.getUpdatedFields() == null ? Map.of() : toMap(update.getUpdatedFields());
+            List<String> removed = update.getRemovedFields() == null ? List.of() : update.getRemovedFields();
+            return new RoomChangeEvent(operation, roomId, null, changes, removed);
+        }
+        return new RoomChangeEvent(operation, roomId, event.getBody(), null, null);
+    }
+
+    private static String toId(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    /**
+     * @return the updated fields, with coded fields turned back into the names clients know
+     */
+    private Map<String, Object> toMap(BsonDocument fields) {
+        Document changes = DOCUMENT_CODEC.decode(new BsonDocumentReader(fields), DecoderContext.builder().build());
+        CODED_FIELDS.forEach((field, type) -> {
+            Object value = changes.get(field);
+            if (value != null) {
+                changes.put(field, reactiveMongoTemplate.getConverter().getConversionService().convert(value, type));
+            }
+        });
+        return changes;
+    }
+}
@@ -0,0 +1,14 @@
+package com.skillstorm.hotel_management.services;
+
+import java.time.LocalDate;
+
+/**
+ * Published when the nights of a room are freed, e.g. by a cancellation, so the waitlist can offer them.
+ *
+ * @param roomId the ID of the room
+ * @param checkIn the first night freed
+ * @param checkOut the day after the last night freed
+ */
+public record RoomReleasedEvent(String roomId, LocalDate checkIn, LocalDate checkOut) {
+
+}
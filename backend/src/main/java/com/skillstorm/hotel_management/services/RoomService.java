@@ -1,29 +1,111 @@
 package com.skillstorm.hotel_management.services;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import com.mongodb.bulk.BulkWriteError;
+import com.skillstorm.hotel_management.config.CacheConfig;
+import com.skillstorm.hotel_management.dtos.Room.BulkImportResultDto;
 import com.skillstorm.hotel_management.dtos.Room.EditRoomDto;
 import com.skillstorm.hotel_management.dtos.Room.RoomDto;
+import com.skillstorm.hotel_management.dtos.Room.RoomPageDto;
+import com.skillstorm.hotel_management.dtos.Room.RoomSearchCriteria;
+import com.skillstorm.hotel_management.dtos.Room.RoomSearchResultDto;
+import com.skillstorm.hotel_management.dtos.Room.RowErrorDto;
+import com.skillstorm.hotel_management.exceptions.ConflictException;
+import com.skillstorm.hotel_management.exceptions.NotFoundException;
 import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomStatus;
+import com.skillstorm.hotel_management.repositories.PatchUpdate;
+import com.skillstorm.hotel_management.repositories.RoomNightsRepository;
 import com.skillstorm.hotel_management.repositories.RoomRepository;
 
+import io.micrometer.observation.annotation.Observed;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+
 
 /**
 * Service class for managing rooms.
 */
 @Service
+@Observed(name = "hotel.service")
 public class RoomService {
 
     /**
     * The repository for accessing room data.
     */
     private final RoomRepository roomRepository;    
+
+    /**
+    * The repository holding the booked nights of each room.
+    */
+    private final RoomNightsRepository roomNightsRepository;
+
+    /**
+    * The in-memory calendar of every room, kept in step with room creation and deletion.
+    */
+    private final AvailabilityIndex availabilityIndex;
+
+    /**
+    * The store of room images.
+    */
+    private final ImageService imageService;
+
+    /**
+    * The JSON mapper used to stream rooms in and out.
+    */
+    private final ObjectMapper objectMapper;
+
+    /**
+    * How many rooms are checked and written per bulk write during an import.
+    */
+    private final int importBatchSize;
+
+    /**
+    * How many images a room can have, which bounds the size of the room document.
+    */
+    private final int maxImages;
+
+    /**
+    * The caches of rooms by ID and by number, evicted when a room is deleted.
+    */
+    private final Cache roomsCache;
+    private final Cache roomsByNumberCache;
     
-    public RoomService(RoomRepository roomRepository) {
+    public RoomService(RoomRepository roomRepository, RoomNightsRepository roomNightsRepository, AvailabilityIndex availabilityIndex,
+            ImageService imageService, ObjectMapper objectMapper, CacheManager cacheManager,
+            @Value("${hotel.rooms.import-batch-size:500}") int importBatchSize,
+            @Value("${hotel.images.max-per-room:20}") int maxImages) {
         this.roomRepository = roomRepository;
+        this.roomNightsRepository = roomNightsRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.imageService = imageService;
+        this.objectMapper = objectMapper;
+        this.roomsCache = cacheManager.getCache(CacheConfig.ROOMS);
+        this.roomsByNumberCache = cacheManager.getCache(CacheConfig.ROOMS_BY_NUMBER);
+        this.importBatchSize = importBatchSize;
+        this.maxImages = maxImages;
     }
 
     /**
@@ -34,24 +116,66 @@ public class RoomService {
         return roomRepository.findAll();
     }
 
+    /**
+    * Service method to get a version of the room list, which changes whenever a room is added, edited or deleted.
+    * Additions and edits stamp updatedAt and deletions lower the count, so the two together cover every change.
+    * @return the number of rooms and the time of the latest change, e.g. "120-m3x9k2a1"
+    */
+    public String getRoomsVersion() {
+        long lastModified = roomRepository.findLastModified().map(Date::getTime).orElse(0L);
+        return roomRepository.count() + "-" + Long.toString(lastModified, 36);
+    }
+
+    /**
+    * Service method to search rooms one page at a time
+    * @param criteria the filters, cursor and page size of the search
+    * @return the page of matching rooms and the cursor of the next page
+    */
+    public RoomPageDto searchRooms(RoomSearchCriteria criteria) {
+        // Fetch one extra room to know whether another page exists
+        List<Room> rooms = roomRepository.searchRooms(criteria, criteria.limit() + 1);
+        if (rooms.size() <= criteria.limit()) {
+            return new RoomPageDto(rooms, null);
+        }
+        List<Room> page = rooms.subList(0, criteria.limit());
+        return new RoomPageDto(page, page.get(page.size() - 1).getRoomNumber());
+    }
+
+    /**
+    * Service method to search rooms one page at a time, with facet counts over every matching room
+    * @param criteria the filters, cursor and page size of the search
+    * @return the page of matching rooms, the cursor of the next page and the facet counts
+    */
+    public RoomSearchResultDto searchRoomsWithFacets(RoomSearchCriteria criteria) {
+        // Fetch one extra room to know whether another page exists
+        RoomSearchResultDto result = roomRepository.searchRoomsWithFacets(criteria, criteria.limit() + 1);
+        if (result.rooms().size() <= criteria.limit()) {
+            return result;
+        }
+        List<Room> page = result.rooms().subList(0, criteria.limit());
+        return new RoomSearchResultDto(page, page.get(page.size() - 1).getRoomNumber(), result.facets());
+    }
+
     /**
     * Service method to get a room by its ID
     * @param id the ID of the room
     * @return the room with the specified ID
-    * @throws IllegalArgumentException if the room is not found
+    * @throws NotFoundException if the room is not found
     */
-    public Room getRoomById(String id) throws IllegalArgumentException {
-        return roomRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Room not found"));
+    @Cacheable(cacheNames = CacheConfig.ROOMS, key = "#id")
+    public Room getRoomById(String id) throws NotFoundException {
+        return roomRepository.findById(id).orElseThrow(() -> new NotFoundException("Room not found"));
     }
 
     /**
     * Service method to get a room by its number
     * @param roomNumber the number of the room
     * @return the room with the specified number
-    * @throws IllegalArgumentException if the room is not found
+    * @throws NotFoundException if the room is not found
     */
-    public Room getRoomByNumber(String roomNumber) throws IllegalArgumentException {
-        return roomRepository.findByRoomNumber(roomNumber).orElseThrow(() -> new IllegalArgumentException("Room not found"));
+    @Cacheable(cacheNames = CacheConfig.ROOMS_BY_NUMBER, key = "#roomNumber")
+    public Room getRoomByNumber(String roomNumber) throws NotFoundException {
+        return roomRepository.findByRoomNumber(roomNumber).orElseThrow(() -> new NotFoundException("Room not found"));
     }
 
     /**
@@ -65,27 +189,23 @@ public class RoomService {
         // Check if a room with the same number already exists
         Optional<Room> existRoom = roomRepository.findByRoomNumber(roomDto.roomNumber());
         if (existRoom.isPresent()) {
-            throw new IllegalArgumentException("Room with this number already exists");
+            throw new ConflictException("Room with this number already exists");
         }
 
         // Create a new room
-        Room room = new Room(
-            roomDto.roomNumber(),
-            roomDto.type(),
-            roomDto.description(),
-            roomDto.pricePerNight(),
-            roomDto.maxCapacity(),
-            roomDto.bedType(),
-            roomDto.size(),
-            roomDto.floor(),
-            roomDto.amenities(),
-            roomDto.images(),
-            true,
-            "AVAILABLE"
-        );
+        Room room = toRoom(roomDto);
 
-        // Save the new room to the repository
-        return roomRepository.save(room);
+        // Save the new room to the repository and give it an empty calendar
+        // The unique index on roomNumber catches a room created between the check above and this insert
+        Room saved;
+        try {
+            saved = roomRepository.insert(room);
+        } catch (DuplicateKeyException e) {
+            throw new ConflictException("Room with this number already exists");
+        }
+        roomNightsRepository.createIfMissing(saved.getId());
+        availabilityIndex.registerRoom(saved);
+        return saved;
     }
 
     /**
@@ -95,26 +215,69 @@ public class RoomService {
      * @return the updated room
      * @throws IllegalArgumentException if the room is not found
      */
+    @Caching(put = {
+        @CachePut(cacheNames = CacheConfig.ROOMS, key = "#result.id"),
+        @CachePut(cacheNames = CacheConfig.ROOMS_BY_NUMBER, key = "#result.roomNumber")
+    })
     public Room editRoom(String id, EditRoomDto editRoomDto) throws IllegalArgumentException {
-        // Find the room by ID or throw an exception if not found
-        Room room = roomRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Room not found"));
-        
         /*  
-            Update the room's fields if the corresponding values in the DTO are not null 
-            If null, keep the existing value 
+            Only the fields that are not null in the DTO are sent, in a single atomic $set,
+            so concurrent edits of different fields do not overwrite each other
         */
-        room.setType(editRoomDto.type() != null ? editRoomDto.type() : room.getType());
-        room.setPricePerNight(editRoomDto.pricePerNight() != null ? editRoomDto.pricePerNight() : room.getPricePerNight());
-        room.setDescription(editRoomDto.description() != null ? editRoomDto.description() : room.getDescription());
-        room.setMaxCapacity(editRoomDto.maxCapacity() != null ? editRoomDto.maxCapacity() : room.getMaxCapacity());
-        room.setBedType(editRoomDto.bedType() != null ? editRoomDto.bedType() : room.getBedType());
-        room.setSize(editRoomDto.size() != null ? editRoomDto.size() : room.getSize());
-        room.setAmenities(editRoomDto.amenities() != null ? editRoomDto.amenities() : room.getAmenities());
-        room.setImages(editRoomDto.images() != null ? editRoomDto.images() : room.getImages());
-        room.setAvailable(editRoomDto.isAvailable() != null ? editRoomDto.isAvailable() : room.isAvailable());
-        room.setStatus(editRoomDto.status() != null ? editRoomDto.status() : room.getStatus());
-        
-        return roomRepository.save(room);
+        PatchUpdate patch = new PatchUpdate()
+            .set("type", editRoomDto.type())
+            .set("pricePerNight", editRoomDto.pricePerNight())
+            .set("description", editRoomDto.description())
+            .set("maxCapacity", editRoomDto.maxCapacity())
+            .set("bedType", editRoomDto.bedType())
+            .set("size", editRoomDto.size())
+            .set("amenities", editRoomDto.amenities())
+            .set("isAvailable", editRoomDto.isAvailable())
+            .set("status", editRoomDto.status());
+
+        if (patch.isEmpty()) {
+            return getRoomById(id);
+        }
+        Room room = roomRepository.patchRoom(id, patch).orElseThrow(() -> new NotFoundException("Room not found"));
+        if (editRoomDto.type() != null) {
+            // Keep the occupancy of each type, which prices rooms, in line with the new type
+            availabilityIndex.changeRoomType(id, room.getType());
+        }
+        return room;
+    }
+
+    /**
+    * Service method to upload an image of a room
+    * @param id the ID of the room
+    * @param content the image bytes
+    * @param contentType the content type of the image
+    * @return the updated room, whose images now reference the new image
+    * @throws IllegalArgumentException if the image is not supported, the room is not found or it has too many images
+    */
+    @Caching(put = {
+        @CachePut(cacheNames = CacheConfig.ROOMS, key = "#result.id"),
+        @CachePut(cacheNames = CacheConfig.ROOMS_BY_NUMBER, key = "#result.roomNumber")
+    })
+    public Room addImage(String id, InputStream content, String contentType) throws IllegalArgumentException {
+        String imageId = imageService.store(content, contentType);
+        return roomRepository.addImage(id, imageId, maxImages).orElseThrow(() -> roomRepository.existsById(id)
+            ? new ConflictException("A room can have at most " + maxImages + " images")
+            : new NotFoundException("Room not found"));
+    }
+
+    /**
+    * Service method to remove an image from a room. The stored file is kept, as other rooms may use the same image.
+    * @param id the ID of the room
+    * @param imageId the ID of the image
+    * @return the updated room
+    * @throws IllegalArgumentException if the room is not found
+    */
+    @Caching(put = {
+        @CachePut(cacheNames = CacheConfig.ROOMS, key = "#result.id"),
+        @CachePut(cacheNames = CacheConfig.ROOMS_BY_NUMBER, key = "#result.roomNumber")
+    })
+    public Room removeImage(String id, String imageId) throws IllegalArgumentException {
+        return roomRepository.removeImage(id, imageId).orElseThrow(() -> new NotFoundException("Room not found"));
     }
 
     /**
@@ -123,8 +286,136 @@ public class RoomService {
     * @throws IllegalArgumentException if the room is not found
     */
     public void deleteRoom(String id) throws IllegalArgumentException {
-        Room room = roomRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Room not found"));
+        Room room = roomRepository.findById(id).orElseThrow(() -> new NotFoundException("Room not found"));
         roomRepository.delete(room);
+        roomNightsRepository.deleteById(id);
+        availabilityIndex.removeRoom(id);
+        roomsCache.evict(id);
+        roomsByNumberCache.evict(room.getRoomNumber());
+    }
+
+    /**
+    * Service method to import many rooms from a JSON array or newline-delimited JSON stream of RoomDto.
+    * Rows are read one at a time and written in batches, so the upload is never held in memory as a whole.
+    * @param in the request body
+    * @return how many rows were read and inserted, and why the others were not
+    */
+    public BulkImportResultDto importRooms(InputStream in) {
+        List<RowErrorDto> errors = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        List<Room> batch = new ArrayList<>(importBatchSize);
+        List<Integer> batchRows = new ArrayList<>(importBatchSize);
+        int row = 0;
+        int inserted = 0;
+
+        try (MappingIterator<RoomDto> rows = objectMapper.readerFor(RoomDto.class).readValues(in)) {
+            while (rows.hasNextValue()) {
+                RoomDto roomDto;
+                try {
+                    roomDto = rows.nextValue();
+                } catch (JacksonException e) {
+                    // The iterator skips past the broken row on the next call
+                    errors.add(new RowErrorDto(row++, null, "Invalid room: " + e.getOriginalMessage()));
+                    continue;
+                }
+
+                if (roomDto.roomNumber() == null || roomDto.roomNumber().isBlank()) {
+                    errors.add(new RowErrorDto(row++, null, "Room number is required"));
+                    continue;
+                }
+                if (roomDto.floor() == null) {
+                    errors.add(new RowErrorDto(row++, roomDto.roomNumber(), "Floor is required"));
+                    continue;
+                }
+                if (!seen.add(roomDto.roomNumber())) {
+                    errors.add(new RowErrorDto(row++, roomDto.roomNumber(), "Room number appears more than once in the import"));
+                    continue;
+                }
+
+                batch.add(toRoom(roomDto));
+                batchRows.add(row++);
+                if (batch.size() == importBatchSize) {
+                    inserted += insertBatch(batch, batchRows, errors);
+                }
+            }
+        } catch (JacksonException e) {
+            errors.add(new RowErrorDto(row, null, "Import stopped, the body is not valid JSON: " + e.getOriginalMessage()));
+        }
+        inserted += insertBatch(batch, batchRows, errors);
+
+        return new BulkImportResultDto(row, inserted, errors);
+    }
+
+    /**
+    * Service method to write every room to a stream as newline-delimited JSON.
+    * Rooms are read through a cursor and written as they arrive, without building a list.
+    * @param out the response body
+    */
+    public void exportRooms(OutputStream out) {
+        try (Stream<Room> rooms = roomRepository.streamAllBy();
+                SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            rooms.forEach(writer::write);
+        }
+    }
+
+    /**
+    * Insert one batch of an import and clear it
+    * @return the number of rooms inserted
+    */
+    private int insertBatch(List<Room> batch, List<Integer> batchRows, List<RowErrorDto> errors) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // One $in query finds every room number of the batch that already exists
+        Set<String> existing = roomRepository.findExistingRoomNumbers(batch.stream().map(Room::getRoomNumber).toList());
+        List<Room> toInsert = new ArrayList<>(batch.size());
+        List<Integer> toInsertRows = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Room room = batch.get(i);
+            if (existing.contains(room.getRoomNumber())) {
+                errors.add(new RowErrorDto(batchRows.get(i), room.getRoomNumber(), "Room with this number already exists"));
+            } else {
+                // Assign the ID up front so the calendars can be created without reading the rooms back
+                room.setId(new ObjectId().toHexString());
+                toInsert.add(room);
+                toInsertRows.add(batchRows.get(i));
+            }
+        }
+        batch.clear();
+        batchRows.clear();
+
+        Set<String> failedIds = new HashSet<>();
+        for (BulkWriteError error : roomRepository.insertRooms(toInsert)) {
+            Room room = toInsert.get(error.getIndex());
+            failedIds.add(room.getId());
+            errors.add(new RowErrorDto(toInsertRows.get(error.getIndex()), room.getRoomNumber(), error.getMessage()));
+        }
+
+        List<Room> insertedRooms = toInsert.stream().filter(room -> !failedIds.contains(room.getId())).toList();
+        roomNightsRepository.createAllIfMissing(insertedRooms.stream().map(Room::getId).toList());
+        insertedRooms.forEach(availabilityIndex::registerRoom);
+        return insertedRooms.size();
+    }
+
+    /**
+    * Build a new, available room without images from a DTO
+    */
+    private static Room toRoom(RoomDto roomDto) {
+        return new Room(
+            roomDto.roomNumber(),
+            roomDto.type(),
+            roomDto.description(),
+            roomDto.pricePerNight(),
+            roomDto.maxCapacity(),
+            roomDto.bedType(),
+            roomDto.size(),
+            roomDto.floor(),
+            roomDto.amenities(),
+            new ArrayList<>(),
+            true,
+            RoomStatus.AVAILABLE
+        );
     }
 
 }
\ No newline at end of file
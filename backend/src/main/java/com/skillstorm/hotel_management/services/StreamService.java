@@ -0,0 +1,58 @@
+package com.skillstorm.hotel_management.services;
+
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotel_management.dtos.User.UserSummaryDto;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.repositories.ReactiveRoomRepository;
+import com.skillstorm.hotel_management.repositories.ReactiveUserRepository;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Service for streaming whole collections without loading them into memory.
+ * Documents are pulled from a Mongo cursor as fast as the client reads them.
+ */
+@Service
+public class StreamService {
+
+    /**
+     * Reactive repository for rooms.
+     */
+    private final ReactiveRoomRepository reactiveRoomRepository;
+
+    /**
+     * Reactive repository for users.
+     */
+    private final ReactiveUserRepository reactiveUserRepository;
+
+    public StreamService(ReactiveRoomRepository reactiveRoomRepository, ReactiveUserRepository reactiveUserRepository) {
+        this.reactiveRoomRepository = reactiveRoomRepository;
+        this.reactiveUserRepository = reactiveUserRepository;
+    }
+
+    /**
+     * Stream all rooms.
+     * @return every room, one at a time
+     */
+    public Flux<Room> streamAllRooms() {
+        return reactiveRoomRepository.findAll();
+    }
+
+    /**
+     * Stream all users.
+     * @return every user, one at a time
+     */
+    public Flux<UserSummaryDto> streamAllUsers() {
+        return reactiveUserRepository.findAllBy();
+    }
+
+    /**
+     * Stream the users with a role.
+     * @param role the role of the users to stream
+     * @return the users with the role, one at a time
+     */
+    public Flux<UserSummaryDto> streamUsersByRole(String role) {
+        return reactiveUserRepository.findByRolesContaining(role);
+    }
+}
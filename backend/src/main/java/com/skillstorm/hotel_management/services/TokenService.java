@@ -0,0 +1,241 @@
+package com.skillstorm.hotel_management.services;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.skillstorm.hotel_management.dtos.User.TokenDto;
+import com.skillstorm.hotel_management.dtos.User.UserSummaryDto;
+import com.skillstorm.hotel_management.models.RevokedToken;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.repositories.RevokedTokenRepository;
+
+/**
+ * Issues and checks the signed access tokens clients send as "Authorization: Bearer ...".
+ * A token carries the user's ID, email and roles, so authorizing a request needs no user lookup.
+ * The signature is checked once per token; the resulting Authentication is cached until the token expires,
+ * so later requests with the same token cost a cache hit and two map lookups for revocation.
+ * Revocations are written to Mongo and polled by every instance, so a revoked token stops working everywhere
+ * within hotel.security.jwt.revocation-sync.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    /**
+     * The principal of a request authenticated by a token.
+     */
+    public record TokenUser(String id, String email) implements AuthenticatedPrincipal {
+        @Override
+        public String getName() {
+            return email;
+        }
+    }
+
+    /**
+     * A token whose signature has been checked, with what is needed to check it again cheaply.
+     */
+    private record VerifiedToken(Authentication authentication, String id, String userId, Instant issuedAt, Instant expiresAt) {}
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtEncoder encoder;
+    private final JwtDecoder decoder;
+    private final String issuer;
+    private final Duration timeToLive;
+
+    /**
+     * Verified tokens, keyed by the token itself.
+     */
+    private final Cache<String, VerifiedToken> verified;
+
+    /**
+     * Revoked token IDs and when those tokens expire.
+     */
+    private final Map<String, Instant> revokedIds = new ConcurrentHashMap<>();
+
+    /**
+     * Users whose tokens issued before a moment are revoked, keyed by user ID.
+     */
+    private final Map<String, Instant> revokedUsers = new ConcurrentHashMap<>();
+
+    private volatile Date lastSync = new Date(0);
+
+    public TokenService(RevokedTokenRepository revokedTokenRepository,
+            @Value("${hotel.security.jwt.secret:}") String secret,
+            @Value("${hotel.security.jwt.issuer:hotel-management}") String issuer,
+            @Value("${hotel.security.jwt.time-to-live:1h}") Duration timeToLive,
+            @Value("${hotel.security.jwt.cache-size:10000}") int cacheSize) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.issuer = issuer;
+        this.timeToLive = timeToLive;
+
+        SecretKey key = new SecretKeySpec(keyBytes(secret), "HmacSHA256");
+        this.encoder = NimbusJwtEncoder.withSecretKey(key).build();
+        NimbusJwtDecoder nimbusDecoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        nimbusDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        this.decoder = nimbusDecoder;
+
+        this.verified = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(timeToLive)
+            .build();
+    }
+
+    /**
+     * Issue an access token for a user who has just logged in.
+     * @param user the authenticated user
+     * @return the token and when it expires
+     */
+    public TokenDto issue(User user) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(timeToLive);
+        List<String> roles = user.getRoles() == null ? List.of() : user.getRoles();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .id(UUID.randomUUID().toString())
+            .issuer(issuer)
+            .subject(user.getId())
+            .issuedAt(now)
+            .expiresAt(expiresAt)
+            .claim("email", user.getEmail())
+            .claim("roles", roles)
+            .build();
+        Jwt jwt = encoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims));
+        UserSummaryDto summary = new UserSummaryDto(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(), user.getPhoneNumber(), roles);
+        return new TokenDto(jwt.getTokenValue(), "Bearer", expiresAt, summary);
+    }
+
+    /**
+     * Authenticate a request from its token.
+     * @param token the bearer token
+     * @return the authentication holding the user and their roles as authorities
+     * @throws JwtException if the token is malformed, badly signed, expired or revoked
+     */
+    public Authentication authenticate(String token) throws JwtException {
+        VerifiedToken verifiedToken = verified.get(token, this::verify);
+        if (!verifiedToken.expiresAt().isAfter(Instant.now())) {
+            verified.invalidate(token);
+            throw new BadJwtException("Token expired");
+        }
+        if (isRevoked(verifiedToken)) {
+            throw new BadJwtException("Token revoked");
+        }
+        return verifiedToken.authentication();
+    }
+
+    /**
+     * Revoke one token, e.g. on logout.
+     * @param token the bearer token
+     * @throws JwtException if the token is not valid in the first place
+     */
+    public void revoke(String token) throws JwtException {
+        VerifiedToken verifiedToken = verified.get(token, this::verify);
+        revokedIds.put(verifiedToken.id(), verifiedToken.expiresAt());
+        verified.invalidate(token);
+        revokedTokenRepository.save(new RevokedToken(verifiedToken.id(), verifiedToken.userId(), null, Date.from(verifiedToken.expiresAt())));
+    }
+
+    /**
+     * Revoke every token issued to a user so far, e.g. when the user is deleted.
+     * @param userId the ID of the user
+     */
+    public void revokeUser(String userId) {
+        Instant now = Instant.now();
+        revokedUsers.merge(userId, now, (previous, current) -> previous.isAfter(current) ? previous : current);
+        revokedTokenRepository.save(new RevokedToken("user:" + userId, userId, Date.from(now), Date.from(now.plus(timeToLive))));
+    }
+
+    /**
+     * Load the revocations other instances recorded since the last poll, and forget those that have expired.
+     */
+    @Scheduled(fixedDelayString = "${hotel.security.jwt.revocation-sync:15s}")
+    public void syncRevocations() {
+        Instant now = Instant.now();
+        revokedIds.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        revokedUsers.values().removeIf(before -> before.plus(timeToLive).isBefore(now));
+        try {
+            // Look back a little, as createdAt comes from the clock of the instance that wrote it
+            Date since = new Date(lastSync.getTime() - 60_000);
+            Date started = new Date();
+            for (RevokedToken revoked : revokedTokenRepository.findByCreatedAtAfter(since)) {
+                if (revoked.getIssuedBefore() == null) {
+                    revokedIds.put(revoked.getId(), revoked.getExpiresAt().toInstant());
+                } else {
+                    revokedUsers.merge(revoked.getUserId(), revoked.getIssuedBefore().toInstant(),
+                        (previous, current) -> previous.isAfter(current) ? previous : current);
+                }
+            }
+            lastSync = started;
+        } catch (RuntimeException e) {
+            log.warn("Could not load token revocations: {}", e.getMessage());
+        }
+    }
+
+    private boolean isRevoked(VerifiedToken token) {
+        if (revokedIds.containsKey(token.id())) {
+            return true;
+        }
+        Instant before = revokedUsers.get(token.userId());
+        // Token times are in whole seconds, so a token from the second of the revocation counts as revoked
+        return before != null && !token.issuedAt().isAfter(before);
+    }
+
+    private VerifiedToken verify(String token) {
+        Jwt jwt = decoder.decode(token);
+        List<String> roles = jwt.getClaimAsStringList("roles");
+        List<SimpleGrantedAuthority> authorities = roles == null ? List.of() : roles.stream().map(SimpleGrantedAuthority::new).toList();
+        TokenUser principal = new TokenUser(jwt.getSubject(), jwt.getClaimAsString("email"));
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities);
+        return new VerifiedToken(authentication, jwt.getId(), jwt.getSubject(), jwt.getIssuedAt(), jwt.getExpiresAt());
+    }
+
+    /**
+     * @return the HMAC key from hotel.security.jwt.secret, or a random one if it is not set
+     */
+    private static byte[] keyBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("hotel.security.jwt.secret is not set, using a random key: tokens will not survive a restart or work across instances");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] bytes = Base64.getDecoder().decode(secret);
+        if (bytes.length < 32) {
+            throw new IllegalStateException("hotel.security.jwt.secret must be at least 256 bits, base64 encoded");
+        }
+        return bytes;
+    }
+}
@@ -1,46 +1,115 @@
 package com.skillstorm.hotel_management.services;
 
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Service;
 
+import com.skillstorm.hotel_management.config.CacheConfig;
+
 import com.skillstorm.hotel_management.dtos.User.EditProfileUserDto;
+import com.skillstorm.hotel_management.dtos.User.EditRolesDto;
+import com.skillstorm.hotel_management.dtos.User.TokenDto;
 import com.skillstorm.hotel_management.dtos.User.UserDto;
+import com.skillstorm.hotel_management.dtos.User.UserSummaryDto;
+import com.skillstorm.hotel_management.exceptions.ConflictException;
+import com.skillstorm.hotel_management.exceptions.NotFoundException;
+import com.skillstorm.hotel_management.models.OutboxMessage;
 import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.models.UserPreferences;
+import com.skillstorm.hotel_management.repositories.PatchUpdate;
 import com.skillstorm.hotel_management.repositories.UserRepository;
 
+import io.micrometer.observation.annotation.Observed;
+
 /**
  * Service for managing users.
  */
 @Service
+@Observed(name = "hotel.service")
 public class UserService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * The role every user signs up with.
+     */
+    public static final String GUEST_ROLE = "ROLE_GUEST";
+
+    /**
+     * The roles an admin can grant.
+     */
+    private static final Set<String> ROLES = Set.of(GUEST_ROLE, "ROLE_EMPLOYEE", "ROLE_MANAGER", "ROLE_ADMIN");
     
     /**
      * Repository for managing users.
      */
     private final UserRepository userRepository;
 
-    public UserService(UserRepository userRepository) {
+    /**
+     * Cache of users by email, evicted when a user is deleted.
+     */
+    private final Cache usersByEmailCache;
+
+    /**
+     * Queues the verification mail together with the new user.
+     */
+    private final OutboxService outboxService;
+
+    /**
+     * Hashes passwords off the request threads.
+     */
+    private final PasswordService passwordService;
+
+    /**
+     * Issues the access tokens handed out at login.
+     */
+    private final TokenService tokenService;
+
+    public UserService(UserRepository userRepository, CacheManager cacheManager, OutboxService outboxService,
+            PasswordService passwordService, TokenService tokenService) {
         this.userRepository = userRepository;
+        this.usersByEmailCache = cacheManager.getCache(CacheConfig.USERS_BY_EMAIL);
+        this.outboxService = outboxService;
+        this.passwordService = passwordService;
+        this.tokenService = tokenService;
     }
 
     /**
-     * Get all users.
-     * @return a list of all users
+     * Get a page of all users.
+     * @param pageable the page, size and sort order to retrieve
+     * @return a page of user summaries
      */
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public Page<UserSummaryDto> getAllUsers(Pageable pageable) {
+        return userRepository.findAllBy(pageable);
     }
 
     /**
-     * Get all employees.
-     * @return a list of all employees
+     * Get a page of users by their role.
+     * @param role the role of the users to retrieve
+     * @param pageable the page, size and sort order to retrieve
+     * @return a page of user summaries
      */
-    public List<User> getUsersByRole(String role) {
-        return userRepository.findByRolesContaining(role);
+    public Page<UserSummaryDto> getUsersByRole(String role, Pageable pageable) {
+        return userRepository.findByRolesContaining(role, pageable);
     }
 
     /**
@@ -48,33 +117,74 @@ public class UserService {
      * @param email the email of the user to retrieve
      * @return the user with the specified email, or null if not found
      */
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#email", unless = "#result == null")
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email).orElse(null);
     }
 
 
     /**
-     * Create a new user.
+     * Create a new user and queue the mail that verifies their email.
+     * Every new user is a guest; roles are granted by an admin with editUserRoles.
      * @param userDto the DTO containing the user information
      * @return the created user
-     * @throws IllegalArgumentException if a user with the specified email already exists
+     * @throws IllegalArgumentException if a user with the specified email already exists or the language is not a valid code
      */
     public User createUser(UserDto userDto) throws IllegalArgumentException {
         Optional<User> exists = userRepository.findByEmail(userDto.email());
         if (exists.isPresent()) {
-            throw new IllegalArgumentException("User with email " + userDto.email() + " already exists");
+            throw new ConflictException("User with email " + userDto.email() + " already exists");
         }
-        Map<String, Object> preferences = new HashMap<>();
-        
-        preferences.putAll(Map.of(
-            "language", userDto.language(),
-            "newsLetter", userDto.newsLetter(),
-            "notifications", userDto.notifications()
-        ));
-        
-        User user = new User(userDto.email(), userDto.password(), userDto.firstName(), userDto.lastName(), userDto.phoneNumber(), userDto.roles(), preferences);
-        
-        return userRepository.save(user);
+        UserPreferences preferences = new UserPreferences(
+            UserPreferences.checkLanguage(userDto.language()),
+            userDto.newsLetter(),
+            userDto.notifications()
+        );
+
+        User user = new User(userDto.email(), passwordService.hash(userDto.password()), userDto.firstName(), userDto.lastName(), userDto.phoneNumber(), List.of(GUEST_ROLE), preferences);
+
+        // Only the hash of the token is stored, the token itself goes out in the mail
+        String token = newVerificationToken();
+        user.setEmailVerificationToken(hash(token));
+
+        // The unique index on email catches a user created between the check above and this insert
+        try {
+            return outboxService.writeWith(() -> userRepository.insert(user),
+                created -> List.of(new OutboxMessage(OutboxMessage.Type.VERIFY_EMAIL, created.getId(), Map.of("token", token))));
+        } catch (DuplicateKeyException e) {
+            throw new ConflictException("User with email " + userDto.email() + " already exists");
+        }
+    }
+
+    /**
+     * Check a user's email and password on the password pool and issue an access token.
+     * @param email the email of the user
+     * @param password the password as typed
+     * @return the access token once verified; completes with an IllegalArgumentException if the email or password is wrong,
+     *         or a RejectedExecutionException if too many logins are waiting
+     */
+    public CompletableFuture<TokenDto> login(String email, String password) {
+        return passwordService.authenticate(email, password).thenApply(tokenService::issue);
+    }
+
+    /**
+     * Revoke an access token, on every instance.
+     * @param token the bearer token to revoke
+     * @throws JwtException if the token is not valid
+     */
+    public void logout(String token) throws JwtException {
+        tokenService.revoke(token);
+    }
+
+    /**
+     * Mark the email of the user a verification token was sent to as verified.
+     * @param token the token from the verification mail
+     * @return the verified user
+     * @throws IllegalArgumentException if no user holds the token, e.g. because it was already used
+     */
+    @CachePut(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#result.email")
+    public User verifyEmail(String token) throws IllegalArgumentException {
+        return userRepository.verifyEmail(hash(token)).orElseThrow(() -> new IllegalArgumentException("Invalid verification link"));
     }
 
     /**
@@ -82,27 +192,47 @@ public class UserService {
      * @param id the ID of the user to edit
      * @param editProfileUserDto the DTO containing the updated user information
      * @return the updated user
-     * @throws IllegalArgumentException if the user with the specified ID is not found
+     * @throws IllegalArgumentException if the user with the specified ID is not found or the language is not a valid code
      */
+    @CachePut(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#result.email")
     public User editUserProfile(String id, EditProfileUserDto editProfileUserDto) throws IllegalArgumentException {
-        
-        Optional<User> userOptional = userRepository.findById(id);
-        if (userOptional.isPresent()) {
-            User user = userOptional.get();
-            user.setFirstName(editProfileUserDto.firstName() != null ? editProfileUserDto.firstName() : user.getFirstName());
-            user.setLastName(editProfileUserDto.lastName() != null ? editProfileUserDto.lastName() : user.getLastName());
-            user.setPhoneNumber(editProfileUserDto.phoneNumber() != null ? editProfileUserDto.phoneNumber() : user.getPhoneNumber());
-            
-            // Map<String, Object> preferences = user.getPreferences();
-            // preferences.put("language", editProfileUserDto.language() != null ? editProfileUserDto.language() : preferences.get("language"));
-            // preferences.put("newsLetter", editProfileUserDto.newsLetter() != editProfileUserDto.newsLetter() ?  
-            // preferences.put("notifications", editProfileUserDto.notifications() != null ? editProfileUserDto.notifications() : preferences.get("notifications"));
-            // user.setPreferences(preferences);
-            
-            return userRepository.save(user);
-        } else {
-            throw new IllegalArgumentException("User with id " + id + " not found");
+        // Only the fields that are not null in the DTO are sent, in a single atomic $set
+        PatchUpdate patch = new PatchUpdate()
+            .set("firstName", editProfileUserDto.firstName())
+            .set("lastName", editProfileUserDto.lastName())
+            .set("phoneNumber", editProfileUserDto.phoneNumber())
+            .set("preferences.language", UserPreferences.checkLanguage(editProfileUserDto.language()))
+            .set("preferences.newsLetter", editProfileUserDto.newsLetter())
+            .set("preferences.notifications", editProfileUserDto.notifications());
+
+        if (patch.isEmpty()) {
+            return userRepository.findById(id).orElseThrow(() -> new NotFoundException("User with id " + id + " not found"));
         }
+        return userRepository.patchUser(id, patch).orElseThrow(() -> new NotFoundException("User with id " + id + " not found"));
+    }
+
+    /**
+     * Replace a user's roles, and revoke the tokens issued to them as those carry the old roles.
+     * @param id the ID of the user
+     * @param editRolesDto the DTO containing the new roles
+     * @return the updated user
+     * @throws IllegalArgumentException if no roles or an unknown role is given, or the user is not found
+     */
+    @CachePut(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#result.email")
+    public User editUserRoles(String id, EditRolesDto editRolesDto) throws IllegalArgumentException {
+        List<String> roles = editRolesDto.roles();
+        if (roles == null || roles.isEmpty()) {
+            throw new IllegalArgumentException("A user needs at least one role");
+        }
+        for (String role : roles) {
+            if (!ROLES.contains(role)) {
+                throw new IllegalArgumentException("Unknown role " + role);
+            }
+        }
+        User user = userRepository.patchUser(id, new PatchUpdate().set("roles", List.copyOf(new LinkedHashSet<>(roles))))
+            .orElseThrow(() -> new NotFoundException("User with id " + id + " not found"));
+        tokenService.revokeUser(id);
+        return user;
     }
 
     /**
@@ -114,8 +244,25 @@ public class UserService {
         Optional<User> userOptional = userRepository.findById(id);
         if (userOptional.isPresent()) {
             userRepository.delete(userOptional.get());
+            usersByEmailCache.evict(userOptional.get().getEmail());
+            // Tokens already issued carry the user's roles, so they must stop working too
+            tokenService.revokeUser(id);
         } else {
-            throw new IllegalArgumentException("User with id " + id + " not found");
+            throw new NotFoundException("User with id " + id + " not found");
+        }
+    }
+
+    private static String newVerificationToken() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 }
\ No newline at end of file
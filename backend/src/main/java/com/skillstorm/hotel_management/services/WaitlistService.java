@@ -0,0 +1,485 @@
+package com.skillstorm.hotel_management.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotel_management.dtos.Reservation.ReservationDto;
+import com.skillstorm.hotel_management.dtos.Waitlist.WaitlistDto;
+import com.skillstorm.hotel_management.exceptions.ConflictException;
+import com.skillstorm.hotel_management.exceptions.NotFoundException;
+import com.skillstorm.hotel_management.models.LoyaltyTier;
+import com.skillstorm.hotel_management.models.Reservation;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomType;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.models.WaitlistEntry;
+import com.skillstorm.hotel_management.repositories.RoomRepository;
+import com.skillstorm.hotel_management.repositories.UserRepository;
+import com.skillstorm.hotel_management.repositories.WaitlistRepository;
+
+import io.micrometer.observation.annotation.Observed;
+
+/**
+* Service class for the waitlist of sold out room types.
+* Waiting entries are held in memory, per room type and check-in night, in priority order. When a cancellation frees
+* a room, only the queues of the nights around the freed ones are read, so allocation does not slow down as the waitlist grows.
+* Cancellations are allocated on the task executor without a shared lock: an entry goes to whichever thread removes
+* it from its queue, and across instances to whichever moves it out of WAITING in Mongo first.
+*/
+@Service
+@Observed(name = "hotel.service")
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    public static final String WAITING = "WAITING";
+    public static final String ALLOCATING = "ALLOCATING";
+    public static final String ALLOCATED = "ALLOCATED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String EXPIRED = "EXPIRED";
+
+    /**
+    * Highest loyalty tier first, then the earliest request. The ID keeps entries requested in the same millisecond apart.
+    */
+    static final Comparator<WaitlistEntry> PRIORITY = Comparator
+        .comparing(WaitlistService::tierOf, Comparator.reverseOrder())
+        .thenComparing(WaitlistEntry::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(WaitlistEntry::getId);
+
+    /**
+    * The repository holding the waitlist entries.
+    */
+    private final WaitlistRepository waitlistRepository;
+
+    /**
+    * The repository for accessing user data, for the loyalty tier.
+    */
+    private final UserRepository userRepository;
+
+    /**
+    * The repository for accessing room data.
+    */
+    private final RoomRepository roomRepository;
+
+    /**
+    * Books the room an entry is allocated.
+    */
+    private final ReservationService reservationService;
+
+    /**
+    * The in-memory calendar of every room.
+    */
+    private final AvailabilityIndex availabilityIndex;
+
+    private final TaskExecutor taskExecutor;
+
+    /**
+    * How many guests may wait for each night, as a share of the rooms of the type rounded up;
+    * 0.2 lets 2 wait per night for 10 rooms and 1 for 3 rooms, 0 closes the waitlist.
+    */
+    private final double overbookingAllowance;
+
+    /**
+    * How many entries of one check-in night are looked at for a freed room before moving on.
+    */
+    private final int maxScan;
+
+    private final int horizonDays;
+
+    /**
+    * How long an entry may stay ALLOCATING before the refresh takes it for abandoned, e.g. by a crash mid-allocation.
+    */
+    private final Duration allocatingTimeout;
+
+    /**
+    * The queues of every room type, indexed by ordinal. Replaced as a whole when the waitlist is reloaded.
+    */
+    private volatile TypeQueues[] queues;
+
+    public WaitlistService(WaitlistRepository waitlistRepository, UserRepository userRepository, RoomRepository roomRepository,
+            ReservationService reservationService, AvailabilityIndex availabilityIndex,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${hotel.waitlist.overbooking-allowance:0.2}") double overbookingAllowance,
+            @Value("${hotel.waitlist.max-scan:64}") int maxScan,
+            @Value("${hotel.availability.horizon-days:365}") int horizonDays,
+            @Value("${hotel.waitlist.allocating-timeout:10m}") Duration allocatingTimeout) {
+        this.waitlistRepository = waitlistRepository;
+        this.userRepository = userRepository;
+        this.roomRepository = roomRepository;
+        this.reservationService = reservationService;
+        this.availabilityIndex = availabilityIndex;
+        this.taskExecutor = taskExecutor;
+        this.overbookingAllowance = overbookingAllowance;
+        this.maxScan = maxScan;
+        this.horizonDays = horizonDays;
+        this.allocatingTimeout = allocatingTimeout;
+        this.queues = emptyQueues();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskExecutor.execute(this::refresh);
+    }
+
+    /**
+    * Offer freed nights to the waitlist on the task executor, so cancellations are allocated concurrently.
+    */
+    @EventListener
+    public void onRoomReleased(RoomReleasedEvent event) {
+        taskExecutor.execute(() -> allocate(event.roomId(), event.checkIn(), event.checkOut()));
+    }
+
+    /**
+    * Service method to get a waitlist entry by its ID
+    * @param id the ID of the entry
+    * @return the entry with the specified ID
+    * @throws NotFoundException if the entry is not found
+    */
+    public WaitlistEntry getEntryById(String id) throws NotFoundException {
+        return waitlistRepository.findById(id).orElseThrow(() -> new NotFoundException("Waitlist entry not found"));
+    }
+
+    /**
+    * Service method to get the waitlist entries of a user
+    * @param userId the ID of the user
+    * @return the entries of the user, in every status
+    */
+    public List<WaitlistEntry> getEntriesByUser(String userId) {
+        return waitlistRepository.findByUserId(userId);
+    }
+
+    /**
+    * Service method to wait for a room of a type that is sold out for a stay
+    * @param waitlistDto the data transfer object containing the stay
+    * @return the new entry
+    * @throws IllegalArgumentException if the dates or type are invalid, the user is not found, a room of the type
+    *         is free for the stay or too many guests already wait for one of its nights
+    */
+    public WaitlistEntry joinWaitlist(WaitlistDto waitlistDto) throws IllegalArgumentException {
+        if (waitlistDto.type() == null) {
+            throw new IllegalArgumentException("Room type is required");
+        }
+        // Also checks the dates
+        boolean free = reservationService.getAvailableRooms(waitlistDto.checkIn(), waitlistDto.checkOut()).stream()
+            .anyMatch(room -> room.getType() == waitlistDto.type() && room.getMaxCapacity() >= waitlistDto.guests());
+        if (free) {
+            throw new ConflictException("A " + waitlistDto.type() + " room is available for these dates, book it instead");
+        }
+        User user = userRepository.findById(waitlistDto.userId()).orElseThrow(() -> new NotFoundException("User not found"));
+
+        TypeQueues typeQueues = queuesOf(waitlistDto.type());
+        long from = waitlistDto.checkIn().toEpochDay();
+        long to = waitlistDto.checkOut().toEpochDay();
+        // Rounded up, so types with few rooms, the first to sell out, still take one guest per night
+        int limit = (int) Math.ceil(availabilityIndex.getRoomCount(waitlistDto.type()) * overbookingAllowance);
+        if (!typeQueues.tryHold(from, to, limit)) {
+            throw new ConflictException("The waitlist for " + waitlistDto.type() + " rooms is full for these dates");
+        }
+        WaitlistEntry saved;
+        try {
+            saved = waitlistRepository.save(new WaitlistEntry(
+                waitlistDto.userId(),
+                waitlistDto.type(),
+                waitlistDto.checkIn(),
+                waitlistDto.checkOut(),
+                waitlistDto.guests(),
+                user.getLoyaltyTier() == null ? LoyaltyTier.MEMBER : user.getLoyaltyTier(),
+                WAITING
+            ));
+        } catch (RuntimeException e) {
+            typeQueues.release(from, to);
+            throw e;
+        }
+        typeQueues.add(saved);
+        return saved;
+    }
+
+    /**
+    * Service method to leave the waitlist
+    * @param id the ID of the entry
+    * @return the cancelled entry
+    * @throws IllegalArgumentException if the entry is not found or no longer waiting
+    */
+    public WaitlistEntry leaveWaitlist(String id) throws IllegalArgumentException {
+        WaitlistEntry left = waitlistRepository.updateStatus(id, WAITING, CANCELLED).orElse(null);
+        if (left == null) {
+            getEntryById(id);
+            throw new ConflictException("Waitlist entry is no longer waiting");
+        }
+        TypeQueues typeQueues = queuesOf(left.getRoomType());
+        if (typeQueues.remove(left)) {
+            typeQueues.release(left);
+        }
+        return left;
+    }
+
+    /**
+    * Expire the entries whose stay has started and reload the waiting ones from Mongo,
+    * which also picks up entries added or put back on other instances. Runs nightly and on startup.
+    * Entries left ALLOCATING are settled first, so an allocation cut short does not drop them from the waitlist.
+    */
+    @Scheduled(cron = "${hotel.waitlist.refresh-cron:0 45 0 * * *}")
+    public void refresh() {
+        try {
+            LocalDate today = LocalDate.now();
+            recoverAllocating();
+            long expired = waitlistRepository.updateStatusBefore(today, WAITING, EXPIRED);
+            TypeQueues[] loaded = emptyQueues();
+            int count = 0;
+            try (Stream<WaitlistEntry> entries = waitlistRepository.streamByStatusAndCheckInGreaterThanEqual(WAITING, today)) {
+                for (WaitlistEntry entry : (Iterable<WaitlistEntry>) entries::iterator) {
+                    if (entry.getRoomType() != null) {
+                        TypeQueues typeQueues = loaded[entry.getRoomType().ordinal()];
+                        typeQueues.hold(entry);
+                        typeQueues.add(entry);
+                        count++;
+                    }
+                }
+            }
+            queues = loaded;
+            log.info("Waitlist loaded {} entries, expired {}", count, expired);
+        } catch (RuntimeException e) {
+            log.warn("Could not load the waitlist: {}", e.getMessage());
+        }
+    }
+
+    /**
+    * Settle the entries ALLOCATING for longer than the timeout. An entry whose guest holds a reservation for
+    * its exact stay was booked before its status could be recorded, and is marked ALLOCATED;
+    * any other goes back to WAITING.
+    */
+    private void recoverAllocating() {
+        Date before = new Date(System.currentTimeMillis() - allocatingTimeout.toMillis());
+        for (WaitlistEntry entry : waitlistRepository.findByStatusAndUpdatedAtBefore(ALLOCATING, before)) {
+            Reservation booked = reservationService.getReservationsByUser(entry.getUserId()).stream()
+                .filter(reservation -> ReservationService.CONFIRMED.equals(reservation.getStatus())
+                    && entry.getCheckIn().equals(reservation.getCheckIn()) && entry.getCheckOut().equals(reservation.getCheckOut()))
+                .findFirst()
+                .orElse(null);
+            if (booked != null) {
+                waitlistRepository.markAllocated(entry.getId(), ALLOCATING, ALLOCATED, booked.getId());
+            } else {
+                waitlistRepository.updateStatus(entry.getId(), ALLOCATING, WAITING);
+            }
+            log.info("Recovered waitlist entry {} left allocating, now {}", entry.getId(), booked != null ? ALLOCATED : WAITING);
+        }
+    }
+
+    /**
+    * Give a freed room to the waiting entries that fit it, best first, until none fits any more.
+    * A failure is logged; the entries keep waiting.
+    * @param roomId the ID of the room
+    * @param checkIn the first night freed
+    * @param checkOut the day after the last night freed
+    */
+    void allocate(String roomId, LocalDate checkIn, LocalDate checkOut) {
+        try {
+            Room room = roomRepository.findById(roomId).orElse(null);
+            if (room == null || room.getType() == null) {
+                return;
+            }
+            TypeQueues typeQueues = queuesOf(room.getType());
+            // A stay that fits can start up to the longest waited-for stay before the first freed night
+            long firstDay = Math.max(LocalDate.now().toEpochDay(), checkIn.toEpochDay() - typeQueues.longestStay.get() + 1);
+            long lastDay = checkOut.toEpochDay();
+            Set<String> tried = new HashSet<>();
+            WaitlistEntry next;
+            while ((next = bestFit(typeQueues, room, firstDay, lastDay, tried)) != null) {
+                tried.add(next.getId());
+                allocate(typeQueues, next, room);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not allocate room {} to the waitlist: {}", roomId, e.getMessage());
+        }
+    }
+
+    /**
+    * @return the entry of highest priority, checking in between firstDay and lastDay, whose stay fits the room, or null
+    */
+    private WaitlistEntry bestFit(TypeQueues typeQueues, Room room, long firstDay, long lastDay, Set<String> tried) {
+        WaitlistEntry best = null;
+        for (long day = firstDay; day < lastDay; day++) {
+            ConcurrentSkipListSet<WaitlistEntry> queue = typeQueues.byCheckIn.get(day);
+            if (queue == null) {
+                continue;
+            }
+            int scanned = 0;
+            // The queue is in priority order, so its first fit is the best of the night
+            for (WaitlistEntry entry : queue) {
+                if (++scanned > maxScan || (best != null && PRIORITY.compare(entry, best) >= 0)) {
+                    break;
+                }
+                if (!tried.contains(entry.getId()) && entry.getGuests() <= room.getMaxCapacity()
+                        && availabilityIndex.isAvailable(room.getId(), entry.getCheckIn(), entry.getCheckOut())) {
+                    best = entry;
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+    * Book the room for an entry, putting the entry back in its place if the booking fails.
+    * Once the booking succeeds the entry is never queued again, even if recording the allocation fails,
+    * so the guest cannot be booked a second room.
+    */
+    private void allocate(TypeQueues typeQueues, WaitlistEntry entry, Room room) {
+        if (!typeQueues.remove(entry)) {
+            // Another thread took it
+            return;
+        }
+        if (waitlistRepository.updateStatus(entry.getId(), WAITING, ALLOCATING).isEmpty()) {
+            // Left the waitlist, or allocated by another instance
+            typeQueues.release(entry);
+            return;
+        }
+        Reservation reservation;
+        try {
+            reservation = reservationService.createReservation(new ReservationDto(
+                room.getId(), entry.getUserId(), entry.getCheckIn(), entry.getCheckOut(), entry.getGuests()));
+        } catch (RuntimeException e) {
+            // Usually a booking that took the room first
+            log.debug("Could not allocate room {} to waitlist entry {}: {}", room.getId(), entry.getId(), e.getMessage());
+            putBack(typeQueues, entry);
+            return;
+        }
+        typeQueues.release(entry);
+        try {
+            waitlistRepository.markAllocated(entry.getId(), ALLOCATING, ALLOCATED, reservation.getId());
+            log.info("Allocated room {} to waitlist entry {}", room.getId(), entry.getId());
+        } catch (RuntimeException e) {
+            log.warn("Waitlist entry {} was booked reservation {} but is still marked allocating, the refresh will record it: {}",
+                entry.getId(), reservation.getId(), e.getMessage());
+        }
+    }
+
+    /**
+    * Return an entry whose booking failed to WAITING and to its place in the queue.
+    * If that cannot be recorded the entry stays out of the queue, and the refresh puts it back.
+    */
+    private void putBack(TypeQueues typeQueues, WaitlistEntry entry) {
+        try {
+            if (waitlistRepository.updateStatus(entry.getId(), ALLOCATING, WAITING).isPresent()) {
+                typeQueues.add(entry);
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not put waitlist entry {} back, the refresh will: {}", entry.getId(), e.getMessage());
+        }
+        typeQueues.release(entry);
+    }
+
+    private TypeQueues queuesOf(RoomType type) {
+        return queues[type.ordinal()];
+    }
+
+    private TypeQueues[] emptyQueues() {
+        RoomType[] types = RoomType.values();
+        TypeQueues[] empty = new TypeQueues[types.length];
+        for (RoomType type : types) {
+            empty[type.ordinal()] = new TypeQueues(horizonDays);
+        }
+        return empty;
+    }
+
+    private static LoyaltyTier tierOf(WaitlistEntry entry) {
+        return entry.getLoyaltyTier() == null ? LoyaltyTier.MEMBER : entry.getLoyaltyTier();
+    }
+
+    /**
+    * The entries waiting for one room type.
+    * Each check-in night has its own lock-free priority queue, and the number of entries waiting for each night
+    * is counted in a ring indexed by epoch day, as the occupancy is.
+    */
+    static final class TypeQueues {
+
+        private final ConcurrentHashMap<Long, ConcurrentSkipListSet<WaitlistEntry>> byCheckIn = new ConcurrentHashMap<>();
+        private final AtomicIntegerArray waiting;
+
+        /**
+        * The longest stay ever waited for. It only grows, which at worst reads a few more queues.
+        */
+        private final AtomicInteger longestStay = new AtomicInteger(1);
+
+        TypeQueues(int horizonDays) {
+            this.waiting = new AtomicIntegerArray(Math.max(horizonDays, 1));
+        }
+
+        void add(WaitlistEntry entry) {
+            long checkIn = entry.getCheckIn().toEpochDay();
+            longestStay.accumulateAndGet((int) (entry.getCheckOut().toEpochDay() - checkIn), Math::max);
+            byCheckIn.computeIfAbsent(checkIn, day -> new ConcurrentSkipListSet<>(PRIORITY)).add(entry);
+        }
+
+        /**
+        * @return true if this call removed the entry from its queue
+        */
+        boolean remove(WaitlistEntry entry) {
+            ConcurrentSkipListSet<WaitlistEntry> queue = byCheckIn.get(entry.getCheckIn().toEpochDay());
+            return queue != null && queue.remove(entry);
+        }
+
+        /**
+        * Count a stay as waiting if no night of it already has limit entries waiting.
+        * @return true if the stay was counted
+        */
+        boolean tryHold(long from, long to, int limit) {
+            for (long day = from; day < to; day++) {
+                int slot = slot(day);
+                int count;
+                do {
+                    count = waiting.get(slot);
+                    if (count >= limit) {
+                        release(from, day);
+                        return false;
+                    }
+                } while (!waiting.compareAndSet(slot, count, count + 1));
+            }
+            return true;
+        }
+
+        /**
+        * Count a stay as waiting whatever the limit, for entries already accepted.
+        */
+        void hold(WaitlistEntry entry) {
+            for (long day = entry.getCheckIn().toEpochDay(); day < entry.getCheckOut().toEpochDay(); day++) {
+                waiting.incrementAndGet(slot(day));
+            }
+        }
+
+        void release(WaitlistEntry entry) {
+            release(entry.getCheckIn().toEpochDay(), entry.getCheckOut().toEpochDay());
+        }
+
+        void release(long from, long to) {
+            for (long day = from; day < to; day++) {
+                waiting.decrementAndGet(slot(day));
+            }
+        }
+
+        private int slot(long day) {
+            return (int) Math.floorMod(day, (long) waiting.length());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.skillstorm.hotel_management.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.cache.autoconfigure.CacheAutoConfiguration;
+import org.springframework.boot.cache.autoconfigure.metrics.CacheMetricsAutoConfiguration;
+import org.springframework.boot.micrometer.metrics.autoconfigure.MetricsAutoConfiguration;
+import org.springframework.boot.micrometer.metrics.autoconfigure.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.skillstorm.hotel_management.dtos.Room.EditRoomDto;
+import com.skillstorm.hotel_management.dtos.User.EditProfileUserDto;
+import com.skillstorm.hotel_management.dtos.User.EditRolesDto;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomType;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.repositories.PatchUpdate;
+import com.skillstorm.hotel_management.repositories.RoomNightsRepository;
+import com.skillstorm.hotel_management.repositories.RoomRepository;
+import com.skillstorm.hotel_management.repositories.UserRepository;
+import com.skillstorm.hotel_management.services.AvailabilityIndex;
+import com.skillstorm.hotel_management.services.ImageService;
+import com.skillstorm.hotel_management.services.OutboxService;
+import com.skillstorm.hotel_management.services.PasswordService;
+import com.skillstorm.hotel_management.services.RoomService;
+import com.skillstorm.hotel_management.services.TokenService;
+import com.skillstorm.hotel_management.services.UserService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * The caches as configured in application.yml, in front of mocked repositories.
+ */
+class CacheConfigTests {
+
+	private final RoomRepository roomRepository = mock(RoomRepository.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final ImageService imageService = mock(ImageService.class);
+
+	private final ApplicationContextRunner runner = new ApplicationContextRunner()
+		.withInitializer(new ConfigDataApplicationContextInitializer())
+		.withConfiguration(AutoConfigurations.of(CacheAutoConfiguration.class, MetricsAutoConfiguration.class,
+			SimpleMetricsExportAutoConfiguration.class, CacheMetricsAutoConfiguration.class))
+		.withUserConfiguration(CacheConfig.class, RoomService.class, UserService.class)
+		.withBean(RoomRepository.class, () -> roomRepository)
+		.withBean(RoomNightsRepository.class, () -> mock(RoomNightsRepository.class))
+		.withBean(AvailabilityIndex.class, () -> new AvailabilityIndex(null, null, 30))
+		.withBean(ImageService.class, () -> imageService)
+		.withBean(ObjectMapper.class, () -> JsonMapper.builder().build())
+		.withBean(UserRepository.class, () -> userRepository)
+		.withBean(OutboxService.class, () -> mock(OutboxService.class))
+		.withBean(PasswordService.class, () -> mock(PasswordService.class))
+		.withBean(TokenService.class, () -> mock(TokenService.class));
+
+	@Test
+	void roomWritesUpdateBothRoomCaches() {
+		when(roomRepository.findById("r1")).thenReturn(Optional.of(room(150.0, List.of())));
+		when(roomRepository.patchRoom(eq("r1"), any(PatchUpdate.class))).thenReturn(Optional.of(room(180.0, List.of())));
+		when(imageService.store(any(), anyString())).thenReturn("img1");
+		when(roomRepository.addImage("r1", "img1", 20)).thenReturn(Optional.of(room(180.0, List.of("img1"))));
+		when(roomRepository.removeImage("r1", "img1")).thenReturn(Optional.of(room(180.0, List.of())));
+
+		runner.run(context -> {
+			RoomService roomService = context.getBean(RoomService.class);
+			Cache rooms = context.getBean(CacheManager.class).getCache(CacheConfig.ROOMS);
+			Cache roomsByNumber = context.getBean(CacheManager.class).getCache(CacheConfig.ROOMS_BY_NUMBER);
+			roomService.getRoomById("r1");
+
+			Room edited = roomService.editRoom("r1", new EditRoomDto(null, 180.0, null, null, null, null, null, null, null));
+			assertSame(edited, rooms.get("r1", Room.class));
+			assertSame(edited, roomsByNumber.get("101", Room.class));
+
+			Room withImage = roomService.addImage("r1", new ByteArrayInputStream(new byte[0]), "image/png");
+			assertSame(withImage, rooms.get("r1", Room.class));
+			assertSame(withImage, roomsByNumber.get("101", Room.class));
+
+			Room withoutImage = roomService.removeImage("r1", "img1");
+			assertSame(withoutImage, rooms.get("r1", Room.class));
+			assertSame(withoutImage, roomsByNumber.get("101", Room.class));
+		});
+	}
+
+	@Test
+	void deletedRoomIsDroppedFromBothRoomCaches() {
+		when(roomRepository.findById("r1")).thenReturn(Optional.of(room(150.0, List.of())));
+		when(roomRepository.findByRoomNumber("101")).thenReturn(Optional.of(room(150.0, List.of())));
+
+		runner.run(context -> {
+			RoomService roomService = context.getBean(RoomService.class);
+			Cache rooms = context.getBean(CacheManager.class).getCache(CacheConfig.ROOMS);
+			Cache roomsByNumber = context.getBean(CacheManager.class).getCache(CacheConfig.ROOMS_BY_NUMBER);
+			roomService.getRoomById("r1");
+			roomService.getRoomByNumber("101");
+			assertNotNull(rooms.get("r1"));
+			assertNotNull(roomsByNumber.get("101"));
+
+			roomService.deleteRoom("r1");
+
+			assertNull(rooms.get("r1"));
+			assertNull(roomsByNumber.get("101"));
+		});
+	}
+
+	@Test
+	void userWritesUpdateTheCacheAndDeleteDropsIt() {
+		when(userRepository.findByEmail("guest@hotel.test")).thenReturn(Optional.of(user("Guest", "ROLE_GUEST")));
+		when(userRepository.patchUser(eq("u1"), any(PatchUpdate.class)))
+			.thenReturn(Optional.of(user("Renamed", "ROLE_GUEST")), Optional.of(user("Renamed", "ROLE_EMPLOYEE")));
+		when(userRepository.findById("u1")).thenReturn(Optional.of(user("Renamed", "ROLE_EMPLOYEE")));
+
+		runner.run(context -> {
+			UserService userService = context.getBean(UserService.class);
+			Cache usersByEmail = context.getBean(CacheManager.class).getCache(CacheConfig.USERS_BY_EMAIL);
+			userService.getUserByEmail("guest@hotel.test");
+
+			User renamed = userService.editUserProfile("u1", new EditProfileUserDto("Renamed", null, null, null, null, null));
+			assertSame(renamed, usersByEmail.get("guest@hotel.test", User.class));
+
+			User promoted = userService.editUserRoles("u1", new EditRolesDto(List.of("ROLE_EMPLOYEE")));
+			assertSame(promoted, usersByEmail.get("guest@hotel.test", User.class));
+			assertSame(promoted, userService.getUserByEmail("guest@hotel.test"));
+
+			userService.deleteUser("u1");
+			assertNull(usersByEmail.get("guest@hotel.test"));
+		});
+	}
+
+	@Test
+	void cacheStatsAreReportedToTheMeterRegistry() {
+		when(roomRepository.findById("r1")).thenReturn(Optional.of(room(150.0, List.of())));
+
+		runner.run(context -> {
+			RoomService roomService = context.getBean(RoomService.class);
+			MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+			roomService.getRoomById("r1");
+			roomService.getRoomById("r1");
+			roomService.getRoomById("r1");
+
+			assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", CacheConfig.ROOMS, "result", "miss").functionCounter().count());
+			assertEquals(2.0, meterRegistry.get("cache.gets").tags("cache", CacheConfig.ROOMS, "result", "hit").functionCounter().count());
+			assertEquals(0.0, meterRegistry.get("cache.evictions").tags("cache", CacheConfig.ROOMS).functionCounter().count());
+			meterRegistry.get("cache.gets").tags("cache", CacheConfig.USERS_BY_EMAIL).functionCounter();
+		});
+	}
+
+	private static Room room(double pricePerNight, List<String> images) {
+		Room room = new Room();
+		room.setId("r1");
+		room.setRoomNumber("101");
+		room.setType(RoomType.STANDARD);
+		room.setFloor(1);
+		room.setPricePerNight(pricePerNight);
+		room.setImages(images);
+		return room;
+	}
+
+	private static User user(String firstName, String role) {
+		User user = new User("guest@hotel.test", "{bcrypt}hash", firstName, "User", null, List.of(role), null);
+		user.setId("u1");
+		return user;
+	}
+}
@@ -0,0 +1,68 @@
+package com.skillstorm.hotel_management.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.skillstorm.hotel_management.models.BedType;
+import com.skillstorm.hotel_management.models.CodedEnum;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomStatus;
+import com.skillstorm.hotel_management.models.RoomType;
+
+class CodedEnumConvertersTests {
+
+	private final MappingMongoConverter converter = converter();
+
+	@Test
+	void enumsAreWrittenAsCodesAndReadBack() {
+		Room room = new Room();
+		room.setType(RoomType.SUITE);
+		room.setBedType(BedType.KING);
+		room.setStatus(RoomStatus.OUT_OF_ORDER);
+
+		Document document = new Document();
+		converter.write(room, document);
+		assertEquals(5, document.get("type"));
+		assertEquals(5, document.get("bedType"));
+		assertEquals(5, document.get("status"));
+
+		Room read = converter.read(Room.class, document);
+		assertEquals(RoomType.SUITE, read.getType());
+		assertEquals(BedType.KING, read.getBedType());
+		assertEquals(RoomStatus.OUT_OF_ORDER, read.getStatus());
+	}
+
+	@Test
+	void namesStoredBeforeTheMigrationStillRead() {
+		Room read = converter.read(Room.class, new Document("type", "DELUXE").append("bedType", "TWIN").append("status", "CLEANING"));
+
+		assertEquals(RoomType.DELUXE, read.getType());
+		assertEquals(BedType.TWIN, read.getBedType());
+		assertEquals(RoomStatus.CLEANING, read.getStatus());
+	}
+
+	@Test
+	void clientValuesIgnoreCaseAndSeparators() {
+		assertEquals(RoomStatus.OUT_OF_ORDER, CodedEnum.parse(RoomStatus.class, "out-of-order"));
+		assertEquals(RoomType.FAMILY, RoomType.of(" Family "));
+		assertThrows(IllegalArgumentException.class, () -> BedType.of("waterbed"));
+	}
+
+	private static MappingMongoConverter converter() {
+		MongoCustomConversions conversions = new MongoCustomConversions(CodedEnumConverters.converters());
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		mappingContext.afterPropertiesSet();
+		MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+		return converter;
+	}
+}
@@ -0,0 +1,75 @@
+package com.skillstorm.hotel_management.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.skillstorm.hotel_management.exceptions.ConflictException;
+import com.skillstorm.hotel_management.exceptions.NotFoundException;
+import com.skillstorm.hotel_management.exceptions.UnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ApiExceptionHandlerTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ApiExceptionHandler handler = new ApiExceptionHandler(meterRegistry);
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void domainErrorsMapToTheirStatusAndAreCounted() {
+		ResponseEntity<ProblemDetail> notFound = handler.handleNotFound(new NotFoundException("Room with number 101 not found"));
+		assertEquals(404, notFound.getStatusCode().value());
+		assertEquals("Room with number 101 not found", notFound.getBody().getDetail());
+		assertEquals(409, handler.handleConflict(new ConflictException("Room is not available")).getStatusCode().value());
+		handler.handleNotFound(new NotFoundException("Image not found"));
+
+		assertEquals(2, meterRegistry.counter("hotel.errors", "exception", "NotFoundException", "status", "404").count());
+		assertEquals(1, meterRegistry.counter("hotel.errors", "exception", "ConflictException", "status", "409").count());
+	}
+
+	@Test
+	void fullPoolAsksTheClientToRetry() {
+		ResponseEntity<ProblemDetail> response = handler.handleTooBusy(new RejectedExecutionException());
+
+		assertEquals(503, response.getStatusCode().value());
+		assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+	}
+
+	@Test
+	void loadingAvailabilityIsATemporary503() {
+		ResponseEntity<ProblemDetail> response = handler.handleUnavailable(new UnavailableException("Room availability is still loading"));
+
+		assertEquals(503, response.getStatusCode().value());
+		assertEquals("5", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+	}
+
+	@Test
+	void deniedAccessIs401WhenAnonymousAnd403Otherwise() {
+		assertEquals(401, handler.handleAccessDenied(new AccessDeniedException("denied")).getStatusCode().value());
+
+		SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated("guest", null, null));
+		assertEquals(403, handler.handleAccessDenied(new AccessDeniedException("denied")).getStatusCode().value());
+	}
+
+	@Test
+	void unexpectedErrorsDoNotLeakTheirMessage() {
+		ResponseEntity<ProblemDetail> response = handler.handleUnexpected(new IllegalStateException("connection string secret"));
+
+		assertEquals(500, response.getStatusCode().value());
+		assertEquals("Unexpected error", response.getBody().getDetail());
+	}
+}
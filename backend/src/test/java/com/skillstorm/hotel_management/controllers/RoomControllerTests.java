@@ -0,0 +1,63 @@
+package com.skillstorm.hotel_management.controllers;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.services.RoomEventService;
+import com.skillstorm.hotel_management.services.RoomService;
+
+class RoomControllerTests {
+
+	private final RoomService roomService = mock(RoomService.class);
+	private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new RoomController(roomService, mock(RoomEventService.class))).build();
+
+	@Test
+	void unchangedRoomIsNotSentAgain() throws Exception {
+		Room room = new Room();
+		room.setId("r1");
+		room.setUpdatedAt(new Date(1_700_000_000_000L));
+		when(roomService.getRoomById("r1")).thenReturn(room);
+
+		String eTag = mockMvc.perform(get("/rooms/r1"))
+			.andExpect(status().isOk())
+			.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/rooms/r1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+			.andExpect(status().isNotModified());
+		room.setUpdatedAt(new Date(1_700_000_001_000L));
+		mockMvc.perform(get("/rooms/r1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+			.andExpect(status().isOk());
+	}
+
+	@Test
+	void unchangedListIsNotReadAgain() throws Exception {
+		when(roomService.getRoomsVersion()).thenReturn("2-abc");
+
+		mockMvc.perform(get("/rooms/all").header(HttpHeaders.IF_NONE_MATCH, "W/\"2-abc\""))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, "W/\"2-abc\""));
+		verify(roomService, never()).getAllRooms();
+
+		// A deletion lowers the count
+		when(roomService.getRoomsVersion()).thenReturn("1-abc");
+		when(roomService.getAllRooms()).thenReturn(List.of(new Room()));
+		mockMvc.perform(get("/rooms/all").header(HttpHeaders.IF_NONE_MATCH, "W/\"2-abc\""))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "W/\"1-abc\""));
+	}
+}
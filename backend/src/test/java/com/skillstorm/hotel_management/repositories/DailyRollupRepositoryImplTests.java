@@ -0,0 +1,89 @@
+package com.skillstorm.hotel_management.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.skillstorm.hotel_management.models.DailyRollup;
+import com.skillstorm.hotel_management.models.RoomType;
+
+class DailyRollupRepositoryImplTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final BulkOperations bulkOps = mock(BulkOperations.class);
+	private final DailyRollupRepositoryImpl dailyRollupRepository = new DailyRollupRepositoryImpl(mongoTemplate);
+
+	@Test
+	void bookingsStampTheRowsTheyChange() {
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, DailyRollup.class)).thenReturn(bulkOps);
+
+		dailyRollupRepository.addNights(RoomType.SUITE, 1, List.of(20000L), 1, 150, 4);
+
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(bulkOps).upsert(any(Query.class), update.capture());
+		Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+		assertEquals(Set.of("updatedAt"), set.keySet());
+	}
+
+	@Test
+	void reconcileSkipsRowsChangedSinceTheSnapshot() {
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, DailyRollup.class)).thenReturn(bulkOps);
+		// The row was booked after the snapshot, so the upsert finds no match and collides with the existing _id
+		when(bulkOps.execute()).thenThrow(bulkFailure(11000));
+		Date snapshotAt = new Date();
+
+		dailyRollupRepository.replaceRange(20000, 20001, List.of(new DailyRollup(20000, "2024-10", RoomType.SUITE, 1, 4, 2, 300)), snapshotAt);
+
+		ArgumentCaptor<Query> upsert = ArgumentCaptor.forClass(Query.class);
+		verify(bulkOps).upsert(upsert.capture(), any(Update.class));
+		assertEquals(unchangedSince(snapshotAt), upsert.getValue().getQueryObject().getList("$and", Document.class).get(0));
+
+		ArgumentCaptor<Query> stale = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).remove(stale.capture(), eq(DailyRollup.class));
+		assertEquals(unchangedSince(snapshotAt), stale.getValue().getQueryObject().getList("$and", Document.class).get(0));
+	}
+
+	@Test
+	void otherWriteErrorsAreNotSwallowed() {
+		when(mongoTemplate.bulkOps(BulkMode.UNORDERED, DailyRollup.class)).thenReturn(bulkOps);
+		when(bulkOps.execute()).thenThrow(bulkFailure(121));
+
+		assertThrows(BulkOperationException.class, () -> dailyRollupRepository.replaceRange(20000, 20001,
+			List.of(new DailyRollup(20000, "2024-10", RoomType.SUITE, 1, 4, 2, 300)), new Date()));
+	}
+
+	private static Document unchangedSince(Date snapshotAt) {
+		return new Document("$or", List.of(
+			new Document("updatedAt", new Document("$exists", false)),
+			new Document("updatedAt", new Document("$lt", snapshotAt))));
+	}
+
+	private static BulkOperationException bulkFailure(int code) {
+		BulkWriteError error = new BulkWriteError(code, "write failed", new BsonDocument(), 0);
+		return new BulkOperationException("write failed", new MongoBulkWriteException(
+			BulkWriteResult.unacknowledged(), List.of(error), null, new ServerAddress(), Set.of()));
+	}
+}
@@ -0,0 +1,45 @@
+package com.skillstorm.hotel_management.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+class PatchUpdateTests {
+
+	@Test
+	void onlyFieldsThatWereSentAreSet() {
+		PatchUpdate patch = new PatchUpdate()
+			.set("description", "Sea view")
+			.set("pricePerNight", null)
+			.set("amenities", List.of());
+
+		Document update = patch.toUpdate().getUpdateObject();
+
+		assertFalse(patch.isEmpty());
+		assertEquals(Set.of("$set"), update.keySet());
+		Document set = update.get("$set", Document.class);
+		assertEquals(Set.of("description", "amenities", "updatedAt"), set.keySet());
+		// An empty list is a value, so it clears the stored one; only null keeps it
+		assertEquals(List.of(), set.get("amenities"));
+	}
+
+	@Test
+	void patchWithOnlyNullsIsEmpty() {
+		PatchUpdate patch = new PatchUpdate().set("description", null).set("size", null);
+
+		assertTrue(patch.isEmpty());
+		// Nothing is ever unset, the update only stamps updatedAt
+		Document update = patch.toUpdate().getUpdateObject();
+		assertEquals(Set.of("$set"), update.keySet());
+		assertEquals(Set.of("updatedAt"), update.get("$set", Document.class).keySet());
+		assertInstanceOf(Date.class, update.get("$set", Document.class).get("updatedAt"));
+	}
+}
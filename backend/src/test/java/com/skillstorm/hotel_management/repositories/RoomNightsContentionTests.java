@@ -0,0 +1,113 @@
+package com.skillstorm.hotel_management.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.skillstorm.hotel_management.models.RoomNights;
+
+/**
+ * Contention benchmark for the booking claim. Many threads book overlapping stays on a few rooms
+ * and the test checks that no night was sold twice, then prints the claim throughput.
+ * Needs a running Mongo: mvn test -Dtest=RoomNightsContentionTests -Dmongo.uri=mongodb://localhost:27017
+ */
+@EnabledIfSystemProperty(named = "mongo.uri", matches = ".+")
+class RoomNightsContentionTests {
+
+	private static final int ROOMS = 10;
+	private static final int THREADS = 64;
+	private static final int ATTEMPTS = 20_000;
+	private static final int DAYS = 60;
+
+	private MongoClient client;
+	private MongoTemplate mongoTemplate;
+	private RoomNightsRepositoryImpl repository;
+
+	private record Claim(String roomId, List<Long> nights) {}
+
+	@BeforeEach
+	void setUp() {
+		client = MongoClients.create(System.getProperty("mongo.uri"));
+		mongoTemplate = new MongoTemplate(client, "booking_contention_test");
+		mongoTemplate.dropCollection(RoomNights.class);
+		repository = new RoomNightsRepositoryImpl(mongoTemplate);
+		for (int i = 0; i < ROOMS; i++) {
+			repository.createIfMissing("room-" + i);
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongoTemplate.getDb().drop();
+		client.close();
+	}
+
+	@Test
+	void concurrentClaimsNeverDoubleBook() throws InterruptedException {
+		Queue<Claim> claims = new ConcurrentLinkedQueue<>();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+
+		for (int i = 0; i < ATTEMPTS; i++) {
+			executor.execute(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				String roomId = "room-" + random.nextInt(ROOMS);
+				long from = random.nextInt(DAYS);
+				List<Long> nights = LongStream.range(from, from + 1 + random.nextInt(3)).boxed().toList();
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				if (repository.claimNights(roomId, nights)) {
+					claims.add(new Claim(roomId, nights));
+				}
+			});
+		}
+
+		long started = System.nanoTime();
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+		double seconds = (System.nanoTime() - started) / 1e9;
+
+		// Every claimed night must appear exactly once per room
+		Set<String> sold = new HashSet<>();
+		for (Claim claim : claims) {
+			for (Long night : claim.nights()) {
+				assertTrue(sold.add(claim.roomId() + "/" + night), "night sold twice: " + claim);
+			}
+		}
+
+		// And the stored calendars must hold exactly the claimed nights
+		int stored = 0;
+		for (RoomNights nights : mongoTemplate.findAll(RoomNights.class)) {
+			assertEquals(nights.getNights().size(), new HashSet<>(nights.getNights()).size());
+			stored += nights.getNights().size();
+		}
+		assertEquals(sold.size(), stored);
+
+		System.out.printf("%d claim attempts by %d threads in %.2fs: %.0f attempts/s, %d succeeded%n",
+			ATTEMPTS, THREADS, seconds, ATTEMPTS / seconds, claims.size());
+	}
+}
@@ -0,0 +1,95 @@
+package com.skillstorm.hotel_management.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.skillstorm.hotel_management.dtos.Room.FacetCountDto;
+import com.skillstorm.hotel_management.dtos.Room.RoomSearchCriteria;
+import com.skillstorm.hotel_management.dtos.Room.RoomSearchResultDto;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomType;
+
+class RoomRepositoryImplTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final RoomRepositoryImpl roomRepository = new RoomRepositoryImpl(mongoTemplate);
+
+	@Test
+	void searchContinuesAfterTheCursorWithoutHeavyFields() {
+		roomRepository.searchRooms(new RoomSearchCriteria(null, RoomType.SUITE, null, 100.0, null, null,
+			List.of("wifi"), null, "204", 10, false), 11);
+
+		Query query = capturedQuery();
+		Document filter = query.getQueryObject();
+		assertEquals(RoomType.SUITE, filter.get("type"));
+		assertEquals(new Document("$gte", 100.0), filter.get("pricePerNight"));
+		assertEquals(new Document("$all", List.of("wifi")), filter.get("amenities"));
+		assertEquals(new Document("$gt", "204"), filter.get("roomNumber"));
+		assertEquals(Document.parse("{\"roomNumber\": 1}"), query.getSortObject());
+		assertEquals(11, query.getLimit());
+		assertEquals(Document.parse("{\"images\": 0, \"description\": 0}"), query.getFieldsObject());
+	}
+
+	@Test
+	void firstPageWithDetailsHasNoCursorOrProjection() {
+		roomRepository.searchRooms(new RoomSearchCriteria(null, null, null, null, null, null, null, null, " ", null, true), 21);
+
+		Query query = capturedQuery();
+		assertTrue(query.getQueryObject().isEmpty());
+		assertTrue(query.getFieldsObject().isEmpty());
+		assertEquals(21, query.getLimit());
+	}
+
+	@Test
+	void facetCountsAreReadWithPriceRangesLabelled() {
+		Document result = Document.parse("""
+			{"rooms": [],
+			 "types": [], "bedTypes": [],
+			 "floors": [{"_id": 2, "count": 3}, {"_id": 1, "count": 1}],
+			 "priceRanges": [{"_id": 100, "count": 2}, {"_id": "500+", "count": 1}],
+			 "amenities": [{"_id": "wifi", "count": 4}]}
+			""");
+		when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+			.thenReturn(new AggregationResults<>(List.of(result), new Document()));
+
+		RoomSearchResultDto search = roomRepository.searchRoomsWithFacets(new RoomSearchCriteria("sea view", null, null, null, null, null,
+			null, null, "204", 10, false), 11);
+
+		assertEquals(List.of(new FacetCountDto("2", 3), new FacetCountDto("1", 1)), search.facets().floors());
+		assertEquals(List.of(new FacetCountDto("100-150", 2), new FacetCountDto("500+", 1)), search.facets().priceRanges());
+		assertEquals(List.of(new FacetCountDto("wifi", 4)), search.facets().amenities());
+		assertNull(search.nextCursor());
+
+		ArgumentCaptor<TypedAggregation<?>> aggregation = ArgumentCaptor.captor();
+		verify(mongoTemplate).aggregate(aggregation.capture(), eq(Document.class));
+		List<Document> pipeline = aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+		// $text has to come first, and the cursor narrows only the page of rooms, not the counts
+		assertTrue(pipeline.get(0).get("$match", Document.class).containsKey("$text"));
+		assertEquals(2, pipeline.size());
+		List<?> page = pipeline.get(1).get("$facet", Document.class).getList("rooms", Document.class);
+		assertEquals(new Document("$match", new Document("roomNumber", new Document("$gt", "204"))), page.get(0));
+	}
+
+	private Query capturedQuery() {
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(query.capture(), eq(Room.class));
+		return query.getValue();
+	}
+}
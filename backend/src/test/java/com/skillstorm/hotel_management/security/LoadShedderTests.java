@@ -0,0 +1,105 @@
+package com.skillstorm.hotel_management.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.skillstorm.hotel_management.config.AdmissionProperties;
+import com.skillstorm.hotel_management.config.AdmissionProperties.Route;
+import com.skillstorm.hotel_management.config.AdmissionProperties.Shedding;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoadShedderTests {
+
+	private static final long MS = 1_000_000L;
+
+	// A max-shed-ratio of 1 sheds every request at twice the threshold, so shouldShed is not left to chance
+	private final AdmissionProperties properties = new AdmissionProperties(true,
+		List.of(new Route("create-room", "POST", "/rooms/new", 1000, 1000)),
+		new Shedding(true, Duration.ofMillis(100), Duration.ofMillis(50), 1.0, Duration.ofSeconds(3)));
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final LoadShedder loadShedder = new LoadShedder(properties, meterRegistry);
+
+	@Test
+	void sheddingStartsOnceTheLatencyAverageCrossesTheThresholdAndStopsBelowIt() {
+		// The average of 400ms samples is 90ms after five, 106ms after six
+		for (int i = 0; i < 5; i++) {
+			loadShedder.recordLatency(400 * MS);
+		}
+		assertEquals(0, loadShedder.shedRatio());
+		loadShedder.recordLatency(400 * MS);
+		assertTrue(loadShedder.shedRatio() > 0);
+
+		// Past twice the threshold every request is shed
+		for (int i = 0; i < 14; i++) {
+			loadShedder.recordLatency(400 * MS);
+		}
+		assertEquals(1.0, loadShedder.shedRatio());
+		assertTrue(loadShedder.shouldShed());
+
+		// 10ms samples bring the average of 257ms back under 100ms on the twentieth
+		for (int i = 0; i < 19; i++) {
+			loadShedder.recordLatency(10 * MS);
+		}
+		assertTrue(loadShedder.shedRatio() > 0);
+		loadShedder.recordLatency(10 * MS);
+		assertEquals(0, loadShedder.shedRatio());
+		assertFalse(loadShedder.shouldShed());
+	}
+
+	@Test
+	void slowConnectionCheckoutsAloneTriggerShedding() {
+		ConnectionId connectionId = new ConnectionId(new ServerId(new ClusterId(), new ServerAddress()));
+		for (int i = 0; i < 40; i++) {
+			loadShedder.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId, i, 500 * MS));
+		}
+
+		assertEquals(1.0, loadShedder.shedRatio());
+		assertEquals(1.0, meterRegistry.get("hotel.admission.shed.ratio").gauge().value());
+	}
+
+	@Test
+	void shedRequestsGet503WithRetryAfterUntilTheOverloadPasses() throws Exception {
+		AdmissionFilter filter = new AdmissionFilter(properties, new RateLimiter(), loadShedder, meterRegistry);
+		for (int i = 0; i < 20; i++) {
+			loadShedder.recordLatency(400 * MS);
+		}
+
+		MockHttpServletResponse shed = new MockHttpServletResponse();
+		MockFilterChain shedChain = new MockFilterChain();
+		filter.doFilter(new MockHttpServletRequest("POST", "/rooms/new"), shed, shedChain);
+
+		assertEquals(503, shed.getStatus());
+		assertEquals("3", shed.getHeader(HttpHeaders.RETRY_AFTER));
+		assertNull(shedChain.getRequest());
+		assertEquals(1.0, meterRegistry.get("hotel.admission.rejected").tags("reason", "shed").counter().count());
+
+		for (int i = 0; i < 40; i++) {
+			loadShedder.recordLatency(10 * MS);
+		}
+		MockHttpServletResponse admitted = new MockHttpServletResponse();
+		MockFilterChain admittedChain = new MockFilterChain();
+		filter.doFilter(new MockHttpServletRequest("POST", "/rooms/new"), admitted, admittedChain);
+
+		assertEquals(200, admitted.getStatus());
+		assertNull(admitted.getHeader(HttpHeaders.RETRY_AFTER));
+		assertNotNull(admittedChain.getRequest());
+	}
+}
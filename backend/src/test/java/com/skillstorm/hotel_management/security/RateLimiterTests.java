@@ -0,0 +1,57 @@
+package com.skillstorm.hotel_management.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.skillstorm.hotel_management.config.AdmissionProperties.Route;
+
+class RateLimiterTests {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	private final Route route = new Route("create-room", "POST", "/rooms/new", 2, 3);
+
+	@Test
+	void burstThenRefused() {
+		RateLimiter rateLimiter = new RateLimiter();
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, rateLimiter.tryAcquire(route, "addr:1", 0));
+		}
+		long wait = rateLimiter.tryAcquire(route, "addr:1", 0);
+
+		// The next token is due half a second after the burst
+		assertEquals(SECOND / 2, wait);
+		assertEquals(0, rateLimiter.tryAcquire(route, "addr:1", wait));
+		assertTrue(rateLimiter.tryAcquire(route, "addr:1", wait) > 0);
+	}
+
+	@Test
+	void refillsAtTheSustainedRate() {
+		RateLimiter rateLimiter = new RateLimiter();
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.tryAcquire(route, "addr:1", 0);
+		}
+
+		// After a second two tokens are back, but no more
+		assertEquals(0, rateLimiter.tryAcquire(route, "addr:1", SECOND));
+		assertEquals(0, rateLimiter.tryAcquire(route, "addr:1", SECOND));
+		assertTrue(rateLimiter.tryAcquire(route, "addr:1", SECOND) > 0);
+	}
+
+	@Test
+	void clientsAndRoutesHaveTheirOwnBuckets() {
+		RateLimiter rateLimiter = new RateLimiter();
+		Route otherRoute = new Route("edit-room", "PUT", "/rooms/edit/{id}", 2, 3);
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.tryAcquire(route, "addr:1", 0);
+		}
+
+		assertTrue(rateLimiter.tryAcquire(route, "addr:1", 0) > 0);
+		assertEquals(0, rateLimiter.tryAcquire(route, "user:u1", 0));
+		assertEquals(0, rateLimiter.tryAcquire(otherRoute, "addr:1", 0));
+		assertEquals(3, rateLimiter.size());
+	}
+}
@@ -0,0 +1,142 @@
+package com.skillstorm.hotel_management.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.skillstorm.hotel_management.dtos.Analytics.AnalyticsRowDto;
+import com.skillstorm.hotel_management.models.BedType;
+import com.skillstorm.hotel_management.models.DailyRollup;
+import com.skillstorm.hotel_management.models.Reservation;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomStatus;
+import com.skillstorm.hotel_management.models.RoomType;
+import com.skillstorm.hotel_management.repositories.DailyRollupRepository;
+import com.skillstorm.hotel_management.repositories.ReservationRepository;
+import com.skillstorm.hotel_management.repositories.RoomRepository;
+
+class AnalyticsServiceTests {
+
+	private final DailyRollupRepository dailyRollupRepository = mock(DailyRollupRepository.class);
+	private final RoomRepository roomRepository = mock(RoomRepository.class);
+	private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+	private final AnalyticsService analyticsService = new AnalyticsService(
+		dailyRollupRepository, roomRepository, reservationRepository, Runnable::run, 0, 1);
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void reconcileRecomputesEveryNightOfEveryRoomGroup() {
+		LocalDate today = LocalDate.now();
+		when(roomRepository.streamAllBy()).thenReturn(Stream.of(room("r1", RoomType.SUITE, 1), room("r2", RoomType.SUITE, 1), room("r3", RoomType.DOUBLE, 2)));
+		Reservation stay = new Reservation("r1", "u1", today, today.plusDays(2), 2, 300, ReservationService.CONFIRMED);
+		when(reservationRepository.streamByStatusAndCheckOutAfter(eq(ReservationService.CONFIRMED), any())).thenReturn(Stream.of(stay));
+
+		analyticsService.reconcile();
+
+		ArgumentCaptor<Collection<DailyRollup>> rollups = ArgumentCaptor.forClass(Collection.class);
+		verify(dailyRollupRepository).replaceRange(eq(today.toEpochDay()), eq(today.plusDays(2).toEpochDay()), rollups.capture(), any());
+		Map<String, DailyRollup> byId = rollups.getValue().stream().collect(Collectors.toMap(DailyRollup::getId, Function.identity()));
+		assertEquals(4, byId.size());
+
+		DailyRollup suite = byId.get(DailyRollup.idOf(today.toEpochDay(), RoomType.SUITE, 1));
+		assertEquals(2, suite.getRooms());
+		assertEquals(1, suite.getRoomNightsSold());
+		assertEquals(150, suite.getRevenue());
+		DailyRollup twin = byId.get(DailyRollup.idOf(today.plusDays(1).toEpochDay(), RoomType.DOUBLE, 2));
+		assertEquals(1, twin.getRooms());
+		assertEquals(0, twin.getRoomNightsSold());
+	}
+
+	@Test
+	void bookingAddsItsNightsWithTheRoomCount() {
+		LocalDate checkIn = LocalDate.now();
+		when(roomRepository.streamAllBy()).thenReturn(Stream.of(room("r1", RoomType.SUITE, 1), room("r2", RoomType.SUITE, 1)));
+		when(reservationRepository.streamByStatusAndCheckOutAfter(any(), any())).thenReturn(Stream.empty());
+		analyticsService.reconcile();
+
+		Reservation stay = new Reservation("r1", "u1", checkIn, checkIn.plusDays(3), 2, 300, ReservationService.CONFIRMED);
+		analyticsService.recordBooked(stay, room("r1", RoomType.SUITE, 1));
+
+		long first = checkIn.toEpochDay();
+		verify(dailyRollupRepository).addNights(RoomType.SUITE, 1, List.of(first, first + 1, first + 2), 1, 100, 2);
+	}
+
+	@Test
+	void cancellationTakesNightsOutOfTheRowsTheyWereBookedUnder() {
+		LocalDate checkIn = LocalDate.now();
+		Reservation stay = new Reservation("r1", "u1", checkIn, checkIn.plusDays(1), 2, 100, ReservationService.CANCELLED);
+		stay.setRoomType(RoomType.SUITE);
+		stay.setFloor(1);
+		// The room has become a double on another floor since it was booked
+		when(roomRepository.findById("r1")).thenReturn(Optional.of(room("r1", RoomType.DOUBLE, 2)));
+
+		analyticsService.recordCancelled(stay);
+
+		verify(dailyRollupRepository).addNights(RoomType.SUITE, 1, List.of(checkIn.toEpochDay()), -1, 100, 0);
+		verify(roomRepository, never()).findById(any());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void reconcileCountsStaysUnderTheTypeTheyWereBookedWith() {
+		LocalDate today = LocalDate.now();
+		when(roomRepository.streamAllBy()).thenReturn(Stream.of(room("r1", RoomType.DOUBLE, 2)));
+		Reservation stay = new Reservation("r1", "u1", today, today.plusDays(1), 2, 100, ReservationService.CONFIRMED);
+		stay.setRoomType(RoomType.SUITE);
+		stay.setFloor(1);
+		when(reservationRepository.streamByStatusAndCheckOutAfter(eq(ReservationService.CONFIRMED), any())).thenReturn(Stream.of(stay));
+
+		analyticsService.reconcile();
+
+		ArgumentCaptor<Collection<DailyRollup>> rollups = ArgumentCaptor.forClass(Collection.class);
+		verify(dailyRollupRepository).replaceRange(anyLong(), anyLong(), rollups.capture(), any());
+		Map<String, DailyRollup> byId = rollups.getValue().stream().collect(Collectors.toMap(DailyRollup::getId, Function.identity()));
+		assertEquals(1, byId.get(DailyRollup.idOf(today.toEpochDay(), RoomType.SUITE, 1)).getRoomNightsSold());
+		assertEquals(0, byId.get(DailyRollup.idOf(today.toEpochDay(), RoomType.DOUBLE, 2)).getRoomNightsSold());
+	}
+
+	@Test
+	void reportDerivesRatesFromSums() {
+		AnalyticsRowDto row = AnalyticsRowDto.of("2026-10", 100, 80, 12000);
+
+		assertEquals(0.8, row.occupancy());
+		assertEquals(150, row.adr());
+		assertEquals(120, row.revpar());
+		assertEquals(0, AnalyticsRowDto.of("empty", 0, 0, 0).revpar());
+	}
+
+	@Test
+	void reportRejectsInvalidRequests() {
+		LocalDate today = LocalDate.now();
+
+		assertThrows(IllegalArgumentException.class, () -> analyticsService.getReport(today, today, "month"));
+		assertThrows(IllegalArgumentException.class, () -> analyticsService.getReport(today, today.plusYears(5), "month"));
+		assertThrows(IllegalArgumentException.class, () -> analyticsService.getReport(today, today.plusDays(1), "week"));
+		analyticsService.getReport(today, today.plusDays(1), "total");
+		verify(dailyRollupRepository).summarize(anyLong(), anyLong(), eq(null));
+	}
+
+	private static Room room(String id, RoomType type, int floor) {
+		Room room = new Room(id, type, null, 100, 2, BedType.KING, 30, floor, List.of(), List.of(), true, RoomStatus.AVAILABLE);
+		room.setId(id);
+		return room;
+	}
+}
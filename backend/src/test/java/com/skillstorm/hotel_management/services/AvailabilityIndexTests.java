@@ -0,0 +1,165 @@
+package com.skillstorm.hotel_management.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomType;
+
+class AvailabilityIndexTests {
+
+	private final LocalDate today = LocalDate.now();
+	private AvailabilityIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new AvailabilityIndex(null, null, 30);
+		index.registerRoom(room("r1"));
+		index.registerRoom(room("r2"));
+	}
+
+	@Test
+	void overlappingStaysCannotBothBeBooked() {
+		assertTrue(index.tryBook("r1", today.plusDays(2), today.plusDays(5)));
+		assertFalse(index.tryBook("r1", today.plusDays(4), today.plusDays(6)));
+		assertFalse(index.isAvailable("r1", today, today.plusDays(3)));
+	}
+
+	@Test
+	void checkOutDayCanBeNextCheckIn() {
+		assertTrue(index.tryBook("r1", today.plusDays(2), today.plusDays(5)));
+		assertTrue(index.tryBook("r1", today.plusDays(5), today.plusDays(7)));
+		assertTrue(index.tryBook("r1", today, today.plusDays(2)));
+	}
+
+	@Test
+	void releasedNightsCanBeBookedAgain() {
+		assertTrue(index.tryBook("r1", today.plusDays(1), today.plusDays(3)));
+		index.release("r1", today.plusDays(1), today.plusDays(3));
+		assertTrue(index.isAvailable("r1", today.plusDays(1), today.plusDays(3)));
+	}
+
+	@Test
+	void findsOnlyRoomsFreeForTheWholeStay() {
+		index.mark("r2", today.plusDays(3), today.plusDays(4));
+		assertEquals(List.of("r1"), index.findAvailableRoomIds(today.plusDays(1), today.plusDays(5)));
+		assertEquals(2, index.findAvailableRoomIds(today.plusDays(4), today.plusDays(6)).size());
+	}
+
+	@Test
+	void concurrentBookingsNeverOverlap() throws InterruptedException {
+		AtomicIntegerArray bookedNights = new AtomicIntegerArray(10);
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		for (int i = 0; i < 1_000; i++) {
+			int from = i % 9;
+			int to = from + 1 + i % 2;
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				if (index.tryBook("r1", today.plusDays(from), today.plusDays(to))) {
+					for (int night = from; night < to; night++) {
+						bookedNights.incrementAndGet(night);
+					}
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+		for (int night = 0; night < 10; night++) {
+			assertTrue(bookedNights.get(night) <= 1, "night " + night + " booked twice");
+		}
+	}
+
+	@Test
+	void unknownRoomsAreNeverAvailable() {
+		assertFalse(index.isAvailable("missing", today, today.plusDays(1)));
+		assertFalse(index.tryBook("missing", today, today.plusDays(1)));
+	}
+
+	@Test
+	void rollingDropsPastNights() {
+		AvailabilityIndex.RoomCalendar calendar = new AvailabilityIndex.RoomCalendar(new AvailabilityIndex.TypeOccupancy(RoomType.STANDARD, 10), 100, 10);
+		calendar.set(101, 103, true);
+		calendar.rollTo(102);
+		assertFalse(calendar.isFree(102, 103));
+		assertTrue(calendar.isFree(103, 112));
+	}
+
+	@Test
+	void occupancyFollowsBookingsReleasesAndTypeChanges() {
+		long night = today.plusDays(3).toEpochDay();
+		index.tryBook("r1", today.plusDays(2), today.plusDays(5));
+		index.mark("r2", today.plusDays(3), today.plusDays(4));
+		assertEquals(1.0, index.getOccupancy(RoomType.STANDARD, night));
+		assertEquals(0.5, index.getOccupancy(RoomType.STANDARD, night + 1));
+
+		index.release("r2", today.plusDays(3), today.plusDays(4));
+		assertEquals(0.5, index.getOccupancy(RoomType.STANDARD, night));
+
+		index.changeRoomType("r1", RoomType.SUITE);
+		assertEquals(0.0, index.getOccupancy(RoomType.STANDARD, night));
+		assertEquals(1.0, index.getOccupancy(RoomType.SUITE, night));
+
+		index.removeRoom("r1");
+		assertEquals(0.0, index.getOccupancy(RoomType.SUITE, night));
+	}
+
+	@Test
+	void rollingUncountsPastNights() {
+		AvailabilityIndex.TypeOccupancy occupancy = new AvailabilityIndex.TypeOccupancy(RoomType.STANDARD, 10);
+		AvailabilityIndex.RoomCalendar calendar = new AvailabilityIndex.RoomCalendar(occupancy, 100, 10);
+		calendar.set(101, 103, true);
+		calendar.rollTo(102);
+		assertEquals(0, occupancy.booked(101));
+		assertEquals(1, occupancy.booked(102));
+		// Day 111 shares the ring slot of day 101 and must start empty
+		assertEquals(0, occupancy.booked(111));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void failedLoadIsRetriedUntilReady() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.stream(any(Query.class), any(Class.class)))
+			.thenThrow(new DataAccessResourceFailureException("Mongo is down"))
+			.thenAnswer(invocation -> Stream.empty());
+		AvailabilityIndex loading = new AvailabilityIndex(mongoTemplate, null, 30);
+
+		loading.rebuild();
+		assertFalse(loading.isReady());
+		loading.retryRebuild();
+		assertTrue(loading.isReady());
+	}
+
+	private Room room(String id) {
+		Room room = new Room();
+		room.setId(id);
+		room.setType(RoomType.STANDARD);
+		return room;
+	}
+}
@@ -0,0 +1,80 @@
+package com.skillstorm.hotel_management.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+class ImageServiceTests {
+
+	@TempDir
+	Path directory;
+
+	private ImageService imageService;
+
+	@BeforeEach
+	void setUp() {
+		imageService = new ImageService(directory, 32, 1, 10);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		// Background thumbnails must be done before the temporary directory is deleted
+		imageService.shutdown();
+	}
+
+	@Test
+	void identicalUploadsAreStoredOnce() throws IOException {
+		byte[] png = png(200, 100);
+		String first = imageService.store(new ByteArrayInputStream(png), "image/png");
+		String second = imageService.store(new ByteArrayInputStream(png), "image/png");
+		assertEquals(first, second);
+		assertTrue(first.matches("[0-9a-f]{64}\\.png"));
+		try (var files = Files.list(directory.resolve("originals"))) {
+			assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	void thumbnailsAreScaledToWidth() throws IOException {
+		String id = imageService.store(new ByteArrayInputStream(png(200, 100)), "image/png");
+		Resource thumbnail = imageService.load(id, true);
+		BufferedImage image = ImageIO.read(thumbnail.getFile());
+		assertEquals(32, image.getWidth());
+		assertEquals(16, image.getHeight());
+	}
+
+	@Test
+	void rejectsUnsupportedAndUnreadableUploads() {
+		assertThrows(IllegalArgumentException.class,
+			() -> imageService.store(new ByteArrayInputStream(new byte[] { 1, 2, 3 }), "application/pdf"));
+		assertThrows(IllegalArgumentException.class,
+			() -> imageService.store(new ByteArrayInputStream(new byte[] { 1, 2, 3 }), "image/png"));
+	}
+
+	@Test
+	void onlyWellFormedIdsAreLoaded() {
+		assertThrows(IllegalArgumentException.class, () -> imageService.load("../../etc/passwd", false));
+		assertThrows(IllegalArgumentException.class, () -> imageService.load("0".repeat(64) + ".png", false));
+	}
+
+	private static byte[] png(int width, int height) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+		return out.toByteArray();
+	}
+}
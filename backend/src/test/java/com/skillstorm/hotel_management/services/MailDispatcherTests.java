@@ -0,0 +1,106 @@
+package com.skillstorm.hotel_management.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.skillstorm.hotel_management.models.OutboxMessage;
+import com.skillstorm.hotel_management.models.OutboxMessage.Status;
+import com.skillstorm.hotel_management.models.OutboxMessage.Type;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.models.UserPreferences;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Sends outbox batches to a local GreenMail SMTP server. The Mongo claims are not involved.
+ */
+class MailDispatcherTests {
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	@Test
+	void sendsBatchHonoringPreferences() throws Exception {
+		User subscribed = user("a", "a@hotel.test", true);
+		User optedOut = user("b", "b@hotel.test", false);
+		OutboxMessage confirmed = message(Type.RESERVATION_CONFIRMED, "a");
+		OutboxMessage notWanted = message(Type.RESERVATION_CONFIRMED, "b");
+		OutboxMessage verify = message(Type.VERIFY_EMAIL, "b");
+		OutboxMessage deleted = message(Type.RESERVATION_CANCELLED, "gone");
+
+		dispatcher(greenMail.getSmtp().getPort(), 8).send(List.of(confirmed, notWanted, verify, deleted),
+			Map.of("a", subscribed, "b", optedOut));
+
+		assertEquals(Status.SENT, confirmed.getStatus());
+		assertEquals(Status.SKIPPED, notWanted.getStatus());
+		assertEquals(Status.SENT, verify.getStatus());
+		assertEquals(Status.SKIPPED, deleted.getStatus());
+
+		MimeMessage[] received = greenMail.getReceivedMessages();
+		assertEquals(2, received.length);
+		assertEquals("Your reservation is confirmed", received[0].getSubject());
+		assertEquals("b@hotel.test", received[1].getAllRecipients()[0].toString());
+		assertTrue(received[1].getContent().toString().contains("token=secret"));
+	}
+
+	@Test
+	void failedSendsAreRetriedThenGivenUp() throws IOException {
+		int closedPort;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			closedPort = socket.getLocalPort();
+		}
+		OutboxMessage firstAttempt = message(Type.RESERVATION_CONFIRMED, "a");
+		firstAttempt.setAttempts(1);
+		OutboxMessage lastAttempt = message(Type.RESERVATION_CONFIRMED, "a");
+		lastAttempt.setAttempts(3);
+
+		Date before = new Date();
+		dispatcher(closedPort, 3).send(List.of(firstAttempt, lastAttempt), Map.of("a", user("a", "a@hotel.test", true)));
+
+		assertEquals(Status.PENDING, firstAttempt.getStatus());
+		assertTrue(firstAttempt.getNextAttemptAt().getTime() >= before.getTime() + 30_000);
+		assertNotNull(firstAttempt.getLastError());
+		assertEquals(Status.FAILED, lastAttempt.getStatus());
+	}
+
+	private static MailDispatcher dispatcher(int port, int maxAttempts) {
+		JavaMailSenderImpl sender = new JavaMailSenderImpl();
+		sender.setHost("localhost");
+		sender.setPort(port);
+		StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("mailSender", sender));
+		return new MailDispatcher(null, null, beans.getBeanProvider(JavaMailSender.class), new SimpleMeterRegistry(),
+			"no-reply@hotel.test", "http://localhost/users/verify?token=", 50, maxAttempts,
+			Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofHours(1));
+	}
+
+	private static OutboxMessage message(Type type, String userId) {
+		OutboxMessage message = new OutboxMessage(type, userId, Map.of("token", "secret", "roomNumber", "101",
+			"checkIn", "2030-01-01", "checkOut", "2030-01-03", "reservationId", "r-" + userId));
+		message.setStatus(Status.SENDING);
+		return message;
+	}
+
+	private static User user(String id, String email, boolean notifications) {
+		User user = new User(email, "password", "Guest", "User", null, List.of("ROLE_GUEST"),
+			new UserPreferences("en", false, notifications));
+		user.setId(id);
+		return user;
+	}
+}
@@ -0,0 +1,102 @@
+package com.skillstorm.hotel_management.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.skillstorm.hotel_management.config.CacheConfig;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.repositories.UserRepository;
+import com.skillstorm.hotel_management.security.SecurityConfig;
+
+class PasswordServiceTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.USERS_BY_EMAIL);
+	private PasswordService passwordService;
+
+	@AfterEach
+	void tearDown() {
+		if (passwordService != null) {
+			passwordService.shutdown();
+		}
+	}
+
+	@Test
+	void calibrationStaysWithinBounds() {
+		assertTrue(encoder(0, 1, 4, 6).encode("secret").startsWith("{bcrypt}$2a$04$"));
+		assertTrue(encoder(0, 60_000, 4, 5).encode("secret").startsWith("{bcrypt}$2a$05$"));
+	}
+
+	@Test
+	void plainTextPasswordIsRehashedOnLogin() throws Exception {
+		User user = user("secret");
+		when(userRepository.findByEmail("guest@hotel.test")).thenReturn(Optional.of(user));
+		when(userRepository.updatePassword(eq("u1"), eq("secret"), anyString())).thenReturn(true);
+		passwordService = new PasswordService(userRepository, encoder(4, 0, 4, 4), cacheManager, 1, 4);
+
+		cacheManager.getCache(CacheConfig.USERS_BY_EMAIL).put("guest@hotel.test", user("secret"));
+
+		User loggedIn = passwordService.authenticate("guest@hotel.test", "secret").get();
+
+		assertTrue(loggedIn.getPassword().startsWith("{bcrypt}$2a$04$"));
+		assertNull(cacheManager.getCache(CacheConfig.USERS_BY_EMAIL).get("guest@hotel.test"));
+		verify(userRepository).updatePassword(eq("u1"), eq("secret"), anyString());
+	}
+
+	@Test
+	void weakerHashIsUpgradedOnLogin() throws Exception {
+		String weak = encoder(4, 0, 4, 4).encode("secret");
+		when(userRepository.findByEmail("guest@hotel.test")).thenReturn(Optional.of(user(weak)));
+		when(userRepository.updatePassword(eq("u1"), eq(weak), anyString())).thenReturn(true);
+		passwordService = new PasswordService(userRepository, encoder(5, 0, 4, 5), cacheManager, 1, 4);
+
+		User loggedIn = passwordService.authenticate("guest@hotel.test", "secret").get();
+
+		assertTrue(loggedIn.getPassword().startsWith("{bcrypt}$2a$05$"));
+	}
+
+	@Test
+	void wrongPasswordIsRejectedWithoutRehash() {
+		PasswordEncoder encoder = encoder(4, 0, 4, 4);
+		when(userRepository.findByEmail("guest@hotel.test")).thenReturn(Optional.of(user(encoder.encode("secret"))));
+		passwordService = new PasswordService(userRepository, encoder, cacheManager, 1, 4);
+
+		ExecutionException wrong = assertThrows(ExecutionException.class,
+			() -> passwordService.authenticate("guest@hotel.test", "guess").get());
+		ExecutionException unknown = assertThrows(ExecutionException.class,
+			() -> passwordService.authenticate("nobody@hotel.test", "secret").get());
+
+		assertInstanceOf(IllegalArgumentException.class, wrong.getCause());
+		assertEquals(wrong.getCause().getMessage(), unknown.getCause().getMessage());
+		verify(userRepository, never()).updatePassword(anyString(), anyString(), anyString());
+	}
+
+	private static PasswordEncoder encoder(int strength, long targetMs, int minStrength, int maxStrength) {
+		return new SecurityConfig().passwordEncoder(strength, targetMs, minStrength, maxStrength);
+	}
+
+	private static User user(String password) {
+		User user = new User("guest@hotel.test", password, "Guest", "User", null, List.of("ROLE_GUEST"), null);
+		user.setId("u1");
+		return user;
+	}
+}
@@ -0,0 +1,97 @@
+package com.skillstorm.hotel_management.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.skillstorm.hotel_management.config.PricingProperties;
+import com.skillstorm.hotel_management.dtos.Reservation.QuoteDto;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomType;
+
+class PricingEngineTests {
+
+	private final LocalDate monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+	private AvailabilityIndex index;
+	private PricingEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		index = new AvailabilityIndex(null, null, 30);
+		index.registerRoom(room("r1", RoomType.STANDARD));
+		index.registerRoom(room("r2", RoomType.STANDARD));
+		PricingProperties properties = new PricingProperties(10, 0.5, 3.0, List.of(
+			new PricingProperties.Rule("weekend", null, Set.of(DayOfWeek.SATURDAY), null, null, null, null, 1.5),
+			new PricingProperties.Rule("suites", Set.of(RoomType.SUITE), null, null, null, null, null, 2.0),
+			new PricingProperties.Rule("high-occupancy", null, null, null, null, 0.5, null, 1.2)
+		), Map.of(3, 0.9));
+		engine = new PricingEngine(index, properties, 30);
+	}
+
+	@Test
+	void ratesFollowDayOfWeekAndLengthOfStay() {
+		QuoteDto quote = engine.quote(room("r1", RoomType.STANDARD), monday.plusDays(4), monday.plusDays(7));
+		// Friday, Saturday, Sunday
+		assertEquals(List.of(100.0, 150.0, 100.0), quote.nightlyRates());
+		assertEquals(0.9, quote.lengthOfStayFactor());
+		assertEquals(315.0, quote.totalPrice());
+	}
+
+	@Test
+	void rulesApplyOnlyToTheirRoomType() {
+		QuoteDto quote = engine.quote(room("r3", RoomType.SUITE), monday, monday.plusDays(1));
+		assertEquals(200.0, quote.totalPrice());
+	}
+
+	@Test
+	void bookingsRaiseTheRateOnceOccupancyCrossesARule() {
+		assertEquals(100.0, engine.quote(room("r1", RoomType.STANDARD), monday, monday.plusDays(1)).totalPrice());
+		index.tryBook("r2", monday, monday.plusDays(1));
+		assertEquals(120.0, engine.quote(room("r1", RoomType.STANDARD), monday, monday.plusDays(1)).totalPrice());
+		index.release("r2", monday, monday.plusDays(1));
+		assertEquals(100.0, engine.quote(room("r1", RoomType.STANDARD), monday, monday.plusDays(1)).totalPrice());
+	}
+
+	@Test
+	void occupancyIsResolvedToTheHundredth() {
+		for (int i = 3; i <= 20; i++) {
+			index.registerRoom(room("r" + i, RoomType.STANDARD));
+		}
+		PricingProperties properties = new PricingProperties(100, 0.5, 3.0, List.of(
+			new PricingProperties.Rule("near-full", null, null, null, null, 0.95, null, 1.5)
+		), Map.of());
+		engine = new PricingEngine(index, properties, 30);
+		for (int i = 2; i <= 19; i++) {
+			index.tryBook("r" + i, monday, monday.plusDays(1));
+		}
+		// 18 of 20 rooms booked
+		assertEquals(100.0, engine.quote(room("r1", RoomType.STANDARD), monday, monday.plusDays(1)).totalPrice());
+		index.tryBook("r20", monday, monday.plusDays(1));
+		// 19 of 20, 95%
+		assertEquals(150.0, engine.quote(room("r1", RoomType.STANDARD), monday, monday.plusDays(1)).totalPrice());
+	}
+
+	@Test
+	void staysBeyondTheHorizonCannotBeQuoted() {
+		assertThrows(IllegalArgumentException.class,
+			() -> engine.quote(room("r1", RoomType.STANDARD), LocalDate.now().plusDays(29), LocalDate.now().plusDays(31)));
+	}
+
+	private Room room(String id, RoomType type) {
+		Room room = new Room();
+		room.setId(id);
+		room.setType(type);
+		room.setRoomNumber(id);
+		room.setPricePerNight(100.0);
+		return room;
+	}
+}
@@ -0,0 +1,119 @@
+package com.skillstorm.hotel_management.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.skillstorm.hotel_management.dtos.Reservation.ReservationDto;
+import com.skillstorm.hotel_management.exceptions.ConflictException;
+import com.skillstorm.hotel_management.models.Reservation;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomNights;
+import com.skillstorm.hotel_management.models.RoomType;
+import com.skillstorm.hotel_management.repositories.ReservationRepository;
+import com.skillstorm.hotel_management.repositories.RoomNightsRepository;
+import com.skillstorm.hotel_management.repositories.RoomRepository;
+
+class ReservationServiceTests {
+
+	private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+	private final RoomRepository roomRepository = mock(RoomRepository.class);
+	private final RoomNightsRepository roomNightsRepository = mock(RoomNightsRepository.class);
+	private final OutboxService outboxService = mock(OutboxService.class);
+	private final LocalDate day = LocalDate.now().plusDays(2);
+	private AvailabilityIndex index;
+	private ReservationService reservationService;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.stream(any(Query.class), any(Class.class))).thenAnswer(invocation -> Stream.empty());
+		index = new AvailabilityIndex(mongoTemplate, null, 30);
+		index.rebuild();
+		Room room = new Room();
+		room.setId("r1");
+		room.setType(RoomType.SUITE);
+		room.setMaxCapacity(2);
+		index.registerRoom(room);
+		when(roomRepository.findById("r1")).thenReturn(Optional.of(room));
+		when(outboxService.writeWith(any(), any())).thenAnswer(invocation -> {
+			Object written = ((Supplier<Object>) invocation.getArgument(0)).get();
+			((Function<Object, ?>) invocation.getArgument(1)).apply(written);
+			return written;
+		});
+		reservationService = new ReservationService(reservationRepository, roomRepository, roomNightsRepository, index,
+			mock(PricingEngine.class), outboxService, mock(AnalyticsService.class), mock(ApplicationEventPublisher.class), 3,
+			Duration.ofMinutes(1));
+	}
+
+	@Test
+	void lostClaimKeepsNightsOtherRequestsHold() {
+		// Another request on this instance holds day + 5, and is still claiming it
+		assertTrue(index.tryBook("r1", day.plusDays(5), day.plusDays(6)));
+		// Another instance booked day + 1
+		when(roomNightsRepository.claimNights(anyString(), anyList())).thenReturn(false);
+		when(roomNightsRepository.existsById("r1")).thenReturn(true);
+		RoomNights stored = new RoomNights("r1");
+		stored.setNights(List.of(day.plusDays(1).toEpochDay()));
+		when(roomNightsRepository.findById("r1")).thenReturn(Optional.of(stored));
+
+		assertThrows(ConflictException.class,
+			() -> reservationService.createReservation(new ReservationDto("r1", "u1", day, day.plusDays(2), 2)));
+
+		assertTrue(index.isAvailable("r1", day, day.plusDays(1)));
+		assertFalse(index.isAvailable("r1", day.plusDays(1), day.plusDays(2)));
+		assertFalse(index.isAvailable("r1", day.plusDays(5), day.plusDays(6)));
+	}
+
+	@Test
+	void interruptedCancellationIsFinishedBySweep() {
+		Reservation cancelling = reservation("res1", ReservationService.CANCELLING, day, day.plusDays(3));
+		when(reservationRepository.updateStatus("res1", ReservationService.CONFIRMED, ReservationService.CANCELLING))
+			.thenReturn(Optional.of(cancelling));
+		doThrow(new IllegalStateException("Mongo is down")).when(roomNightsRepository).releaseNights(anyString(), anyList());
+
+		assertThrows(IllegalStateException.class, () -> reservationService.cancelReservation("res1"));
+		verify(reservationRepository, never()).updateStatus("res1", ReservationService.CANCELLING, ReservationService.CANCELLED);
+
+		// The last night was booked again after all, by a reservation made since
+		Reservation since = reservation("res2", ReservationService.CONFIRMED, day.plusDays(2), day.plusDays(4));
+		when(reservationRepository.findByStatusAndUpdatedAtBefore(any(), any())).thenReturn(List.of(cancelling));
+		when(reservationRepository.findByRoomId("r1")).thenReturn(List.of(cancelling, since));
+		// Mongo is back
+		doNothing().when(roomNightsRepository).releaseNights(anyString(), anyList());
+		reservationService.finishInterruptedCancellations();
+
+		verify(roomNightsRepository).releaseNights("r1", List.of(day.toEpochDay(), day.plusDays(1).toEpochDay()));
+		verify(reservationRepository).updateStatus("res1", ReservationService.CANCELLING, ReservationService.CANCELLED);
+	}
+
+	private static Reservation reservation(String id, String status, LocalDate checkIn, LocalDate checkOut) {
+		Reservation reservation = new Reservation("r1", "u1", checkIn, checkOut, 2, 100.0, status);
+		reservation.setId(id);
+		return reservation;
+	}
+}
@@ -0,0 +1,73 @@
+package com.skillstorm.hotel_management.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.skillstorm.hotel_management.dtos.Room.RoomChangeEvent;
+import com.skillstorm.hotel_management.models.BedType;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomStatus;
+import com.skillstorm.hotel_management.models.RoomType;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Checks that room writes reach subscribers as deltas.
+ * Change streams need a replica set, a single node is enough:
+ * mvn test -Dtest=RoomEventServiceTests -Dmongo.replica-set.uri=mongodb://localhost:27017/?replicaSet=rs0
+ */
+@EnabledIfSystemProperty(named = "mongo.replica-set.uri", matches = ".+")
+class RoomEventServiceTests {
+
+	private MongoClient client;
+	private ReactiveMongoTemplate reactiveMongoTemplate;
+	private RoomEventService roomEventService;
+
+	@BeforeEach
+	void setUp() {
+		client = MongoClients.create(System.getProperty("mongo.replica-set.uri"));
+		reactiveMongoTemplate = new ReactiveMongoTemplate(client, "room_events_test");
+		reactiveMongoTemplate.dropCollection(Room.class).block();
+		reactiveMongoTemplate.createCollection(Room.class).block();
+		roomEventService = new RoomEventService(reactiveMongoTemplate, 16);
+	}
+
+	@AfterEach
+	void tearDown() {
+		reactiveMongoTemplate.getMongoDatabase().flatMap(db -> Mono.from(db.drop())).block();
+		client.close();
+	}
+
+	@Test
+	void statusChangeIsPushedAsDelta() throws Exception {
+		CompletableFuture<List<RoomChangeEvent>> received = roomEventService.subscribe().take(2).collectList().toFuture();
+		// Give the change stream time to open before writing
+		Thread.sleep(1000);
+
+		Room room = reactiveMongoTemplate.insert(new Room("101", RoomType.STANDARD, "", 100.0, 1, BedType.QUEEN, 20, 1, List.of(), List.of(), true, RoomStatus.AVAILABLE)).block();
+		reactiveMongoTemplate.updateFirst(Query.query(Criteria.where("id").is(room.getId())), Update.update("status", RoomStatus.CLEANING), Room.class).block();
+
+		List<RoomChangeEvent> events = received.get(10, TimeUnit.SECONDS);
+		assertEquals("insert", events.get(0).operation());
+		assertEquals("101", events.get(0).room().getRoomNumber());
+		assertEquals("update", events.get(1).operation());
+		assertEquals(room.getId(), events.get(1).roomId());
+		assertEquals(RoomStatus.CLEANING, events.get(1).changes().get("status"));
+		assertNull(events.get(1).room());
+	}
+}
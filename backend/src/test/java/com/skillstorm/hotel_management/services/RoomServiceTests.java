@@ -0,0 +1,163 @@
+package com.skillstorm.hotel_management.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.skillstorm.hotel_management.config.CacheConfig;
+import com.skillstorm.hotel_management.dtos.Room.BulkImportResultDto;
+import com.skillstorm.hotel_management.dtos.Room.EditRoomDto;
+import com.skillstorm.hotel_management.dtos.Room.RoomDto;
+import com.skillstorm.hotel_management.dtos.Room.RoomPageDto;
+import com.skillstorm.hotel_management.dtos.Room.RoomSearchCriteria;
+import com.skillstorm.hotel_management.dtos.Room.RowErrorDto;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomType;
+import com.skillstorm.hotel_management.repositories.PatchUpdate;
+import com.skillstorm.hotel_management.repositories.RoomNightsRepository;
+import com.skillstorm.hotel_management.repositories.RoomRepository;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class RoomServiceTests {
+
+	private final RoomRepository roomRepository = mock(RoomRepository.class);
+	private final RoomNightsRepository roomNightsRepository = mock(RoomNightsRepository.class);
+	private final AvailabilityIndex availabilityIndex = new AvailabilityIndex(null, null, 30);
+	private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.ROOMS, CacheConfig.ROOMS_BY_NUMBER);
+	private final RoomService roomService = new RoomService(roomRepository, roomNightsRepository, availabilityIndex,
+		mock(ImageService.class), JsonMapper.builder().build(), cacheManager, 2, 20);
+
+	@Test
+	void editSetsOnlyTheFieldsThatWereSent() {
+		Room room = room("r1", "101");
+		when(roomRepository.patchRoom(eq("r1"), any(PatchUpdate.class))).thenReturn(Optional.of(room));
+
+		roomService.editRoom("r1", new EditRoomDto(null, 150.0, null, null, null, null, List.of(), null, null));
+
+		ArgumentCaptor<PatchUpdate> patch = ArgumentCaptor.forClass(PatchUpdate.class);
+		verify(roomRepository).patchRoom(eq("r1"), patch.capture());
+		Document set = patch.getValue().toUpdate().getUpdateObject().get("$set", Document.class);
+		assertEquals(Set.of("pricePerNight", "amenities", "updatedAt"), set.keySet());
+	}
+
+	@Test
+	void editWithoutFieldsDoesNotWrite() {
+		when(roomRepository.findById("r1")).thenReturn(Optional.of(room("r1", "101")));
+
+		roomService.editRoom("r1", new EditRoomDto(null, null, null, null, null, null, null, null, null));
+
+		verify(roomRepository, never()).patchRoom(any(), any());
+	}
+
+	@Test
+	void importReportsEveryRejectedRow() {
+		when(roomRepository.findExistingRoomNumbers(anyCollection()))
+			.thenAnswer(invocation -> invocation.<List<String>>getArgument(0).contains("104") ? Set.of("104") : Set.of());
+		when(roomRepository.insertRooms(anyList())).thenAnswer(invocation -> {
+			List<Room> rooms = invocation.getArgument(0);
+			// 106 is lost to a duplicate key written since the check
+			List<String> roomNumbers = rooms.stream().map(Room::getRoomNumber).toList();
+			return roomNumbers.contains("106")
+				? List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), roomNumbers.indexOf("106")))
+				: List.of();
+		});
+		String body = """
+			{"roomNumber": "101", "floor": 1}
+			{"roomNumber": "102", "floor": "first"}
+			{"floor": 1}
+			{"roomNumber": "103"}
+			{"roomNumber": "101", "floor": 1}
+			{"roomNumber": "104", "floor": 1}
+			{"roomNumber": "105", "floor": 1}
+			{"roomNumber": "106", "floor": 1}
+			""";
+
+		BulkImportResultDto result = roomService.importRooms(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(8, result.received());
+		assertEquals(2, result.inserted());
+		assertEquals(List.of(1, 2, 3, 4, 5, 7), result.errors().stream().map(RowErrorDto::row).toList());
+		assertEquals(List.of("101", "104", "106"), result.errors().stream()
+			.filter(error -> error.row() >= 4).map(RowErrorDto::roomNumber).toList());
+		assertEquals("Room with this number already exists", result.errors().get(4).message());
+		assertEquals("E11000 duplicate key", result.errors().get(5).message());
+	}
+
+	@Test
+	void createAndImportIgnoreImagesInTheBody() {
+		JsonMapper mapper = JsonMapper.builder().build();
+		when(roomRepository.findByRoomNumber("101")).thenReturn(Optional.empty());
+		when(roomRepository.insert(any(Room.class))).thenAnswer(invocation -> {
+			Room room = invocation.getArgument(0);
+			room.setId("r1");
+			return room;
+		});
+		when(roomRepository.findExistingRoomNumbers(anyCollection())).thenReturn(Set.of());
+		when(roomRepository.insertRooms(anyList())).thenReturn(List.of());
+
+		Room created = roomService.createRoom(mapper.readValue("""
+			{"roomNumber": "101", "floor": 1, "images": ["not-a-stored-image"]}
+			""", RoomDto.class));
+		roomService.importRooms(new ByteArrayInputStream("""
+			{"roomNumber": "102", "floor": 1, "images": ["not-a-stored-image", "another"]}
+			""".getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(List.of(), created.getImages());
+		ArgumentCaptor<List<Room>> imported = ArgumentCaptor.captor();
+		verify(roomRepository).insertRooms(imported.capture());
+		assertEquals(List.of(), imported.getValue().get(0).getImages());
+	}
+
+	@Test
+	void fullPageCarriesTheCursorOfItsLastRoom() {
+		RoomSearchCriteria criteria = new RoomSearchCriteria(null, null, null, null, null, null, null, null, null, 2, false);
+		when(roomRepository.searchRooms(criteria, 3)).thenReturn(List.of(room("r1", "101"), room("r2", "102"), room("r3", "103")));
+
+		RoomPageDto page = roomService.searchRooms(criteria);
+
+		assertEquals(List.of("101", "102"), page.rooms().stream().map(Room::getRoomNumber).toList());
+		assertEquals("102", page.nextCursor());
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		RoomSearchCriteria criteria = new RoomSearchCriteria(null, null, null, null, null, null, null, null, "102", 2, false);
+		when(roomRepository.searchRooms(criteria, 3)).thenReturn(List.of(room("r3", "103"), room("r4", "104")));
+
+		RoomPageDto page = roomService.searchRooms(criteria);
+
+		assertEquals(2, page.rooms().size());
+		assertNull(page.nextCursor());
+	}
+
+	private static Room room(String id, String roomNumber) {
+		Room room = new Room();
+		room.setId(id);
+		room.setRoomNumber(roomNumber);
+		room.setType(RoomType.STANDARD);
+		room.setFloor(1);
+		return room;
+	}
+}
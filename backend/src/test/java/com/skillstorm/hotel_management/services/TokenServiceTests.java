@@ -0,0 +1,87 @@
+package com.skillstorm.hotel_management.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.skillstorm.hotel_management.models.RevokedToken;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.repositories.RevokedTokenRepository;
+
+class TokenServiceTests {
+
+	private static final String SECRET = "aG90ZWwtbWFuYWdlbWVudC10ZXN0LXNlY3JldC1rZXktMzJi";
+
+	private final RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+
+	@Test
+	void tokenCarriesRoles() {
+		TokenService tokenService = tokenService(SECRET);
+		String token = tokenService.issue(user()).accessToken();
+
+		Authentication authentication = tokenService.authenticate(token);
+
+		assertEquals("manager@hotel.test", authentication.getName());
+		assertEquals(List.of("ROLE_MANAGER"), authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+		// Served from the cache the second time
+		assertEquals(authentication, tokenService.authenticate(token));
+	}
+
+	@Test
+	void tokenSignedWithAnotherKeyIsRejected() {
+		String token = tokenService("b3RoZXItaG90ZWwtbWFuYWdlbWVudC1zZWNyZXQta2V5LTMyYg==").issue(user()).accessToken();
+
+		assertThrows(JwtException.class, () -> tokenService(SECRET).authenticate(token));
+		assertThrows(JwtException.class, () -> tokenService(SECRET).authenticate("not-a-token"));
+	}
+
+	@Test
+	void revokedTokenIsRejectedOnEveryInstance() {
+		TokenService instance = tokenService(SECRET);
+		TokenService otherInstance = tokenService(SECRET);
+		String token = instance.issue(user()).accessToken();
+		otherInstance.authenticate(token);
+
+		instance.revoke(token);
+		ArgumentCaptor<RevokedToken> revoked = ArgumentCaptor.forClass(RevokedToken.class);
+		verify(revokedTokenRepository).save(revoked.capture());
+		when(revokedTokenRepository.findByCreatedAtAfter(any())).thenReturn(List.of(revoked.getValue()));
+		otherInstance.syncRevocations();
+
+		assertThrows(JwtException.class, () -> instance.authenticate(token));
+		assertThrows(JwtException.class, () -> otherInstance.authenticate(token));
+	}
+
+	@Test
+	void revokingUserRejectsTheirTokens() {
+		TokenService tokenService = tokenService(SECRET);
+		String token = tokenService.issue(user()).accessToken();
+		tokenService.authenticate(token);
+
+		tokenService.revokeUser("u1");
+
+		assertThrows(JwtException.class, () -> tokenService.authenticate(token));
+	}
+
+	private TokenService tokenService(String secret) {
+		return new TokenService(revokedTokenRepository, secret, "hotel-management", Duration.ofMinutes(5), 100);
+	}
+
+	private static User user() {
+		User user = new User("manager@hotel.test", null, "Manager", "User", null, List.of("ROLE_MANAGER"), null);
+		user.setId("u1");
+		return user;
+	}
+}
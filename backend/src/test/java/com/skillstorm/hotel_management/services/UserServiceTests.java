@@ -0,0 +1,78 @@
+package com.skillstorm.hotel_management.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.skillstorm.hotel_management.config.CacheConfig;
+import com.skillstorm.hotel_management.dtos.User.EditRolesDto;
+import com.skillstorm.hotel_management.dtos.User.UserDto;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.repositories.PatchUpdate;
+import com.skillstorm.hotel_management.repositories.UserRepository;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class UserServiceTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final OutboxService outboxService = mock(OutboxService.class);
+	private final PasswordService passwordService = mock(PasswordService.class);
+	private final TokenService tokenService = mock(TokenService.class);
+	private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.USERS_BY_EMAIL);
+	private final UserService userService = new UserService(userRepository, cacheManager, outboxService, passwordService, tokenService);
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void signUpIgnoresRolesTheClientSends() {
+		when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+		when(passwordService.hash(anyString())).thenReturn("{bcrypt}hash");
+		when(userRepository.insert(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(outboxService.writeWith(any(), any())).thenAnswer(invocation -> {
+			Object created = ((Supplier<Object>) invocation.getArgument(0)).get();
+			((Function<Object, ?>) invocation.getArgument(1)).apply(created);
+			return created;
+		});
+		// The request body as an attacker would send it
+		String body = """
+			{"email": "mallory@hotel.test", "password": "secret", "firstName": "Mallory", "lastName": "User",
+			 "newsLetter": false, "notifications": true, "roles": ["ROLE_ADMIN"]}
+			""";
+
+		User user = userService.createUser(JsonMapper.builder().build()
+			.readValue(body, UserDto.class));
+
+		assertEquals(List.of(UserService.GUEST_ROLE), user.getRoles());
+	}
+
+	@Test
+	void onlyKnownRolesCanBeGranted() {
+		assertThrows(IllegalArgumentException.class, () -> userService.editUserRoles("u1", new EditRolesDto(List.of("ROLE_OWNER"))));
+		assertThrows(IllegalArgumentException.class, () -> userService.editUserRoles("u1", new EditRolesDto(List.of())));
+		verify(userRepository, never()).patchUser(anyString(), any());
+	}
+
+	@Test
+	void grantingARoleRevokesTheUsersTokens() {
+		User user = new User("staff@hotel.test", null, "Staff", "User", null, List.of("ROLE_MANAGER"), null);
+		user.setId("u1");
+		when(userRepository.patchUser(anyString(), any(PatchUpdate.class))).thenReturn(Optional.of(user));
+
+		assertEquals(user, userService.editUserRoles("u1", new EditRolesDto(List.of("ROLE_MANAGER"))));
+		verify(tokenService).revokeUser("u1");
+	}
+}
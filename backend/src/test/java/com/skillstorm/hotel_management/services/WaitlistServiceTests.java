@@ -0,0 +1,202 @@
+package com.skillstorm.hotel_management.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.skillstorm.hotel_management.dtos.Reservation.ReservationDto;
+import com.skillstorm.hotel_management.dtos.Waitlist.WaitlistDto;
+import com.skillstorm.hotel_management.models.LoyaltyTier;
+import com.skillstorm.hotel_management.models.Reservation;
+import com.skillstorm.hotel_management.models.Room;
+import com.skillstorm.hotel_management.models.RoomType;
+import com.skillstorm.hotel_management.models.User;
+import com.skillstorm.hotel_management.models.WaitlistEntry;
+import com.skillstorm.hotel_management.repositories.RoomRepository;
+import com.skillstorm.hotel_management.repositories.UserRepository;
+import com.skillstorm.hotel_management.repositories.WaitlistRepository;
+
+class WaitlistServiceTests {
+
+	private final WaitlistRepository waitlistRepository = mock(WaitlistRepository.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final RoomRepository roomRepository = mock(RoomRepository.class);
+	private final ReservationService reservationService = mock(ReservationService.class);
+	private final AvailabilityIndex index = new AvailabilityIndex(null, null, 30);
+	private final LocalDate checkIn = LocalDate.now().plusDays(3);
+	private final LocalDate checkOut = checkIn.plusDays(2);
+	private WaitlistService waitlistService;
+
+	@BeforeEach
+	void setUp() {
+		// 0.5 of the two suites lets one guest wait per night
+		waitlistService = new WaitlistService(waitlistRepository, userRepository, roomRepository, reservationService, index,
+			Runnable::run, 0.5, 64, 30, Duration.ofMinutes(10));
+		index.registerRoom(room("r1"));
+		index.registerRoom(room("r2"));
+		index.mark("r1", checkIn, checkOut);
+		index.mark("r2", checkIn, checkOut);
+		when(roomRepository.findById("r1")).thenReturn(Optional.of(room("r1")));
+		when(reservationService.getAvailableRooms(any(), any())).thenReturn(List.of());
+		AtomicInteger ids = new AtomicInteger();
+		when(waitlistRepository.save(any())).thenAnswer(invocation -> {
+			WaitlistEntry entry = invocation.getArgument(0);
+			entry.setId("w" + ids.incrementAndGet());
+			entry.setCreatedAt(new Date(ids.get()));
+			return entry;
+		});
+		when(waitlistRepository.updateStatus(anyString(), any(), any())).thenReturn(Optional.of(new WaitlistEntry()));
+		Reservation reservation = new Reservation();
+		reservation.setId("res1");
+		// Booking takes the nights, as the real service does
+		when(reservationService.createReservation(any())).thenAnswer(invocation -> {
+			ReservationDto booking = invocation.getArgument(0);
+			index.mark(booking.roomId(), booking.checkIn(), booking.checkOut());
+			return reservation;
+		});
+	}
+
+	@Test
+	void cancellationGoesToTheHighestTierFirst() {
+		user("early", LoyaltyTier.MEMBER);
+		user("gold", LoyaltyTier.GOLD);
+		waitlistService = new WaitlistService(waitlistRepository, userRepository, roomRepository, reservationService, index,
+			Runnable::run, 1.0, 64, 30, Duration.ofMinutes(10));
+		waitlistService.joinWaitlist(new WaitlistDto("early", RoomType.SUITE, checkIn, checkOut, 2));
+		WaitlistEntry gold = waitlistService.joinWaitlist(new WaitlistDto("gold", RoomType.SUITE, checkIn, checkOut, 2));
+
+		index.release("r1", checkIn, checkOut);
+		waitlistService.onRoomReleased(new RoomReleasedEvent("r1", checkIn, checkOut));
+
+		ArgumentCaptor<ReservationDto> booked = ArgumentCaptor.forClass(ReservationDto.class);
+		verify(reservationService).createReservation(booked.capture());
+		assertEquals("gold", booked.getValue().userId());
+		verify(waitlistRepository).markAllocated(gold.getId(), WaitlistService.ALLOCATING, WaitlistService.ALLOCATED, "res1");
+	}
+
+	@Test
+	void stayThatDoesNotFitTheFreedNightsKeepsWaiting() {
+		user("guest", LoyaltyTier.PLATINUM);
+		waitlistService.joinWaitlist(new WaitlistDto("guest", RoomType.SUITE, checkIn, checkOut, 2));
+
+		// Only the first night is freed, the guest needs both
+		index.release("r1", checkIn, checkIn.plusDays(1));
+		waitlistService.onRoomReleased(new RoomReleasedEvent("r1", checkIn, checkIn.plusDays(1)));
+
+		verify(reservationService, never()).createReservation(any());
+	}
+
+	@Test
+	void waitlistIsFullOnceTheAllowanceIsReached() {
+		user("first", LoyaltyTier.MEMBER);
+		user("second", LoyaltyTier.GOLD);
+		waitlistService.joinWaitlist(new WaitlistDto("first", RoomType.SUITE, checkIn, checkOut, 2));
+
+		assertThrows(IllegalArgumentException.class,
+			() -> waitlistService.joinWaitlist(new WaitlistDto("second", RoomType.SUITE, checkOut.minusDays(1), checkOut.plusDays(1), 2)));
+		// The night after the first stay is still open
+		waitlistService.joinWaitlist(new WaitlistDto("second", RoomType.SUITE, checkOut, checkOut.plusDays(1), 2));
+	}
+
+	@Test
+	void smallRoomTypeStillTakesOneGuest() {
+		user("first", LoyaltyTier.MEMBER);
+		user("second", LoyaltyTier.MEMBER);
+		// 0.2 of the two suites is 0.4 guests, rounded up to one
+		waitlistService = new WaitlistService(waitlistRepository, userRepository, roomRepository, reservationService, index,
+			Runnable::run, 0.2, 64, 30, Duration.ofMinutes(10));
+
+		waitlistService.joinWaitlist(new WaitlistDto("first", RoomType.SUITE, checkIn, checkOut, 2));
+		assertThrows(IllegalArgumentException.class,
+			() -> waitlistService.joinWaitlist(new WaitlistDto("second", RoomType.SUITE, checkIn, checkOut, 2)));
+	}
+
+	@Test
+	void failedBookingPutsTheEntryBack() {
+		user("guest", LoyaltyTier.MEMBER);
+		waitlistService.joinWaitlist(new WaitlistDto("guest", RoomType.SUITE, checkIn, checkOut, 2));
+		Reservation reservation = new Reservation();
+		reservation.setId("res1");
+		doThrow(new IllegalArgumentException("Room is not available for the selected dates"))
+			.doReturn(reservation)
+			.when(reservationService).createReservation(any());
+
+		index.release("r1", checkIn, checkOut);
+		waitlistService.onRoomReleased(new RoomReleasedEvent("r1", checkIn, checkOut));
+		verify(waitlistRepository).updateStatus("w1", WaitlistService.ALLOCATING, WaitlistService.WAITING);
+
+		// The entry kept its place and gets the next room freed
+		waitlistService.onRoomReleased(new RoomReleasedEvent("r1", checkIn, checkOut));
+		verify(waitlistRepository).markAllocated("w1", WaitlistService.ALLOCATING, WaitlistService.ALLOCATED, "res1");
+	}
+
+	@Test
+	void bookedEntryIsNotQueuedAgainWhenRecordingItFails() {
+		user("guest", LoyaltyTier.MEMBER);
+		waitlistService.joinWaitlist(new WaitlistDto("guest", RoomType.SUITE, checkIn, checkOut, 2));
+		when(waitlistRepository.markAllocated(anyString(), any(), any(), any())).thenThrow(new IllegalStateException("Mongo is down"));
+
+		index.release("r1", checkIn, checkOut);
+		waitlistService.onRoomReleased(new RoomReleasedEvent("r1", checkIn, checkOut));
+		index.release("r1", checkIn, checkOut);
+		waitlistService.onRoomReleased(new RoomReleasedEvent("r1", checkIn, checkOut));
+
+		verify(reservationService, times(1)).createReservation(any());
+		verify(waitlistRepository, never()).updateStatus("w1", WaitlistService.ALLOCATING, WaitlistService.WAITING);
+	}
+
+	@Test
+	void refreshSettlesEntriesLeftAllocating() {
+		WaitlistEntry booked = new WaitlistEntry("booked", RoomType.SUITE, checkIn, checkOut, 2, LoyaltyTier.MEMBER, WaitlistService.ALLOCATING);
+		booked.setId("w1");
+		WaitlistEntry unbooked = new WaitlistEntry("unbooked", RoomType.SUITE, checkIn, checkOut, 2, LoyaltyTier.MEMBER, WaitlistService.ALLOCATING);
+		unbooked.setId("w2");
+		when(waitlistRepository.findByStatusAndUpdatedAtBefore(any(), any())).thenReturn(List.of(booked, unbooked));
+		when(waitlistRepository.streamByStatusAndCheckInGreaterThanEqual(any(), any())).thenReturn(Stream.empty());
+		Reservation reservation = new Reservation();
+		reservation.setId("res1");
+		reservation.setStatus(ReservationService.CONFIRMED);
+		reservation.setCheckIn(checkIn);
+		reservation.setCheckOut(checkOut);
+		when(reservationService.getReservationsByUser("booked")).thenReturn(List.of(reservation));
+
+		waitlistService.refresh();
+
+		verify(waitlistRepository).markAllocated("w1", WaitlistService.ALLOCATING, WaitlistService.ALLOCATED, "res1");
+		verify(waitlistRepository).updateStatus("w2", WaitlistService.ALLOCATING, WaitlistService.WAITING);
+	}
+
+	private void user(String id, LoyaltyTier tier) {
+		User user = new User(id + "@hotel.test", null, "Guest", "User", null, List.of("ROLE_GUEST"), null);
+		user.setId(id);
+		user.setLoyaltyTier(tier);
+		when(userRepository.findById(id)).thenReturn(Optional.of(user));
+	}
+
+	private static Room room(String id) {
+		Room room = new Room();
+		room.setId(id);
+		room.setType(RoomType.SUITE);
+		room.setMaxCapacity(2);
+		return room;
+	}
+}